@@ -0,0 +1,193 @@
+package com.mybook.benchmark;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.mybook.data.local.AppDatabase;
+import com.mybook.data.local.DatabaseTuningCallback;
+import com.mybook.data.local.dao.PostDao;
+import com.mybook.data.local.migration.Migrations;
+import com.mybook.data.model.Post;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 数据库配置基准测试
+ * 同一组测试分别运行在调优后的配置（WAL、synchronous=NORMAL、页缓存和内存映射）和调优前的默认配置（回滚日志）上，
+ * 比较单次提交的刷盘开销、批量写入吞吐，以及后台持续写入时首页查询的延迟
+ */
+@RunWith(Parameterized.class)
+public class DatabaseBenchmark {
+    private static final String DATABASE_NAME = "benchmark_database";
+
+    /**
+     * 预置的帖子数量，约为信息流缓存的规模
+     */
+    private static final int SEEDED_POSTS = 1000;
+
+    /**
+     * 首页查询的条数，与PostRepositoryImpl的首次加载数量一致
+     */
+    private static final int FEED_PAGE_SIZE = 40;
+
+    /**
+     * 批量写入的帖子数量，与一页同步结果相当
+     */
+    private static final int BATCH_SIZE = 50;
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final boolean tuned;
+    private Context context;
+    private AppDatabase database;
+    private PostDao postDao;
+    private int revision;
+
+    /**
+     * 测试参数
+     * @return 是否使用调优后的配置
+     */
+    @Parameterized.Parameters(name = "tuned={0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[]{true}, new Object[]{false});
+    }
+
+    /**
+     * 构造函数
+     * @param tuned 为true时使用与AppDatabase相同的调优配置
+     */
+    public DatabaseBenchmark(boolean tuned) {
+        this.tuned = tuned;
+    }
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
+                .addMigrations(Migrations.ALL);
+        if (tuned) {
+            builder.setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                    .addCallback(new DatabaseTuningCallback());
+        } else {
+            builder.setJournalMode(RoomDatabase.JournalMode.TRUNCATE);
+        }
+        database = builder.build();
+        postDao = database.postDao();
+
+        List<Post> posts = new ArrayList<>(SEEDED_POSTS);
+        for (int i = 0; i < SEEDED_POSTS; i++) {
+            posts.add(post(i, 0));
+        }
+        postDao.savePosts(posts);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    /**
+     * 单个帖子的一次提交，主要是日志写入和刷盘的开销
+     */
+    @Test
+    public void commitSinglePost() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            // 每次修改内容，保证差量保存真正写入
+            postDao.savePost(post(revision % SEEDED_POSTS, ++revision));
+        }
+    }
+
+    /**
+     * 一个事务中写入一批帖子
+     */
+    @Test
+    public void commitBatch() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            revision++;
+            List<Post> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(post((revision * BATCH_SIZE + i) % SEEDED_POSTS, revision));
+            }
+            state.resumeTiming();
+            postDao.savePosts(batch);
+        }
+    }
+
+    /**
+     * 空闲时的首页查询
+     */
+    @Test
+    public void feedFirstPage() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            postDao.getFeedFirstPage(FEED_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * 另一个线程持续逐条提交时的首页查询，回滚日志模式下读取需要等待写事务结束
+     */
+    @Test
+    public void feedFirstPageWhileWriting() throws InterruptedException {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int writerRevision = 0;
+            while (writing.get()) {
+                writerRevision++;
+                postDao.savePost(post(writerRevision % SEEDED_POSTS, -writerRevision));
+            }
+        }, "benchmark-writer");
+        writer.start();
+        try {
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                postDao.getFeedFirstPage(FEED_PAGE_SIZE);
+            }
+        } finally {
+            writing.set(false);
+            writer.join();
+        }
+    }
+
+    /**
+     * 创建测试帖子
+     * @param index 帖子序号，决定ID和发布时间
+     * @param revision 内容版本，不同版本的内容哈希不同
+     * @return 帖子
+     */
+    private static Post post(int index, int revision) {
+        Post post = new Post();
+        post.setId("post-" + index);
+        post.setUserId("user-" + (index % 50));
+        post.setName("User " + (index % 50));
+        post.setContent("Benchmark post " + index + " revision " + revision);
+        post.setImages(Collections.singletonList("https://example.com/images/" + index + ".jpg"));
+        post.setLikes(revision);
+        post.setCreatedAt(String.format(Locale.US, "2024-01-01T00:%02d:%02dZ", index / 60 % 60, index % 60));
+        return post;
+    }
+}
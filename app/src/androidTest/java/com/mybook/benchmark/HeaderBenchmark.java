@@ -0,0 +1,91 @@
+package com.mybook.benchmark;
+
+import static org.junit.Assert.assertNotNull;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.mybook.data.remote.interceptor.HeaderProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import okhttp3.Request;
+
+/**
+ * 请求头构建基准测试
+ * 比较每个请求的耗时和内存分配：调优前拦截器逐个设置固定请求头并格式化时间戳，
+ * HeaderProvider复用缓存的固定请求头和同一毫秒内的时间戳，签名与其他请求头一起写入
+ * 认证请求头依赖登录状态，这里不携带，避免改动设备上保存的令牌
+ */
+@RunWith(AndroidJUnit4.class)
+public class HeaderBenchmark {
+    private static final Request REQUEST = new Request.Builder()
+            .url("https://api.example.com/posts?since=t1")
+            .build();
+
+    /**
+     * 接口上已声明请求头的请求，需要逐个检查同名的固定请求头
+     */
+    private static final Request REQUEST_WITH_HEADERS = new Request.Builder()
+            .url("https://api.example.com/posts/p1")
+            .header("Accept", "application/json")
+            .build();
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    /**
+     * 调优前的做法：每个请求重新设置全部固定请求头，并把当前时间格式化为字符串
+     */
+    @Test
+    public void rebuildHeadersPerRequest() {
+        BenchmarkState state = benchmarkRule.getState();
+        Request result = null;
+        while (state.keepRunning()) {
+            result = REQUEST.newBuilder()
+                    .header("Accept", "application/json")
+                    .header("Content-Type", "application/json")
+                    .header("X-Timestamp", String.valueOf(System.currentTimeMillis()))
+                    .header("X-Device-Type", "Android")
+                    .build();
+        }
+        assertNotNull(result);
+    }
+
+    /**
+     * 接口未声明请求头，直接使用缓存的固定请求头
+     */
+    @Test
+    public void headerProvider() {
+        measure(new HeaderProvider(null, null), REQUEST);
+    }
+
+    /**
+     * 接口已声明部分请求头，逐个补齐缺少的固定请求头
+     */
+    @Test
+    public void headerProviderWithDeclaredHeaders() {
+        measure(new HeaderProvider(null, null), REQUEST_WITH_HEADERS);
+    }
+
+    /**
+     * 带签名，签名与其他请求头写入同一个Request.Builder，不再复制一次请求
+     * 签名本身返回常量，只测量签名带来的请求头构建开销
+     */
+    @Test
+    public void headerProviderWithSigner() {
+        measure(new HeaderProvider(null, (request, timestamp) -> "signature"), REQUEST);
+    }
+
+    private void measure(HeaderProvider provider, Request request) {
+        BenchmarkState state = benchmarkRule.getState();
+        Request result = null;
+        while (state.keepRunning()) {
+            result = provider.apply(request);
+        }
+        assertNotNull(result);
+    }
+}
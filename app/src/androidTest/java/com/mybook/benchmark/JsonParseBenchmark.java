@@ -0,0 +1,95 @@
+package com.mybook.benchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mybook.data.json.GsonProvider;
+import com.mybook.data.model.Post;
+import com.mybook.data.model.User;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JSON解析基准测试
+ * 解析5000条帖子的响应体，比较GsonProvider中手写TypeAdapter与Gson默认反射解析的耗时和内存分配
+ * 响应体由GsonProvider序列化得到，与网络层收到的格式一致
+ */
+@RunWith(AndroidJUnit4.class)
+public class JsonParseBenchmark {
+    /**
+     * 响应体中的帖子数量
+     */
+    private static final int POST_COUNT = 5000;
+
+    private static final Type POST_LIST_TYPE = new TypeToken<List<Post>>(){}.getType();
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private byte[] payload;
+
+    @Before
+    public void setUp() {
+        List<Post> posts = new ArrayList<>(POST_COUNT);
+        for (int i = 0; i < POST_COUNT; i++) {
+            User user = new User();
+            user.setId("user-" + (i % 100));
+            user.setName("User " + (i % 100));
+            user.setAvatar("https://example.com/avatars/" + (i % 100) + ".jpg");
+            Post post = new Post("post-" + i, user, "Benchmark post " + i + " with some text to parse",
+                    Arrays.asList("https://example.com/images/" + i + "-1.jpg",
+                            "https://example.com/images/" + i + "-2.jpg"),
+                    i % 500, i % 40, i % 7, i % 2 == 0, i % 3 == 0, i % 5 == 0, i % 11,
+                    "2024-01-01T00:00:00Z");
+            posts.add(post);
+        }
+        payload = GsonProvider.get().toJson(posts, POST_LIST_TYPE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 注册了手写TypeAdapter的共享实例
+     */
+    @Test
+    public void parseWithTypeAdapters() {
+        parse(GsonProvider.get());
+    }
+
+    /**
+     * 未注册TypeAdapter的Gson，帖子和用户经过ReflectiveTypeAdapterFactory
+     */
+    @Test
+    public void parseWithReflection() {
+        parse(new Gson());
+    }
+
+    /**
+     * 与Retrofit的转换器一样从字节流解析整个响应体
+     * @param gson 用于解析的Gson实例，在计时开始前创建，适配器缓存在首轮预热后建立
+     */
+    private void parse(Gson gson) {
+        BenchmarkState state = benchmarkRule.getState();
+        List<Post> posts = null;
+        while (state.keepRunning()) {
+            Reader reader = new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+            posts = gson.fromJson(reader, POST_LIST_TYPE);
+        }
+        assertEquals(POST_COUNT, posts.size());
+    }
+}
@@ -1,13 +1,27 @@
 package com.mybook;
 
 import android.app.Application;
+import android.util.Log;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatDelegate;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ProcessLifecycleOwner;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.mybook.data.local.AppDatabase;
+import com.mybook.data.local.WriteBehindQueue;
+import com.mybook.data.repository.OutboxProcessor;
 
 /**
  * 应用入口类
  */
 public class MyBookApplication extends Application {
+    private static final String TAG = "MyBookApplication";
+
     private static volatile MyBookApplication instance;
 
     /**
@@ -28,5 +42,29 @@ public class MyBookApplication extends Application {
         
         // 设置默认主题为浅色主题
         AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_NO);
+
+        // 在后台预先打开数据库，首页首次查询时无需再等待建表或迁移
+        // 预热失败不影响启动，首次使用时会再次尝试打开，这里记录原因便于排查
+        Futures.addCallback(AppDatabase.warmUp(this), new FutureCallback<AppDatabase>() {
+            @Override
+            public void onSuccess(AppDatabase database) {
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable throwable) {
+                Log.e(TAG, "Failed to warm up database", throwable);
+            }
+        }, MoreExecutors.directExecutor());
+
+        // 在后台恢复上次未发送完的写操作，并在网络恢复时继续发送
+        OutboxProcessor.start(this);
+
+        // 应用进入后台时提交尚未落库的写操作，避免进程被回收时丢失数据
+        ProcessLifecycleOwner.get().getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStop(@NonNull LifecycleOwner owner) {
+                WriteBehindQueue.flushAll();
+            }
+        });
     }
 }
@@ -0,0 +1,222 @@
+package com.mybook.base.concurrent;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全局线程调度器
+ * 按任务类型划分有界线程池，替代各类中各自创建的单线程池：
+ * 数据库写入统一经过单线程写通道串行执行，数据库读取、网络回调和CPU计算分别在独立的线程池中并行执行
+ */
+public class AppExecutors {
+    private static final String TAG = "AppExecutors";
+
+    private static volatile AppExecutors instance;
+
+    /**
+     * CPU核心数
+     */
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 数据库读取线程数，WAL模式下系统连接池默认最多4个连接，读线程数与之匹配
+     */
+    private static final int DISK_READ_THREADS = Math.max(2, Math.min(CPU_COUNT, 4));
+
+    /**
+     * 网络回调处理线程数
+     */
+    private static final int NETWORK_THREADS = 4;
+
+    /**
+     * CPU计算线程数，留出一个核心给主线程
+     */
+    private static final int COMPUTE_THREADS = Math.max(1, CPU_COUNT - 1);
+
+    /**
+     * 写通道队列容量，积压超过该值时提交方阻塞等待
+     */
+    private static final int DISK_WRITE_QUEUE_CAPACITY = 1024;
+
+    /**
+     * 其他线程池的队列容量，积压超过该值时转交给后台备用线程执行
+     * 这些线程池会从主线程提交任务（Room的LiveData查询和失效通知、网络请求），不能在提交线程中执行
+     */
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final Executor diskWrite;
+    private final Executor diskRead;
+    private final Executor network;
+    private final Executor compute;
+    private final Executor mainThread;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param diskWrite 数据库写入执行器，必须是串行的
+     * @param diskRead 数据库读取执行器
+     * @param network 网络回调执行器
+     * @param compute CPU计算执行器
+     * @param mainThread 主线程执行器
+     * @param scheduler 定时器，只负责到期后把任务转交给目标执行器
+     */
+    public AppExecutors(Executor diskWrite, Executor diskRead, Executor network, Executor compute,
+                        Executor mainThread, ScheduledExecutorService scheduler) {
+        this.diskWrite = diskWrite;
+        this.diskRead = diskRead;
+        this.network = network;
+        this.compute = compute;
+        this.mainThread = mainThread;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 私有构造函数，创建默认的线程池
+     */
+    private AppExecutors() {
+        this(new MeteredThreadPoolExecutor("db-write", 1, DISK_WRITE_QUEUE_CAPACITY,
+                        Process.THREAD_PRIORITY_BACKGROUND, new MeteredThreadPoolExecutor.BlockingPolicy(
+                                Looper.getMainLooper().getThread(),
+                                MeteredThreadPoolExecutor.BlockingPolicy.DEFAULT_TIMEOUT_MILLIS)),
+                new MeteredThreadPoolExecutor("db-read", DISK_READ_THREADS, QUEUE_CAPACITY,
+                        Process.THREAD_PRIORITY_BACKGROUND,
+                        new MeteredThreadPoolExecutor.OverflowPolicy("db-read", Process.THREAD_PRIORITY_BACKGROUND)),
+                new MeteredThreadPoolExecutor("net", NETWORK_THREADS, QUEUE_CAPACITY,
+                        Process.THREAD_PRIORITY_BACKGROUND,
+                        new MeteredThreadPoolExecutor.OverflowPolicy("net", Process.THREAD_PRIORITY_BACKGROUND)),
+                new MeteredThreadPoolExecutor("cpu", COMPUTE_THREADS, QUEUE_CAPACITY,
+                        Process.THREAD_PRIORITY_DEFAULT,
+                        new MeteredThreadPoolExecutor.OverflowPolicy("cpu", Process.THREAD_PRIORITY_DEFAULT)),
+                new MainThreadExecutor(),
+                new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("timer", Process.THREAD_PRIORITY_BACKGROUND)));
+    }
+
+    /**
+     * 获取AppExecutors实例
+     * @return AppExecutors实例
+     */
+    public static AppExecutors getInstance() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    instance = new AppExecutors();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 数据库写入通道，所有写操作按提交顺序串行执行
+     * 队列已满时写线程内的提交直接执行，其他线程等待空位，超时抛出RejectedExecutionException
+     * @return 写入执行器
+     */
+    public Executor diskWrite() {
+        return diskWrite;
+    }
+
+    /**
+     * 数据库读取线程池，读操作之间并行执行
+     * @return 读取执行器
+     */
+    public Executor diskRead() {
+        return diskRead;
+    }
+
+    /**
+     * 网络回调线程池，用于处理网络响应，避免占用主线程
+     * @return 网络回调执行器
+     */
+    public Executor network() {
+        return network;
+    }
+
+    /**
+     * CPU计算线程池，用于JSON映射、列表比较等计算任务
+     * @return 计算执行器
+     */
+    public Executor compute() {
+        return compute;
+    }
+
+    /**
+     * 主线程执行器
+     * @return 主线程执行器
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * 延迟执行任务
+     * @param target 到期后执行任务的执行器
+     * @param task 任务
+     * @param delayMillis 延迟时间（毫秒）
+     * @return 可用于取消的句柄
+     */
+    public ScheduledFuture<?> schedule(Executor target, Runnable task, long delayMillis) {
+        return scheduler.schedule(() -> target.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取各线程池当前的队列深度
+     * @return 线程池名称到队列深度的映射，注入的非统计线程池不包含在内
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        for (MeteredThreadPoolExecutor executor : getMeteredExecutors()) {
+            depths.put(executor.getName(), executor.getQueueDepth());
+        }
+        return depths;
+    }
+
+    /**
+     * 输出各线程池的统计信息到日志
+     */
+    public void logMetrics() {
+        for (MeteredThreadPoolExecutor executor : getMeteredExecutors()) {
+            Log.d(TAG, executor.describe());
+        }
+    }
+
+    /**
+     * 获取带统计信息的线程池
+     * @return 线程池列表
+     */
+    private List<MeteredThreadPoolExecutor> getMeteredExecutors() {
+        List<MeteredThreadPoolExecutor> executors = new ArrayList<>();
+        for (Executor executor : new Executor[]{diskWrite, diskRead, network, compute}) {
+            if (executor instanceof MeteredThreadPoolExecutor) {
+                executors.add((MeteredThreadPoolExecutor) executor);
+            }
+        }
+        return Collections.unmodifiableList(executors);
+    }
+
+    /**
+     * 主线程执行器
+     */
+    private static class MainThreadExecutor implements Executor {
+        private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mainThreadHandler.post(command);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.mybook.base.concurrent;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带统计信息的有界线程池
+ * 线程按"mybook-名称-序号"命名，便于在堆栈和性能分析中定位，同时记录队列积压的峰值
+ */
+public class MeteredThreadPoolExecutor extends ThreadPoolExecutor {
+    /**
+     * 空闲线程的存活时间（秒），超时后回收以减少常驻线程
+     */
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * 当前线程所属的线程池，工作线程执行第一个任务前设置
+     */
+    private static final ThreadLocal<MeteredThreadPoolExecutor> CURRENT_POOL = new ThreadLocal<>();
+
+    private final String name;
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    /**
+     * 构造函数
+     * @param name 线程池名称，用于线程命名和统计
+     * @param threadCount 线程数量
+     * @param queueCapacity 等待队列容量
+     * @param threadPriority 线程优先级，取值为android.os.Process中的THREAD_PRIORITY常量
+     * @param rejectedHandler 队列已满时的处理策略
+     */
+    public MeteredThreadPoolExecutor(String name, int threadCount, int queueCapacity, int threadPriority,
+                                     RejectedExecutionHandler rejectedHandler) {
+        super(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory(name, threadPriority),
+                rejectedHandler);
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        super.execute(command);
+        // 入队后记录积压峰值
+        int depth = getQueue().size();
+        int peak;
+        while (depth > (peak = peakQueueDepth.get())) {
+            if (peakQueueDepth.compareAndSet(peak, depth)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        // 工作线程只为本线程池执行任务，设置一次即可
+        if (CURRENT_POOL.get() != this) {
+            CURRENT_POOL.set(this);
+        }
+    }
+
+    /**
+     * 当前线程是否为本线程池的工作线程
+     * @return 在本线程池的任务中调用时返回true
+     */
+    public boolean isPoolThread() {
+        return CURRENT_POOL.get() == this;
+    }
+
+    /**
+     * 获取线程池名称
+     * @return 线程池名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取当前等待执行的任务数量
+     * @return 队列深度
+     */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * 获取自创建以来的队列深度峰值
+     * @return 队列深度峰值
+     */
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    /**
+     * 获取统计信息的文本描述
+     * @return 统计信息
+     */
+    public String describe() {
+        RejectedExecutionHandler handler = getRejectedExecutionHandler();
+        return name + "{active=" + getActiveCount()
+                + ", pool=" + getPoolSize()
+                + ", queued=" + getQueueDepth()
+                + ", peakQueued=" + getPeakQueueDepth()
+                + (handler instanceof OverflowPolicy
+                        ? ", overflowed=" + ((OverflowPolicy) handler).getOverflowCount() : "")
+                + ", completed=" + getCompletedTaskCount() + "}";
+    }
+
+    /**
+     * 队列已满时让提交线程等待空位，保证任务不丢失且顺序不变
+     * 用于数据库写入这类不能丢弃、也不能在调用线程乱序执行的任务
+     * 工作线程向自己所在的线程池提交时直接在当前线程执行，否则等待自己释放空位会死锁；
+     * 主线程不等待，其他线程最多等待指定时长，仍无空位时抛出RejectedExecutionException
+     */
+    public static class BlockingPolicy implements RejectedExecutionHandler {
+        /**
+         * 默认的最长等待时间（毫秒）
+         */
+        public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+        private final Thread mainThread;
+        private final long timeoutMillis;
+
+        /**
+         * 构造函数
+         * @param mainThread 主线程，在主线程提交时不等待，为null时不区分
+         * @param timeoutMillis 其他线程等待空位的最长时间（毫秒）
+         */
+        public BlockingPolicy(Thread mainThread, long timeoutMillis) {
+            this.mainThread = mainThread;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            if (executor instanceof MeteredThreadPoolExecutor
+                    && ((MeteredThreadPoolExecutor) executor).isPoolThread()) {
+                // 单线程的写通道中只有当前线程在执行，直接执行仍然是串行的
+                r.run();
+                return;
+            }
+            long timeout = Thread.currentThread() == mainThread ? 0 : timeoutMillis;
+            boolean queued;
+            try {
+                queued = executor.getQueue().offer(r, timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
+            }
+            if (!queued) {
+                throw new RejectedExecutionException("Queue is full after waiting " + timeout + "ms");
+            }
+        }
+    }
+
+    /**
+     * 队列已满时把任务转交给一个后台备用线程执行，任务不会在提交线程中执行
+     * 用于Room查询、网络回调等可能从主线程提交的线程池：在主线程执行数据库查询会被Room拒绝，也会卡住界面
+     * 备用线程的队列不设上限，只在短时积压时使用；转交次数计入统计，持续出现说明线程池容量需要调整
+     */
+    public static class OverflowPolicy implements RejectedExecutionHandler {
+        private final ThreadFactory threadFactory;
+        private final AtomicInteger overflowCount = new AtomicInteger();
+        private volatile ThreadPoolExecutor fallback;
+
+        /**
+         * 构造函数
+         * @param name 线程池名称，备用线程命名为"mybook-名称-overflow-序号"
+         * @param threadPriority 备用线程的优先级，取值为android.os.Process中的THREAD_PRIORITY常量
+         */
+        public OverflowPolicy(String name, int threadPriority) {
+            this(new NamedThreadFactory(name + "-overflow", threadPriority));
+        }
+
+        /**
+         * 构造函数，用于测试
+         * @param threadFactory 备用线程的线程工厂
+         */
+        OverflowPolicy(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            overflowCount.incrementAndGet();
+            fallback().execute(r);
+        }
+
+        /**
+         * 获取转交给备用线程的任务数
+         * @return 任务数
+         */
+        public int getOverflowCount() {
+            return overflowCount.get();
+        }
+
+        /**
+         * 获取备用线程池，第一次转交时创建，空闲后回收线程
+         * @return 备用线程池
+         */
+        private ThreadPoolExecutor fallback() {
+            ThreadPoolExecutor result = fallback;
+            if (result == null) {
+                synchronized (this) {
+                    result = fallback;
+                    if (result == null) {
+                        result = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                new LinkedBlockingQueue<>(), threadFactory);
+                        result.allowCoreThreadTimeOut(true);
+                        fallback = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mybook.base.concurrent;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 命名线程工厂
+ * 线程按"mybook-名称-序号"命名，并设置线程优先级
+ */
+class NamedThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final int threadPriority;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * 构造函数
+     * @param name 线程池名称
+     * @param threadPriority 线程优先级，取值为android.os.Process中的THREAD_PRIORITY常量
+     */
+    NamedThreadFactory(String name, int threadPriority) {
+        this.prefix = "mybook-" + name + "-";
+        this.threadPriority = threadPriority;
+    }
+
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+        return new Thread(() -> {
+            Process.setThreadPriority(threadPriority);
+            runnable.run();
+        }, prefix + count.incrementAndGet());
+    }
+}
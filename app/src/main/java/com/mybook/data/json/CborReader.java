@@ -0,0 +1,536 @@
+package com.mybook.data.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CBOR（RFC 8949）流式读取器
+ * 以JsonReader的接口逐个读出CBOR数据项，手写TypeAdapter和Gson的集合适配器无需修改即可解析二进制响应
+ * 不构建中间的JSON树；标签直接跳过，字节串按UTF-8作为字符串返回
+ * 不支持以Map为字段类型的模型（Gson读取Map的键时依赖JsonReader的内部状态）
+ */
+public class CborReader extends JsonReader {
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+
+    private static final int SIMPLE_FALSE = 20;
+    private static final int SIMPLE_TRUE = 21;
+    private static final int SIMPLE_NULL = 22;
+    private static final int SIMPLE_UNDEFINED = 23;
+    private static final int SIMPLE_HALF = 25;
+    private static final int SIMPLE_FLOAT = 26;
+    private static final int SIMPLE_DOUBLE = 27;
+
+    /**
+     * 不定长度标记，以及不定长容器的结束字节
+     */
+    private static final int INDEFINITE = 31;
+    private static final int BREAK = 0xff;
+
+    private static final Reader UNUSED_READER = new StringReader("");
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+    private int limit;
+
+    // 容器栈：是否为对象、剩余元素数（对象为键值对数，-1表示不定长）、对象当前是否等待读取键
+    private boolean[] objects = new boolean[16];
+    private long[] remaining = new long[16];
+    private boolean[] expectingName = new boolean[16];
+    private int depth;
+
+    // 已读取但尚未消费的数据项头部
+    private JsonToken peeked;
+    private int major;
+    private int info;
+    private long argument;
+
+    /**
+     * 构造函数
+     * @param in CBOR数据输入流，关闭读取器时一并关闭
+     */
+    public CborReader(InputStream in) {
+        super(UNUSED_READER);
+        this.in = in;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        if (depth > 0) {
+            int top = depth - 1;
+            if (remaining[top] == 0
+                    || (remaining[top] < 0 && fillAtLeast(1) && (buffer[position] & 0xff) == BREAK)) {
+                return peeked = objects[top] ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+            }
+            if (objects[top] && expectingName[top]) {
+                readHead();
+                return peeked = JsonToken.NAME;
+            }
+        } else if (!fillAtLeast(1)) {
+            return peeked = JsonToken.END_DOCUMENT;
+        }
+        readHead();
+        return peeked = tokenOfHead();
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        push(false);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        pop();
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        push(true);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        pop();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        JsonToken token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        String name;
+        if (major == MAJOR_TEXT || major == MAJOR_BYTES) {
+            name = readString();
+        } else if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE) {
+            name = integerString();
+        } else {
+            throw syntaxError("Unsupported map key, major type " + major);
+        }
+        expectingName[depth - 1] = false;
+        peeked = null;
+        return name;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        JsonToken token = peek();
+        String value;
+        if (token == JsonToken.STRING) {
+            value = readString();
+        } else if (token == JsonToken.NUMBER) {
+            value = major == MAJOR_SIMPLE ? Double.toString(floatValue()) : integerString();
+        } else {
+            throw syntaxError("Expected a string but was " + token);
+        }
+        consumed();
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        boolean value = info == SIMPLE_TRUE;
+        consumed();
+        return value;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        consumed();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        JsonToken token = peek();
+        double value;
+        if (token == JsonToken.NUMBER) {
+            value = major == MAJOR_SIMPLE ? floatValue() : Double.parseDouble(integerString());
+        } else if (token == JsonToken.STRING) {
+            value = Double.parseDouble(readString());
+        } else {
+            throw syntaxError("Expected a double but was " + token);
+        }
+        consumed();
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        JsonToken token = peek();
+        long value;
+        if (token == JsonToken.NUMBER && major == MAJOR_UNSIGNED && argument >= 0) {
+            value = argument;
+        } else if (token == JsonToken.NUMBER && major == MAJOR_NEGATIVE && argument >= 0) {
+            value = -1 - argument;
+        } else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            double asDouble = token == JsonToken.STRING ? Double.parseDouble(readString())
+                    : major == MAJOR_SIMPLE ? floatValue() : Double.parseDouble(integerString());
+            value = (long) asDouble;
+            if (value != asDouble) {
+                throw new NumberFormatException("Expected a long but was " + asDouble + locationString());
+            }
+        } else {
+            throw syntaxError("Expected a long but was " + token);
+        }
+        consumed();
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if ((int) value != value) {
+            throw new NumberFormatException("Expected an int but was " + value + locationString());
+        }
+        return (int) value;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        JsonToken token = peek();
+        switch (token) {
+            case NAME:
+                nextName();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case STRING:
+                skipString();
+                consumed();
+                break;
+            case END_ARRAY:
+            case END_OBJECT:
+            case END_DOCUMENT:
+                throw syntaxError("Unexpected " + token);
+            default:
+                consumed();
+                break;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = JsonToken.END_DOCUMENT;
+        depth = 0;
+        in.close();
+    }
+
+    @Override
+    public String getPath() {
+        return "$";
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + locationString();
+    }
+
+    /**
+     * 读取下一个数据项的头部，跳过标签
+     */
+    private void readHead() throws IOException {
+        do {
+            int initial = readByte();
+            major = initial >>> 5;
+            info = initial & 0x1f;
+            argument = readArgument(info);
+        } while (major == MAJOR_TAG);
+    }
+
+    private long readArgument(int additionalInfo) throws IOException {
+        if (additionalInfo < 24) {
+            return additionalInfo;
+        }
+        switch (additionalInfo) {
+            case 24:
+                return readByte();
+            case 25:
+                return readBigEndian(2);
+            case 26:
+                return readBigEndian(4);
+            case 27:
+                return readBigEndian(8);
+            case INDEFINITE:
+                return -1;
+            default:
+                throw syntaxError("Reserved additional info " + additionalInfo);
+        }
+    }
+
+    private JsonToken tokenOfHead() throws IOException {
+        switch (major) {
+            case MAJOR_UNSIGNED:
+            case MAJOR_NEGATIVE:
+                return JsonToken.NUMBER;
+            case MAJOR_BYTES:
+            case MAJOR_TEXT:
+                return JsonToken.STRING;
+            case MAJOR_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case MAJOR_MAP:
+                return JsonToken.BEGIN_OBJECT;
+            default:
+                switch (info) {
+                    case SIMPLE_FALSE:
+                    case SIMPLE_TRUE:
+                        return JsonToken.BOOLEAN;
+                    case SIMPLE_NULL:
+                    case SIMPLE_UNDEFINED:
+                        return JsonToken.NULL;
+                    case SIMPLE_HALF:
+                    case SIMPLE_FLOAT:
+                    case SIMPLE_DOUBLE:
+                        return JsonToken.NUMBER;
+                    default:
+                        throw syntaxError("Unsupported simple value " + info);
+                }
+        }
+    }
+
+    private void expect(JsonToken expected) throws IOException {
+        JsonToken token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+    }
+
+    private void push(boolean object) {
+        if (depth == objects.length) {
+            int newLength = depth * 2;
+            objects = Arrays.copyOf(objects, newLength);
+            remaining = Arrays.copyOf(remaining, newLength);
+            expectingName = Arrays.copyOf(expectingName, newLength);
+        }
+        objects[depth] = object;
+        remaining[depth] = argument;
+        expectingName[depth] = object;
+        depth++;
+        peeked = null;
+    }
+
+    private void pop() throws IOException {
+        if (remaining[depth - 1] < 0) {
+            // 消费不定长容器的结束字节
+            readByte();
+        }
+        depth--;
+        consumed();
+    }
+
+    /**
+     * 一个值读取完毕：更新所在容器的剩余数量，对象转为等待下一个键
+     */
+    private void consumed() {
+        peeked = null;
+        if (depth == 0) {
+            return;
+        }
+        int top = depth - 1;
+        if (remaining[top] > 0) {
+            remaining[top]--;
+        }
+        if (objects[top]) {
+            expectingName[top] = true;
+        }
+    }
+
+    private String readString() throws IOException {
+        if (argument >= 0) {
+            return readUtf8(checkedLength(argument));
+        }
+        // 不定长字符串由若干定长分段组成，以结束字节收尾
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        while (true) {
+            int initial = readByte();
+            if (initial == BREAK) {
+                return new String(chunks.toByteArray(), StandardCharsets.UTF_8);
+            }
+            readBytes(checkedLength(readArgument(initial & 0x1f)), chunks);
+        }
+    }
+
+    private void skipString() throws IOException {
+        if (argument >= 0) {
+            skipBytes(checkedLength(argument));
+            return;
+        }
+        while (true) {
+            int initial = readByte();
+            if (initial == BREAK) {
+                return;
+            }
+            skipBytes(checkedLength(readArgument(initial & 0x1f)));
+        }
+    }
+
+    private String readUtf8(int length) throws IOException {
+        if (length <= buffer.length) {
+            if (!fillAtLeast(length)) {
+                throw new EOFException("Truncated string" + locationString());
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        // 长字符串按实际到达的数据扩容，被截断的输入不会按声明的长度一次分配
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(buffer.length * 2);
+        readBytes(length, bytes);
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private void readBytes(int count, ByteArrayOutputStream out) throws IOException {
+        while (count > 0) {
+            if (position == limit && !fillAtLeast(1)) {
+                throw new EOFException("Truncated string" + locationString());
+            }
+            int read = Math.min(count, limit - position);
+            out.write(buffer, position, read);
+            position += read;
+            count -= read;
+        }
+    }
+
+    private String integerString() {
+        if (major == MAJOR_UNSIGNED) {
+            return Long.toUnsignedString(argument);
+        }
+        if (argument >= 0) {
+            return Long.toString(-1 - argument);
+        }
+        // 小于Long.MIN_VALUE的负数，-1-n可能超出无符号64位，用BigInteger计算
+        return new BigInteger(Long.toUnsignedString(argument)).add(BigInteger.ONE).negate().toString();
+    }
+
+    private double floatValue() {
+        switch (info) {
+            case SIMPLE_HALF:
+                return halfToDouble((int) argument);
+            case SIMPLE_FLOAT:
+                return Float.intBitsToFloat((int) argument);
+            default:
+                return Double.longBitsToDouble(argument);
+        }
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        double value;
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent != 31) {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        } else {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        }
+        return (half & 0x8000) != 0 ? -value : value;
+    }
+
+    private int checkedLength(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw syntaxError("Unsupported length " + length);
+        }
+        return (int) length;
+    }
+
+    private long readBigEndian(int byteCount) throws IOException {
+        long value = 0;
+        for (int i = 0; i < byteCount; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fillAtLeast(1)) {
+            throw new EOFException("End of input" + locationString());
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    private void skipBytes(int count) throws IOException {
+        while (count > 0) {
+            if (position == limit && !fillAtLeast(1)) {
+                throw new EOFException("End of input" + locationString());
+            }
+            int skipped = Math.min(count, limit - position);
+            position += skipped;
+            count -= skipped;
+        }
+    }
+
+    /**
+     * 保证缓冲区中至少有指定数量的字节
+     * @param count 字节数，不超过缓冲区大小
+     * @return 输入结束前无法读满时返回false
+     */
+    private boolean fillAtLeast(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (limit < count) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new MalformedJsonException(message + locationString());
+    }
+
+    private String locationString() {
+        return " at depth " + depth;
+    }
+}
@@ -0,0 +1,72 @@
+package com.mybook.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.mybook.data.model.Comment;
+
+import java.io.IOException;
+
+/**
+ * 评论的手写TypeAdapter
+ * 字段名与反射解析时一致，未知字段直接跳过
+ */
+public class CommentTypeAdapter extends TypeAdapter<Comment> {
+    @Override
+    public void write(JsonWriter out, Comment comment) throws IOException {
+        if (comment == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(comment.getId());
+        out.name("postId").value(comment.getPostId());
+        out.name("userId").value(comment.getUserId());
+        out.name("name").value(comment.getName());
+        out.name("avatar").value(comment.getAvatar());
+        out.name("content").value(comment.getContent());
+        out.name("createdAt").value(comment.getCreatedAt());
+        out.endObject();
+    }
+
+    @Override
+    public Comment read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Comment comment = new Comment();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    comment.setId(JsonFields.readString(in));
+                    break;
+                case "postId":
+                    comment.setPostId(JsonFields.readString(in));
+                    break;
+                case "userId":
+                    comment.setUserId(JsonFields.readString(in));
+                    break;
+                case "name":
+                    comment.setName(JsonFields.readString(in));
+                    break;
+                case "avatar":
+                    comment.setAvatar(JsonFields.readString(in));
+                    break;
+                case "content":
+                    comment.setContent(JsonFields.readString(in));
+                    break;
+                case "createdAt":
+                    comment.setCreatedAt(JsonFields.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return comment;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mybook.data.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.Post;
+import com.mybook.data.model.User;
+
+/**
+ * 全局共享的Gson实例
+ * 注册了帖子、评论和用户的手写TypeAdapter，解析这些模型时不再经过反射；
+ * 网络层和本地序列化（如待发送队列的负载）共用同一个实例，TypeAdapter缓存只建立一次
+ */
+public final class GsonProvider {
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Post.class, new PostTypeAdapter())
+            .registerTypeAdapter(Comment.class, new CommentTypeAdapter())
+            .registerTypeAdapter(User.class, new UserTypeAdapter())
+            .create();
+
+    private GsonProvider() {
+    }
+
+    /**
+     * 获取共享的Gson实例
+     * @return Gson实例
+     */
+    public static Gson get() {
+        return GSON;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mybook.data.json;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 手写TypeAdapter共用的字段读写方法
+ * 容错规则与Gson反射解析一致：基本类型字段遇到null保持默认值，数字和布尔值可以写成字符串
+ */
+final class JsonFields {
+    private JsonFields() {
+    }
+
+    /**
+     * 读取字符串字段
+     * @param reader JSON读取器
+     * @return 字段值，JSON null返回null
+     */
+    static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        }
+        return reader.nextString();
+    }
+
+    /**
+     * 读取整数字段
+     * @param reader JSON读取器
+     * @param defaultValue JSON null时返回的值
+     * @return 字段值
+     */
+    static int readInt(JsonReader reader, int defaultValue) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return defaultValue;
+        }
+        try {
+            return reader.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * 读取布尔字段
+     * @param reader JSON读取器
+     * @param defaultValue JSON null时返回的值
+     * @return 字段值
+     */
+    static boolean readBoolean(JsonReader reader, boolean defaultValue) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return defaultValue;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(reader.nextString());
+        }
+        return reader.nextBoolean();
+    }
+
+    /**
+     * 读取字符串数组字段
+     * @param reader JSON读取器
+     * @return 字符串列表，JSON null返回null
+     */
+    static List<String> readStringList(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(readString(reader));
+        }
+        reader.endArray();
+        return values;
+    }
+
+    /**
+     * 写出字符串数组字段
+     * @param writer JSON写入器
+     * @param values 字符串列表，null时按写入器的配置输出null或省略
+     */
+    static void writeStringList(JsonWriter writer, List<String> values) throws IOException {
+        if (values == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.beginArray();
+        for (int i = 0, size = values.size(); i < size; i++) {
+            writer.value(values.get(i));
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,113 @@
+package com.mybook.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.mybook.data.model.Post;
+
+import java.io.IOException;
+
+/**
+ * 帖子的手写TypeAdapter
+ * 字段名与反射解析时一致，未知字段直接跳过；contentHash只在本地使用，不参与序列化
+ */
+public class PostTypeAdapter extends TypeAdapter<Post> {
+    @Override
+    public void write(JsonWriter out, Post post) throws IOException {
+        if (post == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(post.getId());
+        out.name("userId").value(post.getUserId());
+        out.name("name").value(post.getName());
+        out.name("avatar").value(post.getAvatar());
+        out.name("bio").value(post.getBio());
+        out.name("followers").value(post.getFollowers());
+        out.name("following").value(post.getFollowing());
+        out.name("content").value(post.getContent());
+        out.name("images");
+        JsonFields.writeStringList(out, post.getImages());
+        out.name("likes").value(post.getLikes());
+        out.name("comments").value(post.getComments());
+        out.name("shares").value(post.getShares());
+        out.name("isLiked").value(post.isLiked());
+        out.name("isFollowing").value(post.isFollowing());
+        out.name("isSaved").value(post.isSaved());
+        out.name("saves").value(post.getSaves());
+        out.name("createdAt").value(post.getCreatedAt());
+        out.endObject();
+    }
+
+    @Override
+    public Post read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Post post = new Post();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    post.setId(JsonFields.readString(in));
+                    break;
+                case "userId":
+                    post.setUserId(JsonFields.readString(in));
+                    break;
+                case "name":
+                    post.setName(JsonFields.readString(in));
+                    break;
+                case "avatar":
+                    post.setAvatar(JsonFields.readString(in));
+                    break;
+                case "bio":
+                    post.setBio(JsonFields.readString(in));
+                    break;
+                case "followers":
+                    post.setFollowers(JsonFields.readInt(in, post.getFollowers()));
+                    break;
+                case "following":
+                    post.setFollowing(JsonFields.readInt(in, post.getFollowing()));
+                    break;
+                case "content":
+                    post.setContent(JsonFields.readString(in));
+                    break;
+                case "images":
+                    post.setImages(JsonFields.readStringList(in));
+                    break;
+                case "likes":
+                    post.setLikes(JsonFields.readInt(in, post.getLikes()));
+                    break;
+                case "comments":
+                    post.setComments(JsonFields.readInt(in, post.getComments()));
+                    break;
+                case "shares":
+                    post.setShares(JsonFields.readInt(in, post.getShares()));
+                    break;
+                case "isLiked":
+                    post.setLiked(JsonFields.readBoolean(in, post.isLiked()));
+                    break;
+                case "isFollowing":
+                    post.setFollowing(JsonFields.readBoolean(in, post.isFollowing()));
+                    break;
+                case "isSaved":
+                    post.setSaved(JsonFields.readBoolean(in, post.isSaved()));
+                    break;
+                case "saves":
+                    post.setSaves(JsonFields.readInt(in, post.getSaves()));
+                    break;
+                case "createdAt":
+                    post.setCreatedAt(JsonFields.readString(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return post;
+    }
+}
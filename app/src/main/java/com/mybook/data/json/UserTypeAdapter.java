@@ -0,0 +1,68 @@
+package com.mybook.data.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.mybook.data.model.User;
+
+import java.io.IOException;
+
+/**
+ * 用户的手写TypeAdapter
+ * 字段名与反射解析时一致，未知字段直接跳过
+ */
+public class UserTypeAdapter extends TypeAdapter<User> {
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(user.getId());
+        out.name("name").value(user.getName());
+        out.name("avatar").value(user.getAvatar());
+        out.name("bio").value(user.getBio());
+        out.name("followers").value(user.getFollowers());
+        out.name("following").value(user.getFollowing());
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    user.setId(JsonFields.readString(in));
+                    break;
+                case "name":
+                    user.setName(JsonFields.readString(in));
+                    break;
+                case "avatar":
+                    user.setAvatar(JsonFields.readString(in));
+                    break;
+                case "bio":
+                    user.setBio(JsonFields.readString(in));
+                    break;
+                case "followers":
+                    user.setFollowers(JsonFields.readInt(in, user.getFollowers()));
+                    break;
+                case "following":
+                    user.setFollowing(JsonFields.readInt(in, user.getFollowing()));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
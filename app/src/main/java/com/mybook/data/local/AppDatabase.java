@@ -3,22 +3,30 @@ package com.mybook.data.local;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
-import androidx.room.TypeConverters;
 
 import android.content.Context;
 
-import com.mybook.data.local.converter.Converters;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.dao.CommentDao;
+import com.mybook.data.local.dao.OutboxDao;
 import com.mybook.data.local.dao.PostDao;
+import com.mybook.data.local.migration.Migrations;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.OutboxEntry;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostImage;
+import com.mybook.data.model.RemoteKey;
 
 /**
  * 应用数据库类
  * Room数据库的核心类，用于配置数据库和获取DAO实例
  */
-@Database(entities = {Post.class}, version = 1, exportSchema = false)
-@TypeConverters(Converters.class)
+@Database(entities = {Post.class, PostImage.class, Comment.class, RemoteKey.class, OutboxEntry.class}, version = 8, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
     private static volatile AppDatabase instance;
+    private static volatile ListenableFuture<AppDatabase> warmUpFuture;
 
     /**
      * 获取PostDao实例
@@ -26,37 +34,112 @@ public abstract class AppDatabase extends RoomDatabase {
      */
     public abstract PostDao postDao();
 
+    /**
+     * 获取CommentDao实例
+     * @return CommentDao实例
+     */
+    public abstract CommentDao commentDao();
+
+    /**
+     * 获取OutboxDao实例
+     * @return OutboxDao实例
+     */
+    public abstract OutboxDao outboxDao();
+
     /**
      * 获取数据库实例
+     * 使用volatile双重检查，实例创建后的调用不再进入同步块
+     * Room在构建时不会打开数据库文件，首次读写时才会建表或迁移，可通过warmUp提前在后台完成
+     * @param context 上下文
+     * @return AppDatabase实例，初始化失败时返回null
+     */
+    public static AppDatabase getInstance(Context context) {
+        AppDatabase result = instance;
+        if (result == null) {
+            synchronized (AppDatabase.class) {
+                result = instance;
+                if (result == null) {
+                    result = instance = build(context);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在后台预先打开数据库，完成建表、迁移和参数设置
+     * 多次调用返回同一个结果
      * @param context 上下文
-     * @return AppDatabase实例
+     * @return 数据库打开完成后结束的Future，初始化失败时以异常结束
      */
-    public static synchronized AppDatabase getInstance(Context context) {
-        if (instance == null) {
-            try {
-                instance = Room.databaseBuilder(
-                        context.getApplicationContext(),
-                        AppDatabase.class,
-                        "mybook_database"
-                )
-                        .fallbackToDestructiveMigration() // 数据库版本更新时销毁旧数据库
-                        .build();
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 数据库初始化失败，instance为null，但应用不会崩溃
-                // 后续使用时需要处理null情况
+    public static ListenableFuture<AppDatabase> warmUp(Context context) {
+        ListenableFuture<AppDatabase> result = warmUpFuture;
+        if (result == null) {
+            synchronized (AppDatabase.class) {
+                result = warmUpFuture;
+                if (result == null) {
+                    Context appContext = context.getApplicationContext();
+                    SettableFuture<AppDatabase> future = SettableFuture.create();
+                    // 打开数据库可能执行迁移，放在写通道中执行
+                    AppExecutors.getInstance().diskWrite().execute(() -> {
+                        try {
+                            AppDatabase database = getInstance(appContext);
+                            if (database == null) {
+                                future.setException(new IllegalStateException("Failed to create database"));
+                                return;
+                            }
+                            database.getOpenHelper().getWritableDatabase();
+                            future.set(database);
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                            future.setException(e);
+                        }
+                    });
+                    result = warmUpFuture = future;
+                }
             }
         }
-        return instance;
+        return result;
+    }
+
+    /**
+     * 创建数据库实例
+     * @param context 上下文
+     * @return AppDatabase实例，创建失败时返回null
+     */
+    private static AppDatabase build(Context context) {
+        try {
+            return Room.databaseBuilder(
+                    context.getApplicationContext(),
+                    AppDatabase.class,
+                    "mybook_database"
+            )
+                    .addMigrations(Migrations.ALL) // 数据库版本更新时按迁移升级，保留本地缓存
+                    .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING) // 读写互不阻塞，写入只追加日志
+                    .addCallback(new DatabaseTuningCallback()) // 打开时设置日志上限、页缓存和内存映射
+                    .setQueryExecutor(AppExecutors.getInstance().diskRead()) // 查询在读线程池中并行执行，线程数不超过WAL连接池大小
+                    // 带@Transaction的LiveData关联查询由Room在事务执行器中执行，写操作都已显式投递到写通道，
+                    // 这里使用读线程池，避免读取排在写入队列后面
+                    .setTransactionExecutor(AppExecutors.getInstance().diskRead())
+                    .build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            // 数据库初始化失败，返回null，但应用不会崩溃
+            // 后续使用时需要处理null情况
+            return null;
+        }
     }
 
     /**
      * 关闭数据库
      */
     public void closeDatabase() {
-        if (instance != null && instance.isOpen()) {
-            instance.close();
-            instance = null;
+        synchronized (AppDatabase.class) {
+            if (instance != null && instance.isOpen()) {
+                instance.close();
+                instance = null;
+                warmUpFuture = null;
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.mybook.data.local;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * 数据库参数调优回调
+ * 每次打开数据库时设置日志文件上限、页缓存和内存映射大小
+ * 这些PRAGMA只作用于当前连接，WAL模式下的其他只读连接沿用系统默认值
+ */
+public class DatabaseTuningCallback extends RoomDatabase.Callback {
+    /**
+     * WAL文件在检查点后保留的最大字节数，避免日志文件无限增长占用存储
+     */
+    static final long JOURNAL_SIZE_LIMIT_BYTES = 4L * 1024 * 1024;
+
+    /**
+     * 页缓存大小（KiB），负数表示按KiB计算，信息流卡片和索引页可以常驻内存
+     */
+    static final int CACHE_SIZE_KIB = 8 * 1024;
+
+    /**
+     * 内存映射读取的最大字节数，读取时减少一次从内核到用户空间的拷贝
+     */
+    static final long MMAP_SIZE_BYTES = 32L * 1024 * 1024;
+
+    @Override
+    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        super.onOpen(db);
+        pragma(db, "PRAGMA journal_size_limit = " + JOURNAL_SIZE_LIMIT_BYTES);
+        pragma(db, "PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+        pragma(db, "PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+        if (db.isWriteAheadLoggingEnabled()) {
+            // WAL模式下NORMAL同步只在检查点时刷盘，掉电时可能丢失最近的提交但不会损坏数据库
+            pragma(db, "PRAGMA synchronous = NORMAL");
+        }
+    }
+
+    /**
+     * 执行PRAGMA语句
+     * 部分PRAGMA会返回结果行，使用query执行并关闭游标，设置失败时沿用默认值
+     * @param db 数据库
+     * @param sql PRAGMA语句
+     */
+    private static void pragma(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
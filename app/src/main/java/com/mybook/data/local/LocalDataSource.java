@@ -1,9 +1,15 @@
 package com.mybook.data.local;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 
+import com.mybook.data.local.paging.FeedCursor;
+import com.mybook.data.model.Comment;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.data.model.RemoteKey;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,6 +23,13 @@ public interface LocalDataSource {
      */
     LiveData<List<Post>> getAllPosts();
 
+    /**
+     * 获取帖子信息流的分页数据源
+     * 每次调用返回新的数据源实例，数据变化时旧实例会自动失效
+     * @return 按键集分页的帖子卡片数据源
+     */
+    PagingSource<FeedCursor, PostCard> getPostPagingSource();
+
     /**
      * 根据ID获取帖子
      * @param postId 帖子ID
@@ -31,11 +44,104 @@ public interface LocalDataSource {
     void savePost(Post post);
 
     /**
-     * 保存帖子列表到本地
+     * 保存帖子列表到本地，内容未变化的帖子不会写入
      * @param posts 要保存的帖子列表
      */
     void savePosts(List<Post> posts);
 
+    /**
+     * 保存帖子列表到本地，已存在的帖子保持不变
+     * @param posts 要保存的帖子列表
+     */
+    void savePostsIfAbsent(List<Post> posts);
+
+    /**
+     * 在一个事务中差量保存一批帖子，不经过合并队列
+     * 同步方法，需在写线程调用，用于流式同步时控制写入节奏
+     * @param posts 帖子列表
+     * @return 新增或内容有变化的帖子数量
+     */
+    int savePostBatch(List<Post> posts);
+
+    /**
+     * 在一个事务中应用一次同步结果并保存同步令牌
+     * 同步方法，需在写线程调用
+     * @param upserts 新增或修改的帖子
+     * @param deletes 被删除的帖子ID
+     * @param syncKey 同步令牌，以列表标识保存在remote_keys表中
+     */
+    void applySync(List<Post> upserts, List<String> deletes, RemoteKey syncKey);
+
+    /**
+     * 全量同步结束时在一个事务中删除本次未收到的帖子并保存同步令牌
+     * 尚未发送到服务端的本地新帖子不会被删除
+     * 同步方法，需在写线程调用
+     * @param receivedIds 本次全量同步收到的帖子ID
+     * @param syncKey 同步令牌，以列表标识保存在remote_keys表中
+     * @return 删除的帖子数量
+     */
+    int applyFullSync(Collection<String> receivedIds, RemoteKey syncKey);
+
+    /**
+     * 获取远程分页游标
+     * 同步方法，需在后台线程调用
+     * @param label 列表标识
+     * @return 远程分页游标，不存在时返回null
+     */
+    RemoteKey getRemoteKey(String label);
+
+    /**
+     * 在同一事务中保存一页远程帖子及其下一页游标
+     * 同步方法，需在后台线程调用
+     * @param posts 帖子列表
+     * @param remoteKey 远程分页游标
+     */
+    void saveFeedPage(List<Post> posts, RemoteKey remoteKey);
+
+    /**
+     * 获取帖子评论的分页数据源
+     * @param postId 帖子ID
+     * @return 按(createdAt, id)升序的键集分页数据源
+     */
+    PagingSource<FeedCursor, Comment> getCommentPagingSource(String postId);
+
+    /**
+     * 保存评论到本地
+     * @param comment 要保存的评论
+     */
+    void saveComment(Comment comment);
+
+    /**
+     * 在同一事务中保存一页远程评论及其下一页游标
+     * 同步方法，需在后台线程调用
+     * @param comments 评论列表
+     * @param remoteKey 远程分页游标
+     */
+    void saveCommentPage(List<Comment> comments, RemoteKey remoteKey);
+
+    /**
+     * 删除评论
+     * @param commentId 要删除的评论ID
+     */
+    void deleteComment(String commentId);
+
+    /**
+     * 切换帖子的点赞状态和点赞数，只更新这一行
+     * 同步方法，需在写线程调用
+     * @param postId 帖子ID
+     * @return 切换后的点赞状态，帖子不存在时返回null
+     */
+    Boolean toggleLike(String postId);
+
+    /**
+     * 撤销被服务端拒绝的点赞或取消点赞，本地已不是该操作的结果时不修改
+     * 同步方法，需在写线程调用
+     * @param postId 帖子ID
+     * @param liked 被拒绝的操作的目标状态
+     * @return 撤销成功时返回true
+     */
+    boolean revertLike(String postId, boolean liked);
+
     /**
      * 删除帖子
      * @param postId 要删除的帖子ID
@@ -46,4 +152,10 @@ public interface LocalDataSource {
      * 清空所有帖子
      */
     void clearAllPosts();
+
+    /**
+     * 立即提交尚未落库的写操作
+     * 保存和删除会先进入写入合并队列，需要确保数据及时落库时调用
+     */
+    void flushPendingWrites();
 }
\ No newline at end of file
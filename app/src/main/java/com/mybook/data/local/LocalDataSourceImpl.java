@@ -1,75 +1,200 @@
 package com.mybook.data.local;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagingSource;
 
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.dao.CommentDao;
 import com.mybook.data.local.dao.PostDao;
+import com.mybook.data.local.paging.CommentPagingSource;
+import com.mybook.data.local.paging.FeedCursor;
+import com.mybook.data.local.paging.PostPagingSource;
+import com.mybook.data.model.Comment;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.data.model.PostWithImages;
+import com.mybook.data.model.RemoteKey;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * 本地数据源实现
  * 使用Room数据库存储数据
  */
 public class LocalDataSourceImpl implements LocalDataSource {
+    private final AppDatabase database;
     private final PostDao postDao;
-    private final Executor executor;
+    private final CommentDao commentDao;
+    private final AppExecutors executors;
+    private final WriteBehindQueue writeQueue;
 
     /**
      * 构造函数，用于依赖注入和测试
      * @param postDao Post DAO实例
+     * @param commentDao Comment DAO实例
+     * @param executors 线程调度器
      */
-    public LocalDataSourceImpl(PostDao postDao) {
+    public LocalDataSourceImpl(PostDao postDao, CommentDao commentDao, AppExecutors executors) {
+        this.database = null;
         this.postDao = postDao;
-        this.executor = Executors.newSingleThreadExecutor();
+        this.commentDao = commentDao;
+        this.executors = executors;
+        this.writeQueue = WriteBehindQueue.of(postDao, executors);
     }
 
     /**
      * 构造函数
      * @param database 应用数据库实例
+     * @param executors 线程调度器
      */
-    public LocalDataSourceImpl(AppDatabase database) {
+    public LocalDataSourceImpl(AppDatabase database, AppExecutors executors) {
+        this.database = database;
         this.postDao = database.postDao();
-        this.executor = Executors.newSingleThreadExecutor();
+        this.commentDao = database.commentDao();
+        this.executors = executors;
+        this.writeQueue = WriteBehindQueue.of(postDao, executors);
         
         // 初始化测试数据已移除，由ViewModel负责生成模拟数据
     }
 
     @Override
     public LiveData<List<Post>> getAllPosts() {
-        // 直接返回Room的LiveData，它会自动处理数据变化通知
-        return postDao.getAllPosts();
+        // Room的LiveData会自动处理数据变化通知，这里只把图片行转换为地址列表
+        return Transformations.map(postDao.getAllPosts(), postsWithImages -> {
+            List<Post> posts = new ArrayList<>(postsWithImages.size());
+            for (PostWithImages postWithImages : postsWithImages) {
+                posts.add(postWithImages.toPost());
+            }
+            return posts;
+        });
+    }
+
+    @Override
+    public PagingSource<FeedCursor, PostCard> getPostPagingSource() {
+        // 有数据库实例时使用Room的查询线程池，并跟踪posts表变化
+        if (database != null) {
+            return new PostPagingSource(postDao, database.getInvalidationTracker(), database.getQueryExecutor());
+        }
+        return new PostPagingSource(postDao, null, executors.diskRead());
     }
 
     @Override
     public LiveData<Post> getPostById(String postId) {
-        // 直接返回Room的LiveData
-        return postDao.getPostById(postId);
+        // Room的LiveData会自动处理数据变化通知，这里只把图片行转换为地址列表
+        return Transformations.map(postDao.getPostById(postId),
+                postWithImages -> postWithImages != null ? postWithImages.toPost() : null);
     }
 
     @Override
     public void savePost(Post post) {
-        // 插入操作在后台线程执行
-        executor.execute(() -> postDao.insertPost(post));
+        // 写入合并队列，短时间内的多次写操作在同一事务中提交
+        writeQueue.save(post);
     }
 
     @Override
     public void savePosts(List<Post> posts) {
-        // 插入列表操作在后台线程执行
-        executor.execute(() -> postDao.insertPosts(posts));
+        // 写入合并队列，提交时只写入新增或内容有变化的帖子
+        writeQueue.saveAll(posts);
+    }
+
+    @Override
+    public void savePostsIfAbsent(List<Post> posts) {
+        // 插入操作在写通道执行，已存在的帖子不会被覆盖；先提交队列中的操作以保持写入顺序
+        executors.diskWrite().execute(() -> {
+            writeQueue.drain();
+            postDao.savePostsIfAbsent(posts);
+        });
+    }
+
+    @Override
+    public int savePostBatch(List<Post> posts) {
+        // 先提交队列中的操作以保持写入顺序
+        writeQueue.drain();
+        return postDao.savePosts(posts);
+    }
+
+    @Override
+    public void applySync(List<Post> upserts, List<String> deletes, RemoteKey syncKey) {
+        // 先提交队列中的操作，保证同步结果覆盖更早的本地写入
+        writeQueue.drain();
+        postDao.applySync(upserts, deletes, syncKey);
+    }
+
+    @Override
+    public int applyFullSync(Collection<String> receivedIds, RemoteKey syncKey) {
+        // 先提交队列中的操作，避免稍后提交的保存把已删除的帖子写回
+        writeQueue.drain();
+        return postDao.applyFullSync(receivedIds, syncKey);
+    }
+
+    @Override
+    public RemoteKey getRemoteKey(String label) {
+        return postDao.getRemoteKey(label);
+    }
+
+    @Override
+    public void saveFeedPage(List<Post> posts, RemoteKey remoteKey) {
+        // 先提交队列中的操作，避免较早的删除覆盖新拉取的数据
+        writeQueue.drain();
+        postDao.insertFeedPage(posts, remoteKey);
+    }
+
+    @Override
+    public PagingSource<FeedCursor, Comment> getCommentPagingSource(String postId) {
+        if (database != null) {
+            return new CommentPagingSource(commentDao, postId, database.getInvalidationTracker(),
+                    database.getQueryExecutor());
+        }
+        return new CommentPagingSource(commentDao, postId, null, executors.diskRead());
+    }
+
+    @Override
+    public void saveComment(Comment comment) {
+        // 插入操作在写通道执行
+        executors.diskWrite().execute(() -> commentDao.insertComment(comment));
+    }
+
+    @Override
+    public void saveCommentPage(List<Comment> comments, RemoteKey remoteKey) {
+        commentDao.insertCommentPage(comments, remoteKey);
+    }
+
+    @Override
+    public void deleteComment(String commentId) {
+        // 删除操作在写通道执行
+        executors.diskWrite().execute(() -> commentDao.deleteComment(commentId));
+    }
+
+    @Override
+    public Boolean toggleLike(String postId) {
+        // 先提交队列中的操作，避免稍后提交的旧数据覆盖点赞状态
+        writeQueue.drain();
+        return postDao.toggleLike(postId);
+    }
+
+    @Override
+    public boolean revertLike(String postId, boolean liked) {
+        writeQueue.drain();
+        return postDao.revertLike(postId, liked, liked ? 1 : -1) > 0;
     }
 
     @Override
     public void deletePost(String postId) {
-        // 删除操作在后台线程执行
-        executor.execute(() -> postDao.deletePostById(postId));
+        // 写入合并队列，删除优先于同一帖子的保存
+        writeQueue.delete(postId);
     }
 
     @Override
     public void clearAllPosts() {
-        // 清空操作在后台线程执行
-        executor.execute(() -> postDao.clearAllPosts());
+        // 写入合并队列，尚未提交的操作一并丢弃
+        writeQueue.clear();
+    }
+
+    @Override
+    public void flushPendingWrites() {
+        writeQueue.flush();
     }
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+package com.mybook.data.local;
+
+import android.database.sqlite.SQLiteConstraintException;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.dao.PostDao;
+import com.mybook.data.model.Post;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 帖子写入合并队列
+ * 短时间内的写操作先在内存中按帖子ID合并，再在一个事务中提交，避免每次写入都单独开启事务和同步磁盘
+ * 同一帖子的多次保存以最后一次为准，删除优先于保存；清空会丢弃之前尚未提交的操作
+ * 提交失败时按指数退避重试，连续失败次数用完后丢弃这批操作；违反约束的批次逐条提交，只丢弃出错的那一条
+ */
+public class WriteBehindQueue {
+    /**
+     * 合并窗口（毫秒），第一条写操作入队后最多等待该时间提交
+     */
+    private static final long FLUSH_WINDOW_MILLIS = 100;
+
+    /**
+     * 批量上限，待提交的帖子数达到该值时立即提交
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
+    /**
+     * 连续提交失败的最多重试次数，超过后丢弃这批操作
+     * 帖子是服务端数据的缓存，丢弃后由下次刷新或同步补回
+     */
+    private static final int MAX_RETRIES = 5;
+
+    /**
+     * 重试等待时间上限（毫秒）
+     */
+    private static final long MAX_RETRY_DELAY_MILLIS = 30 * 1000;
+
+    /**
+     * 每个PostDao共享一个队列，保证同一数据库的所有写操作经过同一次合并
+     */
+    private static final Map<PostDao, WriteBehindQueue> QUEUES = new WeakHashMap<>();
+
+    private final PostDao postDao;
+    private final AppExecutors executors;
+
+    /**
+     * 待提交的操作，值为null表示删除
+     */
+    private Map<String, Post> pending = new LinkedHashMap<>();
+    private boolean clearPending;
+    private boolean flushScheduled;
+
+    /**
+     * 连续提交失败的次数，成功后归零
+     */
+    private int failures;
+    private int droppedCount;
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param postDao Post DAO实例
+     * @param executors 线程调度器，提交在写通道中执行
+     */
+    public WriteBehindQueue(PostDao postDao, AppExecutors executors) {
+        this.postDao = postDao;
+        this.executors = executors;
+    }
+
+    /**
+     * 获取PostDao对应的共享队列
+     * @param postDao Post DAO实例
+     * @param executors 线程调度器
+     * @return 写入合并队列
+     */
+    public static WriteBehindQueue of(PostDao postDao, AppExecutors executors) {
+        synchronized (QUEUES) {
+            WriteBehindQueue queue = QUEUES.get(postDao);
+            if (queue == null) {
+                queue = new WriteBehindQueue(postDao, executors);
+                QUEUES.put(postDao, queue);
+            }
+            return queue;
+        }
+    }
+
+    /**
+     * 提交所有共享队列中的待写入操作，在应用进入后台时调用
+     */
+    public static void flushAll() {
+        List<WriteBehindQueue> queues;
+        synchronized (QUEUES) {
+            queues = new ArrayList<>(QUEUES.values());
+        }
+        for (WriteBehindQueue queue : queues) {
+            queue.flush();
+        }
+    }
+
+    /**
+     * 保存帖子
+     * @param post 要保存的帖子
+     */
+    public void save(Post post) {
+        if (post == null) {
+            return;
+        }
+        synchronized (this) {
+            merge(pending, post.getId(), post);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * 保存帖子列表
+     * @param posts 要保存的帖子列表
+     */
+    public void saveAll(List<Post> posts) {
+        if (posts == null || posts.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (Post post : posts) {
+                merge(pending, post.getId(), post);
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * 删除帖子
+     * @param postId 要删除的帖子ID
+     */
+    public void delete(String postId) {
+        if (postId == null) {
+            return;
+        }
+        synchronized (this) {
+            pending.put(postId, null);
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * 清空所有帖子，之前尚未提交的操作一并丢弃
+     */
+    public void clear() {
+        synchronized (this) {
+            pending.clear();
+            clearPending = true;
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * 立即在写通道中提交待写入操作，不等待合并窗口结束
+     */
+    public void flush() {
+        executors.diskWrite().execute(this::drain);
+    }
+
+    /**
+     * 在当前线程同步提交待写入操作
+     * 需在后台线程调用，用于在其他写操作之前保证已入队的操作先落库
+     * @return 提交的帖子数量，包括删除
+     */
+    public int drain() {
+        Map<String, Post> batch;
+        boolean clearFirst;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty() && !clearPending) {
+                return 0;
+            }
+            batch = pending;
+            clearFirst = clearPending;
+            pending = new LinkedHashMap<>();
+            clearPending = false;
+        }
+
+        List<Post> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, Post> entry : batch.entrySet()) {
+            if (entry.getValue() != null) {
+                upserts.add(entry.getValue());
+            } else {
+                deletes.add(entry.getKey());
+            }
+        }
+        try {
+            postDao.applyWrites(clearFirst, upserts, deletes);
+            onCommitted();
+        } catch (SQLiteConstraintException e) {
+            e.printStackTrace();
+            // 违反约束的通常只是其中一行，逐条提交找出并丢弃它，其余照常写入
+            applyIndividually(batch, clearFirst);
+        } catch (Exception e) {
+            e.printStackTrace();
+            onFailed(batch, clearFirst);
+        }
+        return batch.size();
+    }
+
+    /**
+     * 逐条提交一批操作，违反约束的操作被丢弃；遇到其他错误时把剩余操作放回队列稍后重试
+     * @param batch 待提交的操作
+     * @param clearFirst 是否先清空所有帖子
+     */
+    private void applyIndividually(Map<String, Post> batch, boolean clearFirst) {
+        try {
+            if (clearFirst) {
+                postDao.applyWrites(true, Collections.emptyList(), Collections.emptyList());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            onFailed(batch, true);
+            return;
+        }
+        Map<String, Post> remaining = new LinkedHashMap<>(batch);
+        for (Map.Entry<String, Post> entry : batch.entrySet()) {
+            Post post = entry.getValue();
+            try {
+                if (post != null) {
+                    postDao.applyWrites(false, Collections.singletonList(post), Collections.emptyList());
+                } else {
+                    postDao.applyWrites(false, Collections.emptyList(), Collections.singletonList(entry.getKey()));
+                }
+            } catch (SQLiteConstraintException e) {
+                e.printStackTrace();
+                synchronized (this) {
+                    droppedCount++;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                onFailed(remaining, false);
+                return;
+            }
+            remaining.remove(entry.getKey());
+        }
+        onCommitted();
+    }
+
+    /**
+     * 提交成功，清除失败计数
+     */
+    private synchronized void onCommitted() {
+        failures = 0;
+    }
+
+    /**
+     * 提交失败：把操作放回队列并按指数退避安排重试，连续失败次数用完后丢弃
+     * @param batch 提交失败的操作
+     * @param clearFirst 是否包含清空操作
+     */
+    private void onFailed(Map<String, Post> batch, boolean clearFirst) {
+        long delay;
+        synchronized (this) {
+            failures++;
+            if (failures > MAX_RETRIES) {
+                failures = 0;
+                droppedCount += batch.size();
+                // 丢弃的是失败的这批，期间的新操作保留
+                if (pending.isEmpty() && !clearPending) {
+                    return;
+                }
+                delay = FLUSH_WINDOW_MILLIS;
+            } else {
+                requeue(batch, clearFirst);
+                delay = Math.min(FLUSH_WINDOW_MILLIS << failures, MAX_RETRY_DELAY_MILLIS);
+            }
+            flushScheduled = true;
+        }
+        executors.schedule(executors.diskWrite(), this::drain, delay);
+    }
+
+    /**
+     * 获取因无法提交而丢弃的操作数
+     * @return 操作数
+     */
+    public synchronized int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * 获取尚未提交的帖子数量
+     * @return 待提交数量
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 安排提交：达到批量上限时立即提交，否则在合并窗口结束时提交
+     */
+    private void scheduleFlush() {
+        boolean flushNow;
+        synchronized (this) {
+            // 退避期间不因积压提前提交，等待安排好的重试
+            flushNow = pending.size() >= MAX_BATCH_SIZE && failures == 0;
+            if (!flushNow && flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        if (flushNow) {
+            flush();
+        } else {
+            executors.schedule(executors.diskWrite(), this::drain, FLUSH_WINDOW_MILLIS);
+        }
+    }
+
+    /**
+     * 将提交失败的操作放回队列
+     * @param batch 提交失败的操作
+     * @param clearFirst 是否包含清空操作
+     */
+    private void requeue(Map<String, Post> batch, boolean clearFirst) {
+        synchronized (this) {
+            if (clearPending) {
+                // 之后又发生了清空，失败的操作已无意义
+                return;
+            }
+            // 失败的操作在前，期间的新操作按同样的规则合并在后
+            Map<String, Post> merged = new LinkedHashMap<>(batch);
+            for (Map.Entry<String, Post> entry : pending.entrySet()) {
+                merge(merged, entry.getKey(), entry.getValue());
+            }
+            pending = merged;
+            clearPending = clearFirst;
+        }
+    }
+
+    /**
+     * 按帖子ID合并操作：删除覆盖保存，保存只覆盖之前的保存
+     * @param operations 待提交的操作
+     * @param postId 帖子ID
+     * @param post 要保存的帖子，null表示删除
+     */
+    private static void merge(Map<String, Post> operations, String postId, Post post) {
+        if (post == null || !operations.containsKey(postId) || operations.get(postId) != null) {
+            operations.put(postId, post);
+        }
+    }
+}
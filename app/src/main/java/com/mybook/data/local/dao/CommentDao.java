@@ -0,0 +1,100 @@
+package com.mybook.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.RemoteKey;
+
+import java.util.List;
+
+/**
+ * Comment数据访问对象
+ * 定义对comments表的操作方法，评论按(createdAt, id)升序排列，最早的评论在前
+ */
+@Dao
+public interface CommentDao {
+    /**
+     * 获取帖子评论的第一页
+     * @param postId 帖子ID
+     * @param limit 每页数量
+     * @return 按(createdAt, id)升序排列的评论列表
+     */
+    @Query("SELECT * FROM comments WHERE postId = :postId ORDER BY createdAt ASC, id ASC LIMIT :limit")
+    List<Comment> getFirstPage(String postId, int limit);
+
+    /**
+     * 获取游标之后的一页评论
+     * @param postId 帖子ID
+     * @param createdAt 游标位置评论的创建时间
+     * @param id 游标位置评论的ID
+     * @param limit 每页数量
+     * @return 按(createdAt, id)升序排列的评论列表
+     */
+    @Query("SELECT * FROM comments WHERE postId = :postId "
+            + "AND (createdAt > :createdAt OR (createdAt = :createdAt AND id > :id)) "
+            + "ORDER BY createdAt ASC, id ASC LIMIT :limit")
+    List<Comment> getPageAfter(String postId, String createdAt, String id, int limit);
+
+    /**
+     * 获取游标之前的一页评论
+     * @param postId 帖子ID
+     * @param createdAt 游标位置评论的创建时间
+     * @param id 游标位置评论的ID
+     * @param limit 每页数量
+     * @return 按(createdAt, id)降序排列的评论列表，紧邻游标的评论在前
+     */
+    @Query("SELECT * FROM comments WHERE postId = :postId "
+            + "AND (createdAt < :createdAt OR (createdAt = :createdAt AND id < :id)) "
+            + "ORDER BY createdAt DESC, id DESC LIMIT :limit")
+    List<Comment> getPageBefore(String postId, String createdAt, String id, int limit);
+
+    /**
+     * 插入评论，冲突时替换
+     * @param comment 要插入的评论
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertComment(Comment comment);
+
+    /**
+     * 插入评论列表，冲突时替换
+     * @param comments 要插入的评论列表
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertComments(List<Comment> comments);
+
+    /**
+     * 保存远程分页游标
+     * @param remoteKey 远程分页游标
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertRemoteKey(RemoteKey remoteKey);
+
+    /**
+     * 在同一事务中保存一页远程评论及其下一页游标
+     * @param comments 评论列表
+     * @param remoteKey 远程分页游标
+     */
+    @Transaction
+    default void insertCommentPage(List<Comment> comments, RemoteKey remoteKey) {
+        insertComments(comments);
+        insertRemoteKey(remoteKey);
+    }
+
+    /**
+     * 根据ID删除评论
+     * @param commentId 评论ID
+     */
+    @Query("DELETE FROM comments WHERE id = :commentId")
+    void deleteComment(String commentId);
+
+    /**
+     * 删除帖子的所有评论
+     * @param postId 帖子ID
+     */
+    @Query("DELETE FROM comments WHERE postId = :postId")
+    void deleteCommentsForPost(String postId);
+}
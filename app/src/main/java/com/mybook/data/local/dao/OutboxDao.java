@@ -0,0 +1,117 @@
+package com.mybook.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.mybook.data.model.EngagementAction;
+import com.mybook.data.model.OutboxEntry;
+
+import java.util.List;
+
+/**
+ * Outbox数据访问对象
+ * 待发送操作按id（即入队顺序）读取和发送
+ */
+@Dao
+public interface OutboxDao {
+    /**
+     * 新增待发送操作
+     * @param entry 待发送操作
+     * @return 自增ID
+     */
+    @Insert
+    long insert(OutboxEntry entry);
+
+    /**
+     * 获取队首的待发送操作
+     * @param limit 最多返回数量
+     * @return 按入队顺序排列的操作
+     */
+    @Query("SELECT * FROM outbox ORDER BY id ASC LIMIT :limit")
+    List<OutboxEntry> getHead(int limit);
+
+    /**
+     * 查找同一帖子、同一类型且从未发送过的最近一次互动操作
+     * @param postId 帖子ID
+     * @param engagementType 互动类型
+     * @return 待发送操作，不存在时返回null
+     */
+    @Query("SELECT * FROM outbox WHERE type = '" + OutboxEntry.TYPE_ENGAGEMENT + "' "
+            + "AND postId = :postId AND engagementType = :engagementType AND attempts = 0 "
+            + "ORDER BY id DESC LIMIT 1")
+    OutboxEntry findUnsentEngagement(String postId, String engagementType);
+
+    /**
+     * 更新互动次数
+     * @param id 操作ID
+     * @param count 新的次数
+     */
+    @Query("UPDATE outbox SET count = :count WHERE id = :id")
+    void updateCount(long id, int count);
+
+    /**
+     * 标记操作即将发送，发送次数加1
+     * @param ids 操作ID列表
+     */
+    @Query("UPDATE outbox SET attempts = attempts + 1 WHERE id IN (:ids)")
+    void markAttempted(List<Long> ids);
+
+    /**
+     * 设置下次可以发送的时间
+     * @param ids 操作ID列表
+     * @param nextAttemptAt 下次发送时间（毫秒）
+     */
+    @Query("UPDATE outbox SET nextAttemptAt = :nextAttemptAt WHERE id IN (:ids)")
+    void setNextAttemptAt(List<Long> ids, long nextAttemptAt);
+
+    /**
+     * 清除失败操作的退避等待，网络恢复时立即重试；尚未发送过的互动操作仍等待合并窗口结束
+     */
+    @Query("UPDATE outbox SET nextAttemptAt = 0 WHERE attempts > 0")
+    void resetBackoff();
+
+    /**
+     * 删除已完成或已放弃的操作
+     * @param ids 操作ID列表
+     */
+    @Query("DELETE FROM outbox WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
+    /**
+     * 删除单个操作
+     * @param id 操作ID
+     */
+    @Query("DELETE FROM outbox WHERE id = :id")
+    void deleteById(long id);
+
+    /**
+     * 获取待发送操作数量
+     * @return 数量
+     */
+    @Query("SELECT COUNT(*) FROM outbox")
+    int count();
+
+    /**
+     * 入队互动操作，并与尚未发送的同类操作合并
+     * 点赞、收藏切换两次等于没有操作，直接删除之前的一条；分享次数累加到之前的一条
+     * 已经发送过的操作可能已被服务端处理，不参与合并
+     * @param entry 互动操作
+     * @return 与之前的操作相互抵消时返回true
+     */
+    @Transaction
+    default boolean enqueueEngagement(OutboxEntry entry) {
+        OutboxEntry unsent = findUnsentEngagement(entry.getPostId(), entry.getEngagementType());
+        if (unsent == null) {
+            insert(entry);
+            return false;
+        }
+        if (EngagementAction.TYPE_SHARE.equals(entry.getEngagementType())) {
+            updateCount(unsent.getId(), unsent.getCount() + entry.getCount());
+            return false;
+        }
+        deleteById(unsent.getId());
+        return true;
+    }
+}
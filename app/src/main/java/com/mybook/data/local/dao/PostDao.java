@@ -6,35 +6,97 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import com.mybook.data.mapper.DataMapper;
+import com.mybook.data.model.OutboxEntry;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.data.model.PostHash;
+import com.mybook.data.model.PostImage;
+import com.mybook.data.model.PostWithImages;
+import com.mybook.data.model.RemoteKey;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Post数据访问对象
- * 定义对posts表的操作方法
+ * 定义对posts表及其post_images子表的操作方法
  */
 @Dao
 public interface PostDao {
     /**
-     * 获取所有帖子
+     * 信息流卡片投影的列，只读取卡片展示所需字段，图片通过@Relation批量加载
+     */
+    String CARD_COLUMNS = "id, name, avatar, content, likes, isLiked, createdAt";
+
+    /**
+     * 单条语句绑定参数的上限，低于SQLite默认的999
+     */
+    int MAX_BIND_ARGS = 900;
+
+    /**
+     * 获取所有帖子及其图片
      * @return 帖子列表的LiveData
      */
+    @Transaction
     @Query("SELECT * FROM posts ORDER BY createdAt DESC")
-    LiveData<List<Post>> getAllPosts();
+    LiveData<List<PostWithImages>> getAllPosts();
+
+    /**
+     * 获取信息流第一页
+     * @param limit 每页数量
+     * @return 按(createdAt, id)降序排列的帖子卡片列表
+     */
+    @Transaction
+    @Query("SELECT " + CARD_COLUMNS + " FROM posts ORDER BY createdAt DESC, id DESC LIMIT :limit")
+    List<PostCard> getFeedFirstPage(int limit);
+
+    /**
+     * 获取游标之后（更早）的一页帖子
+     * @param createdAt 游标帖子的创建时间
+     * @param id 游标帖子的ID
+     * @param limit 每页数量
+     * @return 按(createdAt, id)降序排列的帖子卡片列表
+     */
+    @Transaction
+    @Query("SELECT " + CARD_COLUMNS + " FROM posts "
+            + "WHERE createdAt < :createdAt OR (createdAt = :createdAt AND id < :id) "
+            + "ORDER BY createdAt DESC, id DESC LIMIT :limit")
+    List<PostCard> getFeedPageOlderThan(String createdAt, String id, int limit);
+
+    /**
+     * 获取游标之前（更新）的一页帖子
+     * @param createdAt 游标帖子的创建时间
+     * @param id 游标帖子的ID
+     * @param limit 每页数量
+     * @return 按(createdAt, id)升序排列的帖子卡片列表，紧邻游标的帖子在前
+     */
+    @Transaction
+    @Query("SELECT " + CARD_COLUMNS + " FROM posts "
+            + "WHERE createdAt > :createdAt OR (createdAt = :createdAt AND id > :id) "
+            + "ORDER BY createdAt ASC, id ASC LIMIT :limit")
+    List<PostCard> getFeedPageNewerThan(String createdAt, String id, int limit);
 
     /**
-     * 根据ID获取帖子
+     * 根据ID获取帖子及其图片
      * @param postId 帖子ID
      * @return 帖子的LiveData
      */
+    @Transaction
     @Query("SELECT * FROM posts WHERE id = :postId")
-    LiveData<Post> getPostById(String postId);
+    LiveData<PostWithImages> getPostById(String postId);
 
     /**
      * 插入帖子，冲突时替换
+     * 替换会级联删除原有图片，需通过savePost一并写入图片
      * @param post 要插入的帖子
      */
     @Insert(onConflict = OnConflictStrategy.REPLACE)
@@ -42,11 +104,156 @@ public interface PostDao {
 
     /**
      * 插入帖子列表，冲突时替换
+     * 替换会级联删除原有图片，需通过savePosts一并写入图片
      * @param posts 要插入的帖子列表
      */
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertPosts(List<Post> posts);
 
+    /**
+     * 插入帖子列表，已存在的帖子保持不变
+     * @param posts 要插入的帖子列表
+     * @return 每条帖子的rowId，已存在而被忽略的为-1
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertPostsIfAbsent(List<Post> posts);
+
+    /**
+     * 批量更新帖子，UPDATE不会像REPLACE那样删除重建行，也不会级联删除图片
+     * @param posts 要更新的帖子列表
+     */
+    @Update
+    void updatePosts(List<Post> posts);
+
+    /**
+     * 查询帖子的内容哈希
+     * @param postIds 帖子ID列表，数量不能超过SQLite参数上限
+     * @return 本地已存在帖子的ID与内容哈希
+     */
+    @Query("SELECT id, contentHash FROM posts WHERE id IN (:postIds)")
+    List<PostHash> getContentHashes(List<String> postIds);
+
+    /**
+     * 插入帖子图片，冲突时替换
+     * @param images 要插入的图片列表
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertPostImages(List<PostImage> images);
+
+    /**
+     * 删除帖子的所有图片
+     * @param postId 帖子ID
+     */
+    @Query("DELETE FROM post_images WHERE postId = :postId")
+    void deletePostImages(String postId);
+
+    /**
+     * 在同一事务中保存帖子及其图片，内容未变化时不写入
+     * @param post 要保存的帖子
+     * @return 实际写入的帖子数量
+     */
+    @Transaction
+    default int savePost(Post post) {
+        return savePosts(Collections.singletonList(post));
+    }
+
+    /**
+     * 在同一事务中差量保存帖子列表及其图片
+     * 按内容哈希与本地比较，只插入新帖子、更新有变化的帖子，全部未变化时不触发任何写入和表失效通知
+     * @param posts 要保存的帖子列表
+     * @return 实际写入的帖子数量
+     */
+    @Transaction
+    default int savePosts(List<Post> posts) {
+        if (posts == null || posts.isEmpty()) {
+            return 0;
+        }
+        // 同一批中重复的帖子以最后一条为准
+        Map<String, Post> incoming = new LinkedHashMap<>();
+        for (Post post : posts) {
+            DataMapper.updateContentHash(post);
+            incoming.put(post.getId(), post);
+        }
+
+        Map<String, Long> storedHashes = new HashMap<>();
+        List<String> ids = new ArrayList<>(incoming.keySet());
+        for (int start = 0; start < ids.size(); start += MAX_BIND_ARGS) {
+            List<String> chunk = ids.subList(start, Math.min(start + MAX_BIND_ARGS, ids.size()));
+            for (PostHash postHash : getContentHashes(chunk)) {
+                storedHashes.put(postHash.getId(), postHash.getContentHash());
+            }
+        }
+
+        List<Post> inserted = new ArrayList<>();
+        List<Post> updated = new ArrayList<>();
+        for (Post post : incoming.values()) {
+            Long storedHash = storedHashes.get(post.getId());
+            if (storedHash == null) {
+                inserted.add(post);
+            } else if (storedHash != post.getContentHash()) {
+                updated.add(post);
+            }
+        }
+
+        if (!inserted.isEmpty()) {
+            insertPostsIfAbsent(inserted);
+            for (Post post : inserted) {
+                insertPostImages(DataMapper.toPostImages(post));
+            }
+        }
+        if (!updated.isEmpty()) {
+            updatePosts(updated);
+            for (Post post : updated) {
+                deletePostImages(post.getId());
+                insertPostImages(DataMapper.toPostImages(post));
+            }
+        }
+        return inserted.size() + updated.size();
+    }
+
+    /**
+     * 在同一事务中保存本地缺失的帖子及其图片，已存在的帖子及图片保持不变
+     * @param posts 要保存的帖子列表
+     */
+    @Transaction
+    default void savePostsIfAbsent(List<Post> posts) {
+        for (Post post : posts) {
+            DataMapper.updateContentHash(post);
+        }
+        long[] rowIds = insertPostsIfAbsent(posts);
+        for (int i = 0; i < rowIds.length; i++) {
+            if (rowIds[i] != -1) {
+                insertPostImages(DataMapper.toPostImages(posts.get(i)));
+            }
+        }
+    }
+
+    /**
+     * 获取远程分页游标
+     * @param label 列表标识
+     * @return 远程分页游标，不存在时返回null
+     */
+    @Query("SELECT * FROM remote_keys WHERE label = :label")
+    RemoteKey getRemoteKey(String label);
+
+    /**
+     * 保存远程分页游标
+     * @param remoteKey 远程分页游标
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertRemoteKey(RemoteKey remoteKey);
+
+    /**
+     * 在同一事务中保存一页远程帖子及其下一页游标
+     * @param posts 帖子列表
+     * @param remoteKey 远程分页游标
+     */
+    @Transaction
+    default void insertFeedPage(List<Post> posts, RemoteKey remoteKey) {
+        savePosts(posts);
+        insertRemoteKey(remoteKey);
+    }
+
     /**
      * 更新帖子
      * @param post 要更新的帖子
@@ -54,6 +261,54 @@ public interface PostDao {
     @Update
     void updatePost(Post post);
 
+    /**
+     * 获取帖子的点赞状态
+     * @param postId 帖子ID
+     * @return 是否已点赞，帖子不存在时返回null
+     */
+    @Query("SELECT isLiked FROM posts WHERE id = :postId")
+    Boolean getLiked(String postId);
+
+    /**
+     * 更新单个帖子的点赞状态和点赞数
+     * contentHash置0，下次同步时该行一定会被服务端数据覆盖，纠正本地计数的偏差
+     * @param postId 帖子ID
+     * @param liked 新的点赞状态
+     * @param delta 点赞数变化量
+     * @return 更新的行数
+     */
+    @Query("UPDATE posts SET isLiked = :liked, likes = likes + :delta, contentHash = 0 WHERE id = :postId")
+    int updateLike(String postId, boolean liked, int delta);
+
+    /**
+     * 撤销被服务端拒绝的点赞或取消点赞
+     * 只有本地仍是该操作的结果时才撤销，之后用户又切换过时保留用户最新的选择
+     * contentHash置0，下次同步时该行一定会被服务端数据覆盖
+     * @param postId 帖子ID
+     * @param liked 被拒绝的操作的目标状态
+     * @param delta 该操作带来的点赞数变化量
+     * @return 更新的行数，本地状态已不是该结果时为0
+     */
+    @Query("UPDATE posts SET isLiked = NOT :liked, likes = likes - :delta, contentHash = 0 "
+            + "WHERE id = :postId AND isLiked = :liked")
+    int revertLike(String postId, boolean liked, int delta);
+
+    /**
+     * 切换单个帖子的点赞状态，只写入这一行
+     * @param postId 帖子ID
+     * @return 切换后的点赞状态，帖子不存在时返回null
+     */
+    @Transaction
+    default Boolean toggleLike(String postId) {
+        Boolean liked = getLiked(postId);
+        if (liked == null) {
+            return null;
+        }
+        boolean newLiked = !liked;
+        updateLike(postId, newLiked, newLiked ? 1 : -1);
+        return newLiked;
+    }
+
     /**
      * 删除帖子
      * @param post 要删除的帖子
@@ -68,6 +323,71 @@ public interface PostDao {
     @Query("DELETE FROM posts WHERE id = :postId")
     void deletePostById(String postId);
 
+    /**
+     * 根据ID批量删除帖子，图片随外键级联删除
+     * @param postIds 要删除的帖子ID列表，数量不能超过SQLite参数上限
+     */
+    @Query("DELETE FROM posts WHERE id IN (:postIds)")
+    void deletePostsByIds(List<String> postIds);
+
+    /**
+     * 在同一事务中提交一批合并后的写操作
+     * @param clearFirst 是否先清空所有帖子
+     * @param upserts 要保存的帖子，按内容哈希差量写入
+     * @param deletes 要删除的帖子ID，与upserts不重叠
+     */
+    @Transaction
+    default void applyWrites(boolean clearFirst, List<Post> upserts, List<String> deletes) {
+        if (clearFirst) {
+            clearAllPosts();
+        }
+        for (int start = 0; start < deletes.size(); start += MAX_BIND_ARGS) {
+            deletePostsByIds(deletes.subList(start, Math.min(start + MAX_BIND_ARGS, deletes.size())));
+        }
+        savePosts(upserts);
+    }
+
+    /**
+     * 在同一事务中应用一次同步结果并保存同步令牌
+     * 令牌与数据一起提交，进程中途被杀时下次会从旧令牌重新同步
+     * @param upserts 新增或修改的帖子
+     * @param deletes 被删除的帖子ID
+     * @param syncKey 同步令牌
+     */
+    @Transaction
+    default void applySync(List<Post> upserts, List<String> deletes, RemoteKey syncKey) {
+        applyWrites(false, upserts, deletes);
+        insertRemoteKey(syncKey);
+    }
+
+    /**
+     * 获取可由同步删除的帖子ID，排除尚未发送到服务端的本地新帖子
+     * @return 帖子ID列表
+     */
+    @Query("SELECT id FROM posts WHERE id NOT IN (SELECT postId FROM outbox WHERE type = '"
+            + OutboxEntry.TYPE_ADD_POST + "' AND postId IS NOT NULL)")
+    List<String> getSyncedPostIds();
+
+    /**
+     * 全量同步结束时在同一事务中删除本次未收到的帖子并保存同步令牌
+     * 各批帖子已先行写入，这里只清理令牌过期期间在服务端被删除的帖子
+     * @param receivedIds 本次全量同步收到的帖子ID
+     * @param syncKey 同步令牌
+     * @return 删除的帖子数量
+     */
+    @Transaction
+    default int applyFullSync(Collection<String> receivedIds, RemoteKey syncKey) {
+        List<String> stale = new ArrayList<>();
+        for (String id : getSyncedPostIds()) {
+            if (!receivedIds.contains(id)) {
+                stale.add(id);
+            }
+        }
+        applyWrites(false, Collections.emptyList(), stale);
+        insertRemoteKey(syncKey);
+        return stale.size();
+    }
+
     /**
      * 清空所有帖子
      */
@@ -0,0 +1,202 @@
+package com.mybook.data.local.migration;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 数据库迁移集合
+ * 每次修改表结构都需要在这里新增对应版本的迁移，保证升级时保留本地缓存
+ */
+public final class Migrations {
+
+    /**
+     * 1 -> 2：新增远程分页游标表
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `remote_keys` "
+                    + "(`label` TEXT NOT NULL, `nextCursor` TEXT, PRIMARY KEY(`label`))");
+        }
+    };
+
+    /**
+     * 2 -> 3：为信息流排序新增(createdAt, id)复合索引
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_posts_createdAt_id` ON `posts` (`createdAt`, `id`)");
+        }
+    };
+
+    /**
+     * 3 -> 4：图片从posts表的JSON列拆分到post_images表，每张图片一行
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            // 先读出旧的图片JSON，重建posts表后再写入post_images
+            List<String> postIds = new ArrayList<>();
+            List<List<String>> imageLists = new ArrayList<>();
+            try (Cursor cursor = database.query("SELECT `id`, `images` FROM `posts`")) {
+                while (cursor.moveToNext()) {
+                    postIds.add(cursor.getString(0));
+                    imageLists.add(readImageUrls(cursor.getString(1)));
+                }
+            }
+
+            // SQLite不支持直接删除列，通过新建表复制数据的方式去掉images列
+            database.execSQL("CREATE TABLE IF NOT EXISTS `posts_new` ("
+                    + "`id` TEXT NOT NULL, `userId` TEXT, `name` TEXT, `avatar` TEXT, `bio` TEXT, "
+                    + "`followers` INTEGER NOT NULL, `following` INTEGER NOT NULL, `content` TEXT, "
+                    + "`likes` INTEGER NOT NULL, `comments` INTEGER NOT NULL, `shares` INTEGER NOT NULL, "
+                    + "`isLiked` INTEGER NOT NULL, `isFollowing` INTEGER NOT NULL, `isSaved` INTEGER NOT NULL, "
+                    + "`saves` INTEGER NOT NULL, `createdAt` TEXT, PRIMARY KEY(`id`))");
+            database.execSQL("INSERT INTO `posts_new` (`id`, `userId`, `name`, `avatar`, `bio`, `followers`, "
+                    + "`following`, `content`, `likes`, `comments`, `shares`, `isLiked`, `isFollowing`, "
+                    + "`isSaved`, `saves`, `createdAt`) "
+                    + "SELECT `id`, `userId`, `name`, `avatar`, `bio`, `followers`, `following`, `content`, "
+                    + "`likes`, `comments`, `shares`, `isLiked`, `isFollowing`, `isSaved`, `saves`, `createdAt` "
+                    + "FROM `posts`");
+            database.execSQL("DROP TABLE `posts`");
+            database.execSQL("ALTER TABLE `posts_new` RENAME TO `posts`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_posts_createdAt_id` ON `posts` (`createdAt`, `id`)");
+
+            database.execSQL("CREATE TABLE IF NOT EXISTS `post_images` ("
+                    + "`postId` TEXT NOT NULL, `position` INTEGER NOT NULL, `url` TEXT, "
+                    + "`width` INTEGER NOT NULL, `height` INTEGER NOT NULL, PRIMARY KEY(`postId`, `position`), "
+                    + "FOREIGN KEY(`postId`) REFERENCES `posts`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            for (int i = 0; i < postIds.size(); i++) {
+                List<String> urls = imageLists.get(i);
+                for (int position = 0; position < urls.size(); position++) {
+                    ContentValues values = new ContentValues();
+                    values.put("postId", postIds.get(i));
+                    values.put("position", position);
+                    values.put("url", urls.get(position));
+                    // 旧数据没有图片尺寸，由后续同步补全
+                    values.put("width", 0);
+                    values.put("height", 0);
+                    database.insert("post_images", SQLiteDatabase.CONFLICT_REPLACE, values);
+                }
+            }
+        }
+    };
+
+    /**
+     * 4 -> 5：新增帖子内容哈希列，已有行为0，下次同步时全部重写一次并计算哈希
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `posts` ADD COLUMN `contentHash` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * 5 -> 6：新增评论表，并为按帖子分页新增(postId, createdAt, id)复合索引
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `comments` ("
+                    + "`id` TEXT NOT NULL, `postId` TEXT, `userId` TEXT, `name` TEXT, `avatar` TEXT, "
+                    + "`content` TEXT, `createdAt` TEXT, PRIMARY KEY(`id`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_comments_postId_createdAt_id` "
+                    + "ON `comments` (`postId`, `createdAt`, `id`)");
+        }
+    };
+
+    /**
+     * 6 -> 7：新增待发送写操作表，idempotencyKey唯一
+     */
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `outbox` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `idempotencyKey` TEXT NOT NULL, "
+                    + "`type` TEXT NOT NULL, `postId` TEXT, `targetId` TEXT, `engagementType` TEXT, "
+                    + "`count` INTEGER NOT NULL, `payload` TEXT, `attempts` INTEGER NOT NULL, "
+                    + "`nextAttemptAt` INTEGER NOT NULL, `createdAt` INTEGER NOT NULL)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_outbox_idempotencyKey` "
+                    + "ON `outbox` (`idempotencyKey`)");
+        }
+    };
+
+    /**
+     * 7 -> 8：待发送操作新增切换目标状态列
+     * 已在队列中的点赞操作按帖子当前的点赞状态补齐，本地状态就是最后一次切换的结果
+     */
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `outbox` ADD COLUMN `targetState` INTEGER");
+            database.execSQL("UPDATE `outbox` SET `targetState` = "
+                    + "(SELECT `isLiked` FROM `posts` WHERE `posts`.`id` = `outbox`.`postId`) "
+                    + "WHERE `type` = 'engagement' AND `engagementType` = 'like'");
+        }
+    };
+
+    /**
+     * 所有迁移，按版本顺序排列
+     */
+    public static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8
+    };
+
+    /**
+     * 读取版本3及之前posts表images列中的图片地址，只用于MIGRATION_3_4
+     * 该列由Gson写入，格式为字符串JSON数组；内容损坏时忽略这一行的图片
+     * @param json JSON数组，可能为null
+     * @return 图片地址列表，不含null元素
+     */
+    static List<String> readImageUrls(String json) {
+        List<String> urls = new ArrayList<>();
+        if (json == null || json.isEmpty()) {
+            return urls;
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                return urls;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.STRING) {
+                    urls.add(reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+        } catch (IOException | IllegalStateException e) {
+            e.printStackTrace();
+            urls.clear();
+        }
+        return urls;
+    }
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private Migrations() {
+    }
+}
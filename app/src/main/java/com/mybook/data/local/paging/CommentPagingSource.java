@@ -0,0 +1,145 @@
+package com.mybook.data.local.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.mybook.data.local.dao.CommentDao;
+import com.mybook.data.model.Comment;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kotlin.Unit;
+
+/**
+ * 帖子评论分页数据源
+ * 基于(postId, createdAt, id)索引的键集查询逐页读取本地评论，长评论串不需要一次性读入内存
+ * comments表发生变化时自动失效，由Pager重新创建数据源
+ */
+public class CommentPagingSource extends ListenableFuturePagingSource<FeedCursor, Comment> {
+    private final CommentDao commentDao;
+    private final String postId;
+    private final InvalidationTracker invalidationTracker;
+    private final Executor executor;
+    private final AtomicBoolean observerRegistered = new AtomicBoolean(false);
+
+    /**
+     * comments表变化观察者，表数据变化时使当前数据源失效
+     */
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("comments") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+
+    /**
+     * 构造函数
+     * @param commentDao Comment DAO实例
+     * @param postId 帖子ID
+     * @param invalidationTracker Room失效跟踪器，为null时不自动失效
+     * @param executor 执行查询的后台线程池
+     */
+    public CommentPagingSource(CommentDao commentDao, String postId,
+                               @Nullable InvalidationTracker invalidationTracker, Executor executor) {
+        this.commentDao = commentDao;
+        this.postId = postId;
+        this.invalidationTracker = invalidationTracker;
+        this.executor = executor;
+        registerInvalidatedCallback(() -> {
+            if (invalidationTracker != null && observerRegistered.get()) {
+                invalidationTracker.removeObserver(observer);
+            }
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<FeedCursor, Comment>> loadFuture(@NonNull LoadParams<FeedCursor> params) {
+        ListenableFutureTask<LoadResult<FeedCursor, Comment>> task = ListenableFutureTask.create(() -> {
+            try {
+                return loadPage(params);
+            } catch (Exception e) {
+                return new LoadResult.Error<>(e);
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * 根据加载类型执行对应的键集查询
+     * @param params 加载参数
+     * @return 加载结果
+     */
+    private LoadResult<FeedCursor, Comment> loadPage(LoadParams<FeedCursor> params) {
+        // 首次加载时注册观察者，注册过程会访问数据库，因此放在后台线程中进行
+        if (invalidationTracker != null && observerRegistered.compareAndSet(false, true)) {
+            invalidationTracker.addObserver(observer);
+        }
+
+        FeedCursor key = params.getKey();
+        int loadSize = params.getLoadSize();
+
+        if (params instanceof LoadParams.Prepend) {
+            // 向前加载：按降序取比游标更早的评论，再翻转为升序
+            List<Comment> comments = commentDao.getPageBefore(postId, key.getCreatedAt(), key.getId(), loadSize);
+            Collections.reverse(comments);
+            return toPage(comments, comments.size() == loadSize, !comments.isEmpty());
+        }
+
+        if (params instanceof LoadParams.Append) {
+            // 向后加载：取比游标更新的评论
+            List<Comment> comments = commentDao.getPageAfter(postId, key.getCreatedAt(), key.getId(), loadSize);
+            return toPage(comments, !comments.isEmpty(), comments.size() == loadSize);
+        }
+
+        // 刷新：无游标时从头加载，有游标时从游标之后继续，保持当前位置
+        if (key != null) {
+            List<Comment> comments = commentDao.getPageAfter(postId, key.getCreatedAt(), key.getId(), loadSize);
+            if (!comments.isEmpty()) {
+                return toPage(comments, true, comments.size() == loadSize);
+            }
+        }
+        List<Comment> comments = commentDao.getFirstPage(postId, loadSize);
+        return toPage(comments, false, comments.size() == loadSize);
+    }
+
+    /**
+     * 构建分页结果，前后页游标分别取本页首尾评论的位置
+     * @param comments 本页评论，按时间升序
+     * @param hasPrevious 是否可能存在更早的评论
+     * @param hasNext 是否可能存在更新的评论
+     * @return 分页结果
+     */
+    private LoadResult<FeedCursor, Comment> toPage(List<Comment> comments, boolean hasPrevious, boolean hasNext) {
+        FeedCursor prevKey = hasPrevious && !comments.isEmpty() ? FeedCursor.of(comments.get(0)) : null;
+        FeedCursor nextKey = hasNext && !comments.isEmpty() ? FeedCursor.of(comments.get(comments.size() - 1)) : null;
+        return new LoadResult.Page<>(comments, prevKey, nextKey);
+    }
+
+    @Nullable
+    @Override
+    public FeedCursor getRefreshKey(@NonNull PagingState<FeedCursor, Comment> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        // 以锚点前半页的前一条评论为游标，刷新后锚点仍位于首屏中间
+        int position = anchorPosition - state.getConfig().initialLoadSize / 2 - 1;
+        if (position < 0) {
+            return null;
+        }
+        Comment comment = state.closestItemToPosition(position);
+        return comment != null ? FeedCursor.of(comment) : null;
+    }
+}
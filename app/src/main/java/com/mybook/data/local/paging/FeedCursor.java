@@ -0,0 +1,70 @@
+package com.mybook.data.local.paging;
+
+import androidx.annotation.NonNull;
+
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.PostCard;
+
+import java.util.Objects;
+
+/**
+ * 信息流及评论列表的分页游标
+ * 以(createdAt, id)标识列表中的位置，用于键集分页，避免OFFSET随页数增长的扫描开销
+ */
+public class FeedCursor {
+    private final String createdAt;
+    private final String id;
+
+    /**
+     * 构造函数
+     * @param createdAt 帖子创建时间
+     * @param id 帖子ID，用于创建时间相同时的排序
+     */
+    public FeedCursor(String createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * 以帖子卡片所在位置创建游标
+     * @param card 帖子卡片
+     * @return 游标
+     */
+    public static FeedCursor of(@NonNull PostCard card) {
+        return new FeedCursor(card.getCreatedAt(), card.getId());
+    }
+
+    /**
+     * 以评论所在位置创建游标
+     * @param comment 评论
+     * @return 游标
+     */
+    public static FeedCursor of(@NonNull Comment comment) {
+        return new FeedCursor(comment.getCreatedAt(), comment.getId());
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FeedCursor)) {
+            return false;
+        }
+        FeedCursor that = (FeedCursor) o;
+        return Objects.equals(createdAt, that.createdAt) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+}
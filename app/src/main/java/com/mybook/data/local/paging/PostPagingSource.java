@@ -0,0 +1,141 @@
+package com.mybook.data.local.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.mybook.data.local.dao.PostDao;
+import com.mybook.data.model.PostCard;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kotlin.Unit;
+
+/**
+ * 帖子信息流分页数据源
+ * 基于(createdAt, id)的键集查询逐页读取本地缓存，每页查询代价与缓存总量无关
+ * posts或post_images表发生变化时自动失效，由Pager重新创建数据源
+ */
+public class PostPagingSource extends ListenableFuturePagingSource<FeedCursor, PostCard> {
+    private final PostDao postDao;
+    private final InvalidationTracker invalidationTracker;
+    private final Executor executor;
+    private final AtomicBoolean observerRegistered = new AtomicBoolean(false);
+
+    /**
+     * posts及post_images表变化观察者，表数据变化时使当前数据源失效
+     */
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("posts", "post_images") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+
+    /**
+     * 构造函数
+     * @param postDao Post DAO实例
+     * @param invalidationTracker Room失效跟踪器，为null时不自动失效
+     * @param executor 执行查询的后台线程池
+     */
+    public PostPagingSource(PostDao postDao, @Nullable InvalidationTracker invalidationTracker, Executor executor) {
+        this.postDao = postDao;
+        this.invalidationTracker = invalidationTracker;
+        this.executor = executor;
+        registerInvalidatedCallback(() -> {
+            if (invalidationTracker != null && observerRegistered.get()) {
+                invalidationTracker.removeObserver(observer);
+            }
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<FeedCursor, PostCard>> loadFuture(@NonNull LoadParams<FeedCursor> params) {
+        ListenableFutureTask<LoadResult<FeedCursor, PostCard>> task = ListenableFutureTask.create(() -> {
+            try {
+                return loadPage(params);
+            } catch (Exception e) {
+                return new LoadResult.Error<>(e);
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * 根据加载类型执行对应的键集查询
+     * @param params 加载参数
+     * @return 加载结果
+     */
+    private LoadResult<FeedCursor, PostCard> loadPage(LoadParams<FeedCursor> params) {
+        // 首次加载时注册观察者，注册过程会访问数据库，因此放在后台线程中进行
+        if (invalidationTracker != null && observerRegistered.compareAndSet(false, true)) {
+            invalidationTracker.addObserver(observer);
+        }
+
+        FeedCursor key = params.getKey();
+        int loadSize = params.getLoadSize();
+
+        if (params instanceof LoadParams.Prepend) {
+            // 向前加载：按升序取比游标更新的帖子，再翻转为降序
+            List<PostCard> posts = postDao.getFeedPageNewerThan(key.getCreatedAt(), key.getId(), loadSize);
+            Collections.reverse(posts);
+            return toPage(posts, posts.size() == loadSize, !posts.isEmpty());
+        }
+
+        if (params instanceof LoadParams.Append) {
+            // 向后加载：取比游标更早的帖子
+            List<PostCard> posts = postDao.getFeedPageOlderThan(key.getCreatedAt(), key.getId(), loadSize);
+            return toPage(posts, !posts.isEmpty(), posts.size() == loadSize);
+        }
+
+        // 刷新：无游标时从头加载，有游标时从游标之后继续，保持当前位置
+        if (key != null) {
+            List<PostCard> posts = postDao.getFeedPageOlderThan(key.getCreatedAt(), key.getId(), loadSize);
+            if (!posts.isEmpty()) {
+                return toPage(posts, true, posts.size() == loadSize);
+            }
+        }
+        List<PostCard> posts = postDao.getFeedFirstPage(loadSize);
+        return toPage(posts, false, posts.size() == loadSize);
+    }
+
+    /**
+     * 构建分页结果，前后页游标分别取本页首尾帖子的位置
+     * @param posts 本页帖子卡片，按时间降序
+     * @param hasPrevious 是否可能存在更新的帖子
+     * @param hasNext 是否可能存在更早的帖子
+     * @return 分页结果
+     */
+    private LoadResult<FeedCursor, PostCard> toPage(List<PostCard> posts, boolean hasPrevious, boolean hasNext) {
+        FeedCursor prevKey = hasPrevious && !posts.isEmpty() ? FeedCursor.of(posts.get(0)) : null;
+        FeedCursor nextKey = hasNext && !posts.isEmpty() ? FeedCursor.of(posts.get(posts.size() - 1)) : null;
+        return new LoadResult.Page<>(posts, prevKey, nextKey);
+    }
+
+    @Nullable
+    @Override
+    public FeedCursor getRefreshKey(@NonNull PagingState<FeedCursor, PostCard> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        // 以锚点前半页的前一条帖子为游标，刷新后锚点仍位于首屏中间
+        int position = anchorPosition - state.getConfig().initialLoadSize / 2 - 1;
+        if (position < 0) {
+            return null;
+        }
+        PostCard card = state.closestItemToPosition(position);
+        return card != null ? FeedCursor.of(card) : null;
+    }
+}
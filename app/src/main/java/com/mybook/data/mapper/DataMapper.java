@@ -1,12 +1,30 @@
 package com.mybook.data.mapper;
 
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostImage;
+import com.mybook.data.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 数据转换类
  * 用于在不同数据源之间转换数据格式
  */
 public class DataMapper {
+    /**
+     * FNV-1a 64位哈希的初始值
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * FNV-1a 64位哈希的质数
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     /**
      * 将远程Post转换为本地Post
      * @param remotePost 远程Post
@@ -26,4 +44,158 @@ public class DataMapper {
         // 当前Post模型在本地和远程使用相同的结构，直接返回
         return localPost;
     }
-}
\ No newline at end of file
+
+    /**
+     * 将规范化响应中的作者信息填回帖子
+     * 规范化响应中每个作者只出现一次，帖子只带userId；找不到作者的帖子保持原样
+     * @param posts 帖子列表，原地修改
+     * @param users 作者列表，为null或空时表示响应未规范化
+     * @return 传入的帖子列表
+     */
+    public static List<Post> attachAuthors(List<Post> posts, List<User> users) {
+        if (posts == null || users == null || users.isEmpty()) {
+            return posts;
+        }
+        Map<String, User> usersById = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            if (user != null && user.getId() != null) {
+                usersById.put(user.getId(), user);
+            }
+        }
+        for (Post post : posts) {
+            User user = post.getUserId() != null ? usersById.get(post.getUserId()) : null;
+            if (user != null) {
+                post.setName(user.getName());
+                post.setAvatar(user.getAvatar());
+                post.setBio(user.getBio());
+                post.setFollowers(user.getFollowers());
+                post.setFollowing(user.getFollowing());
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * 整理远程返回的帖子：填回规范化响应中的作者信息并计算内容哈希
+     * 由RemoteDataSourceImpl在请求合并器分发结果前调用，分发后所有回调共享的帖子不再被修改
+     * @param posts 帖子列表，原地修改，可以为null
+     * @param users 作者列表，为null或空时表示响应未规范化
+     * @return 传入的帖子列表
+     */
+    public static List<Post> prepareRemotePosts(List<Post> posts, List<User> users) {
+        if (posts == null) {
+            return null;
+        }
+        attachAuthors(posts, users);
+        for (Post post : posts) {
+            updateContentHash(post);
+        }
+        return posts;
+    }
+
+    /**
+     * 按当前内容更新帖子记录的哈希，与已记录的值相同时不写入
+     * 远程返回的帖子已由prepareRemotePosts计算过，写库时不会再修改这些共享对象；本地修改过的帖子会重新计算
+     * @param post 帖子
+     */
+    public static void updateContentHash(Post post) {
+        long hash = contentHash(post);
+        if (post.getContentHash() != hash) {
+            post.setContentHash(hash);
+        }
+    }
+
+    /**
+     * 将帖子的图片地址列表转换为图片表的行
+     * 远程数据只包含图片地址，原始尺寸未知时记为0
+     * @param post 帖子
+     * @return 按顺序编号的图片列表
+     */
+    public static List<PostImage> toPostImages(Post post) {
+        List<PostImage> postImages = new ArrayList<>();
+        List<String> urls = post.getImages();
+        if (urls == null) {
+            return postImages;
+        }
+        for (int i = 0; i < urls.size(); i++) {
+            postImages.add(new PostImage(post.getId(), i, urls.get(i), 0, 0));
+        }
+        return postImages;
+    }
+
+    /**
+     * 将图片表的行转换为按顺序排列的图片地址列表
+     * @param postImages 图片列表，可能无序
+     * @return 图片地址列表
+     */
+    public static List<String> toImageUrls(List<PostImage> postImages) {
+        List<String> urls = new ArrayList<>();
+        if (postImages == null) {
+            return urls;
+        }
+        List<PostImage> sorted = new ArrayList<>(postImages);
+        Collections.sort(sorted, (a, b) -> Integer.compare(a.getPosition(), b.getPosition()));
+        for (PostImage postImage : sorted) {
+            urls.add(postImage.getUrl());
+        }
+        return urls;
+    }
+
+    /**
+     * 计算帖子的内容哈希，覆盖posts表及post_images表中保存的全部字段
+     * 结果不会为0，0表示本地行尚未计算过哈希
+     * @param post 帖子
+     * @return 64位内容哈希
+     */
+    public static long contentHash(Post post) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, post.getUserId());
+        hash = hash(hash, post.getName());
+        hash = hash(hash, post.getAvatar());
+        hash = hash(hash, post.getBio());
+        hash = hash(hash, post.getFollowers());
+        hash = hash(hash, post.getFollowing());
+        hash = hash(hash, post.getContent());
+        hash = hash(hash, post.getLikes());
+        hash = hash(hash, post.getComments());
+        hash = hash(hash, post.getShares());
+        hash = hash(hash, post.isLiked() ? 1 : 0);
+        hash = hash(hash, post.isFollowing() ? 1 : 0);
+        hash = hash(hash, post.isSaved() ? 1 : 0);
+        hash = hash(hash, post.getSaves());
+        hash = hash(hash, post.getCreatedAt());
+        List<String> images = post.getImages();
+        int imageCount = images != null ? images.size() : 0;
+        hash = hash(hash, imageCount);
+        for (int i = 0; i < imageCount; i++) {
+            hash = hash(hash, images.get(i));
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * 将字符串混入哈希，先混入长度以区分相邻字段的边界，null与空字符串结果不同
+     */
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return hash(hash, -1);
+        }
+        hash = hash(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 将整数按字节混入哈希
+     */
+    private static long hash(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,38 @@
+package com.mybook.data.model;
+
+/**
+ * 认证令牌
+ * accessToken随每个请求发送，过期后用refreshToken换取新的令牌
+ */
+public class AuthToken {
+    private String accessToken;
+    private String refreshToken;
+
+    public AuthToken() {
+    }
+
+    public AuthToken(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    /**
+     * 获取刷新令牌
+     * @return 刷新令牌，服务端未轮换时可能为null
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -2,13 +2,17 @@ package com.mybook.data.model;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import java.util.Objects;
+
 /**
  * 评论实体类
- * 用于Room数据库的评论表
+ * 用于Room数据库的评论表，(postId, createdAt, id)复合索引支撑按帖子的键集分页
  */
-@Entity(tableName = "comments")
+@Entity(tableName = "comments", indices = {@Index(value = {"postId", "createdAt", "id"})})
 public class Comment {
     @PrimaryKey
     @NonNull
@@ -26,6 +30,7 @@ public class Comment {
     /**
      * 完整构造函数，包含所有字段
      */
+    @Ignore
     public Comment(String id, String postId, String userId, String name, String avatar, String content, String createdAt) {
         this.id = id;
         this.postId = postId;
@@ -92,4 +97,27 @@ public class Comment {
     public void setCreatedAt(String createdAt) {
         this.createdAt = createdAt;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Comment)) {
+            return false;
+        }
+        Comment that = (Comment) o;
+        return id.equals(that.id)
+                && Objects.equals(postId, that.postId)
+                && Objects.equals(userId, that.userId)
+                && Objects.equals(name, that.name)
+                && Objects.equals(avatar, that.avatar)
+                && Objects.equals(content, that.content)
+                && Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, postId, userId, name, avatar, content, createdAt);
+    }
 }
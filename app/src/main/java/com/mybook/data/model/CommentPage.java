@@ -0,0 +1,40 @@
+package com.mybook.data.model;
+
+import java.util.List;
+
+/**
+ * 评论分页响应
+ * 服务端按游标返回一页评论以及下一页的游标
+ */
+public class CommentPage {
+    private List<Comment> comments;
+    private String nextCursor;
+
+    public CommentPage() {
+    }
+
+    public CommentPage(List<Comment> comments, String nextCursor) {
+        this.comments = comments;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+
+    /**
+     * 获取下一页游标
+     * @return 下一页游标，为null表示已无更多数据
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mybook.data.model;
+
+/**
+ * 互动操作
+ * 点赞和取消点赞带有目标状态，重复提交结果不变；收藏为切换操作，count为切换次数；分享为累加操作，count为分享次数
+ * idempotencyKey在重试时保持不变，服务端据此忽略已处理过的操作
+ */
+public class EngagementAction {
+    /**
+     * 点赞
+     */
+    public static final String TYPE_LIKE = "like";
+
+    /**
+     * 取消点赞
+     */
+    public static final String TYPE_UNLIKE = "unlike";
+
+    /**
+     * 收藏/取消收藏
+     */
+    public static final String TYPE_SAVE = "save";
+
+    /**
+     * 分享
+     */
+    public static final String TYPE_SHARE = "share";
+
+    private String idempotencyKey;
+    private String postId;
+    private String type;
+    private int count;
+
+    public EngagementAction() {
+    }
+
+    public EngagementAction(String idempotencyKey, String postId, String type, int count) {
+        this.idempotencyKey = idempotencyKey;
+        this.postId = postId;
+        this.type = type;
+        this.count = count;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * 是否为切换操作，切换偶数次等于没有操作
+     * @return 收藏返回true
+     */
+    public boolean isToggle() {
+        return TYPE_SAVE.equals(type);
+    }
+}
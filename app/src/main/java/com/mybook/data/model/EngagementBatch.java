@@ -0,0 +1,36 @@
+package com.mybook.data.model;
+
+import java.util.List;
+
+/**
+ * 批量互动请求
+ * 重试时同一批操作可能与新入队的操作组成不同的批次，服务端按每个操作的幂等键去重
+ */
+public class EngagementBatch {
+    private String batchId;
+    private List<EngagementAction> actions;
+
+    public EngagementBatch() {
+    }
+
+    public EngagementBatch(String batchId, List<EngagementAction> actions) {
+        this.batchId = batchId;
+        this.actions = actions;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public List<EngagementAction> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<EngagementAction> actions) {
+        this.actions = actions;
+    }
+}
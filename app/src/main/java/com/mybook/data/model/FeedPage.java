@@ -0,0 +1,55 @@
+package com.mybook.data.model;
+
+import java.util.List;
+
+/**
+ * 信息流分页响应
+ * 服务端按游标返回一页帖子以及下一页的游标
+ * 请求规范化格式时作者信息放在users中只出现一次，由RemoteDataSourceImpl在分发结果前填回帖子
+ */
+public class FeedPage {
+    private List<Post> posts;
+    // 规范化响应中的作者列表，帖子只带userId；非规范化响应中为null
+    private List<User> users;
+    private String nextCursor;
+
+    public FeedPage() {
+    }
+
+    public FeedPage(List<Post> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Post> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<Post> posts) {
+        this.posts = posts;
+    }
+
+    /**
+     * 获取下一页游标
+     * @return 下一页游标，为null表示已无更多数据
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * 获取规范化响应中的作者列表
+     * @return 作者列表，非规范化响应时为null
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<User> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,177 @@
+package com.mybook.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * 待发送写操作实体类
+ * 用户的发帖、评论、点赞、收藏和分享先写入outbox表再按id顺序发送，进程被杀或离线时操作不会丢失
+ * idempotencyKey随请求发送，重试时保持不变，服务端据此忽略重复提交
+ */
+@Entity(tableName = "outbox", indices = {@Index(value = {"idempotencyKey"}, unique = true)})
+public class OutboxEntry {
+    /**
+     * 发布帖子，payload为帖子JSON
+     */
+    public static final String TYPE_ADD_POST = "add_post";
+
+    /**
+     * 发表评论，payload为评论JSON
+     */
+    public static final String TYPE_ADD_COMMENT = "add_comment";
+
+    /**
+     * 互动操作，engagementType为点赞、收藏或分享
+     */
+    public static final String TYPE_ENGAGEMENT = "engagement";
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+    @NonNull
+    private String idempotencyKey;
+    @NonNull
+    private String type;
+    private String postId;
+    // 评论操作对应的评论ID，用于失败时删除本地评论
+    private String targetId;
+    // 互动类型，取值见EngagementAction
+    private String engagementType;
+    // 互动次数，切换操作恒为1，分享可合并累加
+    private int count;
+    // 点赞操作的目标状态：点赞为true，取消点赞为false；发送时据此区分两种操作，回滚时据此判断本地是否仍是该结果
+    private Boolean targetState;
+    private String payload;
+    // 已尝试发送的次数，大于0表示请求可能已到达服务端
+    private int attempts;
+    // 下次可以发送的时间（毫秒），用于退避
+    private long nextAttemptAt;
+    private long createdAt;
+
+    public OutboxEntry() {
+    }
+
+    /**
+     * 完整构造函数，不包含自增ID和发送状态
+     */
+    @Ignore
+    public OutboxEntry(@NonNull String idempotencyKey, @NonNull String type, String postId, String targetId,
+                       String engagementType, int count, String payload, long createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.type = type;
+        this.postId = postId;
+        this.targetId = targetId;
+        this.engagementType = engagementType;
+        this.count = count;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(@NonNull String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @NonNull
+    public String getType() {
+        return type;
+    }
+
+    public void setType(@NonNull String type) {
+        this.type = type;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getEngagementType() {
+        return engagementType;
+    }
+
+    public void setEngagementType(String engagementType) {
+        this.engagementType = engagementType;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Boolean getTargetState() {
+        return targetState;
+    }
+
+    public void setTargetState(Boolean targetState) {
+        this.targetState = targetState;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * 是否为互动操作
+     * @return 点赞、收藏或分享时返回true
+     */
+    public boolean isEngagement() {
+        return TYPE_ENGAGEMENT.equals(type);
+    }
+}
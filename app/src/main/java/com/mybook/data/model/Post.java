@@ -1,17 +1,19 @@
 package com.mybook.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import java.util.List;
 
 /**
  * 帖子实体类
- * 用于Room数据库的帖子表
+ * 用于Room数据库的帖子表，(createdAt, id)复合索引支撑信息流排序与键集分页
  */
-@Entity(tableName = "posts")
+@Entity(tableName = "posts", indices = {@Index(value = {"createdAt", "id"})})
 public class Post {
     @PrimaryKey
     @NonNull
@@ -24,6 +26,8 @@ public class Post {
     private int followers;
     private int following;
     private String content;
+    // 图片存储在post_images表中，通过PostWithImages加载，这里只用于网络传输和界面展示
+    @Ignore
     private List<String> images;
     private int likes;
     private int comments;
@@ -33,6 +37,9 @@ public class Post {
     private boolean isSaved;
     private int saves;
     private String createdAt;
+    // 本地内容哈希，同步时用于跳过未变化的帖子；transient使其不参与网络序列化
+    @ColumnInfo(defaultValue = "0")
+    private transient long contentHash;
 
     public Post() {
     }
@@ -224,4 +231,12 @@ public class Post {
         this.createdAt = createdAt;
     }
 
-}
\ No newline at end of file
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+}
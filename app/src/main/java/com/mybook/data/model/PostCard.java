@@ -0,0 +1,130 @@
+package com.mybook.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Relation;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 信息流卡片投影
+ * 只包含首页瀑布流卡片展示所需的列，避免读取简介、粉丝数等卡片不使用的宽字段
+ */
+public class PostCard {
+    @NonNull
+    private String id;
+    private String name;
+    private String avatar;
+    private String content;
+    @Relation(parentColumn = "id", entityColumn = "postId")
+    private List<PostImage> images;
+    private int likes;
+    private boolean isLiked;
+    // 分页游标需要的排序字段
+    private String createdAt;
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public void setId(@NonNull String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAvatar() {
+        return avatar;
+    }
+
+    public void setAvatar(String avatar) {
+        this.avatar = avatar;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public List<PostImage> getImages() {
+        return images;
+    }
+
+    public void setImages(List<PostImage> images) {
+        this.images = images;
+    }
+
+    /**
+     * 获取封面图，即顺序最靠前的图片
+     * @return 封面图，没有图片时返回null
+     */
+    public PostImage getCover() {
+        PostImage cover = null;
+        if (images != null) {
+            for (PostImage image : images) {
+                if (cover == null || image.getPosition() < cover.getPosition()) {
+                    cover = image;
+                }
+            }
+        }
+        return cover;
+    }
+
+    public int getLikes() {
+        return likes;
+    }
+
+    public void setLikes(int likes) {
+        this.likes = likes;
+    }
+
+    public boolean isLiked() {
+        return isLiked;
+    }
+
+    public void setLiked(boolean liked) {
+        isLiked = liked;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PostCard)) {
+            return false;
+        }
+        PostCard that = (PostCard) o;
+        return likes == that.likes
+                && isLiked == that.isLiked
+                && id.equals(that.id)
+                && Objects.equals(name, that.name)
+                && Objects.equals(avatar, that.avatar)
+                && Objects.equals(content, that.content)
+                && Objects.equals(images, that.images)
+                && Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, avatar, content, images, likes, isLiked, createdAt);
+    }
+}
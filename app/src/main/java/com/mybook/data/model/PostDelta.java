@@ -0,0 +1,73 @@
+package com.mybook.data.model;
+
+import java.util.List;
+
+/**
+ * 增量同步响应
+ * 服务端返回自上次同步令牌以来新增或修改的帖子、被删除的帖子ID，以及新的同步令牌
+ * 请求规范化格式时作者信息放在users中只出现一次，由RemoteDataSourceImpl在分发结果前填回帖子
+ */
+public class PostDelta {
+    private List<Post> posts;
+    // 规范化响应中的作者列表，帖子只带userId；非规范化响应中为null
+    private List<User> users;
+    private List<String> deletedIds;
+    private String syncToken;
+
+    public PostDelta() {
+    }
+
+    public PostDelta(List<Post> posts, List<String> deletedIds, String syncToken) {
+        this.posts = posts;
+        this.deletedIds = deletedIds;
+        this.syncToken = syncToken;
+    }
+
+    /**
+     * 获取新增或修改的帖子
+     * @return 帖子列表，可能为null
+     */
+    public List<Post> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<Post> posts) {
+        this.posts = posts;
+    }
+
+    /**
+     * 获取被删除的帖子ID
+     * @return 帖子ID列表，可能为null
+     */
+    public List<String> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<String> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    /**
+     * 获取新的同步令牌
+     * @return 同步令牌，下次增量同步时作为since参数
+     */
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    public void setSyncToken(String syncToken) {
+        this.syncToken = syncToken;
+    }
+
+    /**
+     * 获取规范化响应中的作者列表
+     * @return 作者列表，非规范化响应时为null
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<User> users) {
+        this.users = users;
+    }
+}
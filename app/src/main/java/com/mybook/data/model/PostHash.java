@@ -0,0 +1,30 @@
+package com.mybook.data.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 帖子内容哈希投影
+ * 只读取主键和内容哈希，用于同步时判断帖子是否有变化
+ */
+public class PostHash {
+    @NonNull
+    private String id;
+    private long contentHash;
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public void setId(@NonNull String id) {
+        this.id = id;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+}
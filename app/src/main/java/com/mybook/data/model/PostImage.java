@@ -0,0 +1,113 @@
+package com.mybook.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+
+import java.util.Objects;
+
+/**
+ * 帖子图片实体类
+ * 用于Room数据库的帖子图片表，每张图片一行，按position保持顺序
+ * width/height为图片原始尺寸，大于0时瀑布流可在图片解码前确定卡片高度
+ */
+@Entity(tableName = "post_images",
+        primaryKeys = {"postId", "position"},
+        foreignKeys = @ForeignKey(entity = Post.class,
+                parentColumns = "id",
+                childColumns = "postId",
+                onDelete = ForeignKey.CASCADE))
+public class PostImage {
+    @NonNull
+    private String postId;
+    private int position;
+    private String url;
+    private int width;
+    private int height;
+
+    public PostImage() {
+    }
+
+    /**
+     * 完整构造函数，包含所有字段
+     */
+    @Ignore
+    public PostImage(@NonNull String postId, int position, String url, int width, int height) {
+        this.postId = postId;
+        this.position = position;
+        this.url = url;
+        this.width = width;
+        this.height = height;
+    }
+
+    @NonNull
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(@NonNull String postId) {
+        this.postId = postId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    /**
+     * 是否已知图片原始尺寸
+     * @return 宽高均大于0时返回true
+     */
+    public boolean hasSize() {
+        return width > 0 && height > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PostImage)) {
+            return false;
+        }
+        PostImage that = (PostImage) o;
+        return position == that.position
+                && width == that.width
+                && height == that.height
+                && postId.equals(that.postId)
+                && Objects.equals(url, that.url);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(postId, position, url, width, height);
+    }
+}
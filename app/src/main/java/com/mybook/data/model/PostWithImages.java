@@ -0,0 +1,47 @@
+package com.mybook.data.model;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+
+import com.mybook.data.mapper.DataMapper;
+
+import java.util.List;
+
+/**
+ * 帖子及其图片
+ * 通过@Relation从post_images表批量加载图片，替代在posts表中按行解析JSON
+ */
+public class PostWithImages {
+    @Embedded
+    private Post post;
+
+    @Relation(parentColumn = "id", entityColumn = "postId")
+    private List<PostImage> images;
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public List<PostImage> getImages() {
+        return images;
+    }
+
+    public void setImages(List<PostImage> images) {
+        this.images = images;
+    }
+
+    /**
+     * 转换为带图片地址列表的帖子
+     * @return 帖子对象
+     */
+    public Post toPost() {
+        if (post != null) {
+            post.setImages(DataMapper.toImageUrls(images));
+        }
+        return post;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mybook.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * 远程分页游标实体类
+ * 记录每个远程列表最近一次请求返回的下一页游标，用于RemoteMediator续页
+ */
+@Entity(tableName = "remote_keys")
+public class RemoteKey {
+    @PrimaryKey
+    @NonNull
+    private String label;
+    private String nextCursor;
+
+    public RemoteKey() {
+    }
+
+    /**
+     * 完整构造函数
+     * @param label 列表标识
+     * @param nextCursor 下一页游标，为null表示已无更多数据
+     */
+    @Ignore
+    public RemoteKey(@NonNull String label, String nextCursor) {
+        this.label = label;
+        this.nextCursor = nextCursor;
+    }
+
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(@NonNull String label) {
+        this.label = label;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
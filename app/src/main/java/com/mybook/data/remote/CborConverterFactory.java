@@ -0,0 +1,93 @@
+package com.mybook.data.remote;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.mybook.data.json.CborReader;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * 按响应的Content-Type选择解析方式的转换器工厂
+ * 服务端返回application/cbor时用CborReader流式解析，否则交给Gson按JSON解析；两种格式共用同一套TypeAdapter
+ * 请求体仍以JSON发送
+ */
+public final class CborConverterFactory extends Converter.Factory {
+    /**
+     * 请求时声明的可接受格式，CBOR优先，服务端不支持时返回JSON
+     */
+    public static final String ACCEPT = "application/cbor, application/json;q=0.9";
+
+    private static final String CBOR_SUBTYPE = "cbor";
+
+    private final Gson gson;
+    private final GsonConverterFactory jsonFactory;
+
+    private CborConverterFactory(Gson gson) {
+        this.gson = gson;
+        this.jsonFactory = GsonConverterFactory.create(gson);
+    }
+
+    /**
+     * 创建转换器工厂
+     * @param gson 注册了模型TypeAdapter的Gson实例
+     * @return 转换器工厂
+     */
+    public static CborConverterFactory create(Gson gson) {
+        return new CborConverterFactory(gson);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        Converter<ResponseBody, ?> jsonConverter = jsonFactory.responseBodyConverter(type, annotations, retrofit);
+        TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
+        return new NegotiatedResponseConverter(adapter, jsonConverter);
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations, Retrofit retrofit) {
+        return jsonFactory.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+
+    /**
+     * 判断响应体是否为CBOR格式
+     * @param body 响应体
+     * @return Content-Type为application/cbor时返回true
+     */
+    private static boolean isCbor(ResponseBody body) {
+        MediaType contentType = body.contentType();
+        return contentType != null && CBOR_SUBTYPE.equalsIgnoreCase(contentType.subtype());
+    }
+
+    private static final class NegotiatedResponseConverter implements Converter<ResponseBody, Object> {
+        private final TypeAdapter<?> adapter;
+        private final Converter<ResponseBody, ?> jsonConverter;
+
+        NegotiatedResponseConverter(TypeAdapter<?> adapter, Converter<ResponseBody, ?> jsonConverter) {
+            this.adapter = adapter;
+            this.jsonConverter = jsonConverter;
+        }
+
+        @Override
+        public Object convert(ResponseBody body) throws IOException {
+            if (!isCbor(body)) {
+                return jsonConverter.convert(body);
+            }
+            try (CborReader reader = new CborReader(body.byteStream())) {
+                return adapter.read(reader);
+            } finally {
+                body.close();
+            }
+        }
+    }
+}
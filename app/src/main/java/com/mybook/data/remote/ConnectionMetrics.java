@@ -0,0 +1,126 @@
+package com.mybook.data.remote;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+/**
+ * 连接复用指标
+ * 作为OkHttp的事件监听器，统计每次调用拿到的连接是新建的还是从连接池复用的，以及HTTP/2连接的占比
+ * 所有调用共享同一个实例，只累加计数
+ */
+public class ConnectionMetrics extends EventListener {
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong connectCount = new AtomicLong();
+    private final AtomicLong connectFailedCount = new AtomicLong();
+    private final AtomicLong http2AcquiredCount = new AtomicLong();
+
+    @Override
+    public void callStart(Call call) {
+        callCount.incrementAndGet();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectCount.incrementAndGet();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        connectFailedCount.incrementAndGet();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        acquiredCount.incrementAndGet();
+        if (connection.protocol() == Protocol.HTTP_2) {
+            http2AcquiredCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 获取调用总数，包括命中缓存未使用连接的调用
+     * @return 调用数
+     */
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    /**
+     * 获取拿到连接的次数，重定向和重试会再次获取
+     * @return 获取次数
+     */
+    public long getAcquiredCount() {
+        return acquiredCount.get();
+    }
+
+    /**
+     * 获取新建连接数
+     * @return 新建连接数
+     */
+    public long getConnectCount() {
+        return connectCount.get();
+    }
+
+    /**
+     * 获取建立连接失败的次数
+     * @return 失败次数
+     */
+    public long getConnectFailedCount() {
+        return connectFailedCount.get();
+    }
+
+    /**
+     * 获取复用已有连接的次数
+     * @return 复用次数
+     */
+    public long getReusedCount() {
+        return Math.max(0, acquiredCount.get() - connectCount.get());
+    }
+
+    /**
+     * 获取连接复用率
+     * @return 复用次数占获取次数的比例，没有获取过连接时为0
+     */
+    public double getReuseRate() {
+        long acquired = acquiredCount.get();
+        return acquired > 0 ? (double) getReusedCount() / acquired : 0;
+    }
+
+    /**
+     * 获取HTTP/2连接占比
+     * @return 通过HTTP/2连接发出的次数占获取次数的比例
+     */
+    public double getHttp2Rate() {
+        long acquired = acquiredCount.get();
+        return acquired > 0 ? (double) http2AcquiredCount.get() / acquired : 0;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        callCount.set(0);
+        acquiredCount.set(0);
+        connectCount.set(0);
+        connectFailedCount.set(0);
+        http2AcquiredCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "connections calls=%d acquired=%d connected=%d reused=%d (%.1f%%) h2=%d (%.1f%%) connectFailed=%d",
+                callCount.get(), acquiredCount.get(), connectCount.get(), getReusedCount(), getReuseRate() * 100,
+                http2AcquiredCount.get(), getHttp2Rate() * 100, connectFailedCount.get());
+    }
+}
@@ -0,0 +1,89 @@
+package com.mybook.data.remote;
+
+import com.mybook.data.model.EngagementAction;
+import com.mybook.data.model.EngagementBatch;
+import com.mybook.data.model.OutboxEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 互动操作合并器
+ * 点赞、收藏和分享先持久化到outbox表，合并窗口结束后由OutboxProcessor取出，经本类合并为一次批量请求
+ * 窗口内同一帖子的点赞或收藏切换偶数次时在入队时相互抵消（见OutboxDao.enqueueEngagement），这里只负责分组和转换；
+ * 发送失败的重试和回滚由OutboxProcessor负责，本类不重试
+ */
+public final class EngagementBatcher {
+    /**
+     * 合并窗口（毫秒），操作入队后最多等待该时间发送，窗口内反复切换的点赞、收藏可以相互抵消
+     */
+    public static final long WINDOW_MILLIS = 1000;
+
+    /**
+     * 一次批量请求最多包含的互动操作数
+     */
+    public static final int MAX_BATCH_SIZE = 50;
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private EngagementBatcher() {
+    }
+
+    /**
+     * 从待发送队列的队首取出可以一起发送的互动操作
+     * 队首之后连续的互动操作中，已到发送时间的，以及在队首的合并窗口结束前入队、从未发送过的操作归为同一批，
+     * 相隔几毫秒的连续点击不会因为各自的窗口先后到期而拆成多次请求
+     * @param head 按入队顺序排列的队首操作，第一条需是已到发送时间的互动操作
+     * @param now 当前时间（毫秒）
+     * @return 同一批发送的操作，至少包含队首操作
+     */
+    public static List<OutboxEntry> collect(List<OutboxEntry> head, long now) {
+        List<OutboxEntry> batch = new ArrayList<>();
+        OutboxEntry first = head.get(0);
+        batch.add(first);
+        long windowEnd = first.getNextAttemptAt();
+        for (int i = 1, size = head.size(); i < size && batch.size() < MAX_BATCH_SIZE; i++) {
+            OutboxEntry entry = head.get(i);
+            if (!entry.isEngagement()) {
+                break;
+            }
+            boolean due = entry.getNextAttemptAt() <= now;
+            boolean inWindow = entry.getAttempts() == 0 && entry.getCreatedAt() < windowEnd;
+            if (!due && !inWindow) {
+                // 在退避中的操作不越过，按顺序等待
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * 将一组互动操作转换为批量请求，每个操作的幂等键原样发送，重试时服务端可以去重
+     * @param entries 互动操作
+     * @return 批量互动请求
+     */
+    public static EngagementBatch toBatch(List<OutboxEntry> entries) {
+        List<EngagementAction> actions = new ArrayList<>(entries.size());
+        for (OutboxEntry entry : entries) {
+            actions.add(new EngagementAction(entry.getIdempotencyKey(), entry.getPostId(),
+                    wireType(entry), entry.getCount()));
+        }
+        return new EngagementBatch(UUID.randomUUID().toString(), actions);
+    }
+
+    /**
+     * 获取互动操作发送时的类型，点赞按目标状态区分点赞和取消点赞
+     * @param entry 互动操作
+     * @return 操作类型
+     */
+    static String wireType(OutboxEntry entry) {
+        if (EngagementAction.TYPE_LIKE.equals(entry.getEngagementType())
+                && Boolean.FALSE.equals(entry.getTargetState())) {
+            return EngagementAction.TYPE_UNLIKE;
+        }
+        return entry.getEngagementType();
+    }
+}
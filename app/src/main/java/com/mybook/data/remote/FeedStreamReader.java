@@ -0,0 +1,69 @@
+package com.mybook.data.remote;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.mybook.data.json.GsonProvider;
+import com.mybook.data.model.Post;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 信息流流式解析器
+ * 使用JsonReader逐条读取帖子数组，每满一批交给回调，内存中最多只保留一批帖子
+ */
+public final class FeedStreamReader {
+    private FeedStreamReader() {
+    }
+
+    /**
+     * 逐条解析帖子数组
+     * @param reader 响应体字符流，由调用方负责关闭
+     * @param batchSize 每批帖子数量
+     * @param batchCallback 批次回调，在当前线程同步调用
+     * @return 解析出的帖子总数
+     * @throws IOException 读取或解析失败
+     */
+    public static int readPosts(Reader reader, int batchSize,
+                                RemoteDataSource.BatchCallback<Post> batchCallback) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        TypeAdapter<Post> adapter = GsonProvider.get().getAdapter(Post.class);
+        JsonReader jsonReader = new JsonReader(reader);
+        int total = 0;
+        List<Post> batch = new ArrayList<>(batchSize);
+        try {
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                if (jsonReader.peek() == JsonToken.NULL) {
+                    jsonReader.skipValue();
+                    continue;
+                }
+                Post post = adapter.read(jsonReader);
+                if (post == null || post.getId() == null) {
+                    // 缺少主键的帖子无法入库，跳过
+                    continue;
+                }
+                batch.add(post);
+                total++;
+                if (batch.size() >= batchSize) {
+                    batchCallback.onBatch(batch);
+                    // 交出的批次不再修改，下一批使用新列表
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            jsonReader.endArray();
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException("Malformed feed at " + jsonReader.getPath(), e);
+        }
+        if (!batch.isEmpty()) {
+            batchCallback.onBatch(batch);
+        }
+        return total;
+    }
+}
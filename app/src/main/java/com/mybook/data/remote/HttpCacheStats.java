@@ -0,0 +1,92 @@
+package com.mybook.data.remote;
+
+import java.util.Locale;
+
+/**
+ * HTTP缓存统计快照
+ * 命中数包含直接使用缓存和协商后返回304两种情况，协商数为带条件发出的网络请求
+ */
+public class HttpCacheStats {
+    private final long requestCount;
+    private final long networkCount;
+    private final long hitCount;
+    private final long conditionalCount;
+    private final long notModifiedCount;
+    private final long sizeBytes;
+    private final long maxSizeBytes;
+
+    /**
+     * 构造函数
+     * @param requestCount 经过缓存的请求总数
+     * @param networkCount 发往网络的请求数
+     * @param hitCount 使用缓存响应的请求数
+     * @param conditionalCount 发出的条件请求数
+     * @param notModifiedCount 服务端返回304的次数
+     * @param sizeBytes 缓存当前占用字节数
+     * @param maxSizeBytes 缓存容量上限
+     */
+    public HttpCacheStats(long requestCount, long networkCount, long hitCount,
+                          long conditionalCount, long notModifiedCount,
+                          long sizeBytes, long maxSizeBytes) {
+        this.requestCount = requestCount;
+        this.networkCount = networkCount;
+        this.hitCount = hitCount;
+        this.conditionalCount = conditionalCount;
+        this.notModifiedCount = notModifiedCount;
+        this.sizeBytes = sizeBytes;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getNetworkCount() {
+        return networkCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getConditionalCount() {
+        return conditionalCount;
+    }
+
+    public long getNotModifiedCount() {
+        return notModifiedCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    /**
+     * 缓存命中率
+     * @return 使用缓存响应的请求占比，没有请求时返回0
+     */
+    public double getHitRatio() {
+        return requestCount > 0 ? (double) hitCount / requestCount : 0;
+    }
+
+    /**
+     * 协商成功率
+     * @return 条件请求中返回304的占比，没有条件请求时返回0
+     */
+    public double getRevalidationRatio() {
+        return conditionalCount > 0 ? (double) notModifiedCount / conditionalCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "http-cache requests=%d network=%d hits=%d (%.1f%%) conditional=%d notModified=%d (%.1f%%) size=%d/%d",
+                requestCount, networkCount, hitCount, getHitRatio() * 100,
+                conditionalCount, notModifiedCount, getRevalidationRatio() * 100,
+                sizeBytes, maxSizeBytes);
+    }
+}
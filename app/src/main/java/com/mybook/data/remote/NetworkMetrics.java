@@ -0,0 +1,120 @@
+package com.mybook.data.remote;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网络请求指标
+ * 按接口统计请求数、耗时、响应字节数和状态码分布，只累加计数，不复制请求或响应体
+ */
+public class NetworkMetrics {
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * 记录收到响应头
+     * @param endpoint 接口名
+     * @param code HTTP状态码
+     * @param latencyMillis 从发出请求到收到响应头的耗时（毫秒）
+     */
+    public void recordResponse(String endpoint, int code, long latencyMillis) {
+        Endpoint stats = get(endpoint);
+        stats.requests.incrementAndGet();
+        stats.totalLatencyMillis.addAndGet(latencyMillis);
+        updateMax(stats.maxLatencyMillis, latencyMillis);
+        int statusClass = code / 100;
+        if (statusClass >= 2 && statusClass <= 5) {
+            stats.statusCounts[statusClass - 2].incrementAndGet();
+        }
+    }
+
+    /**
+     * 记录响应体读取完毕
+     * @param endpoint 接口名
+     * @param bytes 实际读取的字节数
+     */
+    public void recordBody(String endpoint, long bytes) {
+        get(endpoint).bytes.addAndGet(bytes);
+    }
+
+    /**
+     * 记录请求失败（未收到响应）
+     * @param endpoint 接口名
+     * @param latencyMillis 从发出请求到失败的耗时（毫秒）
+     */
+    public void recordFailure(String endpoint, long latencyMillis) {
+        Endpoint stats = get(endpoint);
+        stats.requests.incrementAndGet();
+        stats.failures.incrementAndGet();
+        stats.totalLatencyMillis.addAndGet(latencyMillis);
+        updateMax(stats.maxLatencyMillis, latencyMillis);
+    }
+
+    /**
+     * 获取各接口的统计描述
+     * @return 每个接口一行描述
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            lines.add(entry.getValue().describe(entry.getKey()));
+        }
+        return lines;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private Endpoint get(String endpoint) {
+        Endpoint stats = endpoints.get(endpoint);
+        if (stats == null) {
+            Endpoint created = new Endpoint();
+            stats = endpoints.putIfAbsent(endpoint, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 单个接口的累计指标
+     */
+    private static class Endpoint {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong totalLatencyMillis = new AtomicLong();
+        final AtomicLong maxLatencyMillis = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+        // 依次为2xx、3xx、4xx、5xx
+        final AtomicLong[] statusCounts = {
+                new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()
+        };
+
+        String describe(String name) {
+            long count = requests.get();
+            long average = count > 0 ? totalLatencyMillis.get() / count : 0;
+            return String.format(Locale.US,
+                    "%s requests=%d avg=%dms max=%dms bytes=%d 2xx=%d 3xx=%d 4xx=%d 5xx=%d failures=%d",
+                    name, count, average, maxLatencyMillis.get(), bytes.get(),
+                    statusCounts[0].get(), statusCounts[1].get(), statusCounts[2].get(),
+                    statusCounts[3].get(), failures.get());
+        }
+    }
+}
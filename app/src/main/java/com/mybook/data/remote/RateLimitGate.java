@@ -0,0 +1,81 @@
+package com.mybook.data.remote;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+
+/**
+ * 限流闸门
+ * 服务端返回429或503并带有Retry-After时关闭闸门，到期前所有请求在本地直接失败，不再发往服务端
+ * 所有请求共享同一个闸门，避免限流期间其他接口继续请求延长限流
+ */
+public class RateLimitGate {
+    /**
+     * Retry-After响应头
+     */
+    public static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    /**
+     * 单次关闭闸门的时间上限（毫秒），防止异常的响应头让请求长时间无法发出
+     */
+    private static final long MAX_BLOCK_MILLIS = 10 * 60 * 1000;
+
+    private final AtomicLong blockedUntil = new AtomicLong();
+    private final AtomicLong blockedCount = new AtomicLong();
+
+    /**
+     * 关闭闸门，已有更晚的到期时间时保持不变
+     * @param delayMillis 从现在起需要等待的时间（毫秒）
+     */
+    public void block(long delayMillis) {
+        long until = System.currentTimeMillis() + Math.min(delayMillis, MAX_BLOCK_MILLIS);
+        long current;
+        while (until > (current = blockedUntil.get())) {
+            if (blockedUntil.compareAndSet(current, until)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取闸门剩余的关闭时间
+     * @return 剩余时间（毫秒），闸门打开时返回0
+     */
+    public long remainingMillis() {
+        return Math.max(0, blockedUntil.get() - System.currentTimeMillis());
+    }
+
+    /**
+     * 记录一次被闸门拦下的请求
+     */
+    public void recordBlocked() {
+        blockedCount.incrementAndGet();
+    }
+
+    /**
+     * 获取被闸门拦下的请求数
+     * @return 请求数
+     */
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /**
+     * 解析Retry-After响应头，支持秒数和HTTP日期两种格式
+     * @param headers 响应头
+     * @return 需要等待的时间（毫秒），没有该响应头或无法解析时返回-1
+     */
+    public static long parseRetryAfter(Headers headers) {
+        String value = headers.get(HEADER_RETRY_AFTER);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = headers.getDate(HEADER_RETRY_AFTER);
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+}
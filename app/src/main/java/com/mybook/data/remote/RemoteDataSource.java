@@ -1,6 +1,11 @@
 package com.mybook.data.remote;
 
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.CommentPage;
+import com.mybook.data.model.EngagementBatch;
+import com.mybook.data.model.FeedPage;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostDelta;
 
 import java.util.List;
 
@@ -10,46 +15,71 @@ import java.util.List;
  */
 public interface RemoteDataSource {
     /**
-     * 获取所有帖子
+     * 以流的形式获取所有帖子，边下载边解析，每解析满一批交给batchCallback
+     * batchCallback在网络线程中同步调用，返回前不会继续解析，可借此限制内存中的帖子数量
+     * @param batchSize 每批帖子数量
+     * @param batchCallback 批次回调
+     * @param callback 回调接口，成功时返回响应头中的同步令牌，服务端未提供时为null
+     */
+    void streamAllPosts(int batchSize, BatchCallback<Post> batchCallback, RemoteCallback<String> callback);
+
+    /**
+     * 增量获取自同步令牌以来的帖子变化
+     * 令牌过期时以错误代码410的NetworkException失败
+     * @param since 上次同步返回的令牌
      * @param callback 回调接口，用于处理请求结果
      */
-    void getAllPosts(RemoteCallback<List<Post>> callback);
+    void getPostChanges(String since, RemoteCallback<PostDelta> callback);
 
     /**
-     * 根据ID获取帖子
-     * @param postId 帖子ID
+     * 按游标分页获取帖子信息流
+     * @param cursor 上一页返回的游标，获取第一页时传null
+     * @param limit 每页数量
      * @param callback 回调接口，用于处理请求结果
      */
-    void getPostById(String postId, RemoteCallback<Post> callback);
+    void getFeedPage(String cursor, int limit, RemoteCallback<FeedPage> callback);
 
     /**
-     * 点赞帖子
+     * 按游标分页获取帖子评论
      * @param postId 帖子ID
+     * @param cursor 上一页返回的游标，获取第一页时传null
+     * @param limit 每页数量
      * @param callback 回调接口，用于处理请求结果
      */
-    void likePost(String postId, RemoteCallback<Boolean> callback);
+    void getCommentPage(String postId, String cursor, int limit, RemoteCallback<CommentPage> callback);
 
     /**
-     * 评论帖子
+     * 根据ID获取帖子
      * @param postId 帖子ID
-     * @param comment 评论内容
      * @param callback 回调接口，用于处理请求结果
      */
-    void commentPost(String postId, String comment, RemoteCallback<Boolean> callback);
+    void getPostById(String postId, RemoteCallback<Post> callback);
 
     /**
-     * 分享帖子
-     * @param postId 帖子ID
+     * 批量提交互动操作
+     * 失败时回调NetworkException，调用方按错误类型判断是否重试
+     * @param batch 批量互动请求
      * @param callback 回调接口，用于处理请求结果
      */
-    void sharePost(String postId, RemoteCallback<Boolean> callback);
+    void sendEngagements(EngagementBatch batch, RemoteCallback<Boolean> callback);
     
     /**
-     * 添加新帖子
+     * 添加新帖子，携带幂等键
+     * 失败时回调NetworkException
      * @param post 新帖子对象
+     * @param idempotencyKey 幂等键，重试时保持不变
      * @param callback 回调接口，用于处理请求结果
      */
-    void addPost(Post post, RemoteCallback<Boolean> callback);
+    void addPost(Post post, String idempotencyKey, RemoteCallback<Boolean> callback);
+
+    /**
+     * 发表评论，携带幂等键
+     * 失败时回调NetworkException
+     * @param comment 评论对象
+     * @param idempotencyKey 幂等键，重试时保持不变
+     * @param callback 回调接口，用于处理请求结果
+     */
+    void addComment(Comment comment, String idempotencyKey, RemoteCallback<Boolean> callback);
 
     /**
      * 远程回调接口
@@ -68,4 +98,16 @@ public interface RemoteDataSource {
          */
         void onFailure(Throwable throwable);
     }
-}
\ No newline at end of file
+
+    /**
+     * 批次回调接口
+     * @param <T> 批次数据类型
+     */
+    interface BatchCallback<T> {
+        /**
+         * 解析出一批数据时调用，抛出异常会中止解析
+         * @param batch 本批数据，回调返回后不再被修改
+         */
+        void onBatch(List<T> batch);
+    }
+}
@@ -1,10 +1,20 @@
 package com.mybook.data.remote;
 
+import com.mybook.data.mapper.DataMapper;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.CommentPage;
+import com.mybook.data.model.EngagementBatch;
+import com.mybook.data.model.FeedPage;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostDelta;
 import com.mybook.data.remote.api.ApiService;
+import com.mybook.data.remote.error.ErrorHandler;
+import com.mybook.data.remote.error.ErrorType;
+import com.mybook.data.remote.error.NetworkException;
 
-import java.util.List;
+import java.io.Reader;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -12,16 +22,45 @@ import retrofit2.Response;
 /**
  * 远程数据源实现
  * 使用Retrofit+OkHttp进行网络请求
+ * 请求经ResilientCaller发出，失败统一以NetworkException回调，错误类型见ErrorType
  */
 public class RemoteDataSourceImpl implements RemoteDataSource {
+    /**
+     * 全量同步响应中携带同步令牌的响应头
+     */
+    private static final String HEADER_SYNC_TOKEN = "X-Sync-Token";
+
     private final ApiService apiService;
 
+    /**
+     * 合并并发的相同GET请求
+     */
+    private final SingleFlight singleFlight;
+
+    /**
+     * 按错误类型重试并在连续网络错误后熔断
+     */
+    private final ResilientCaller caller;
+
     /**
      * 构造函数，用于依赖注入和测试
      * @param apiService ApiService实例
      */
     public RemoteDataSourceImpl(ApiService apiService) {
         this.apiService = apiService;
+        this.singleFlight = new SingleFlight();
+        this.caller = new ResilientCaller();
+    }
+
+    /**
+     * 构造函数，用于测试时替换重试策略和熔断器
+     * @param apiService ApiService实例
+     * @param caller 请求发送器
+     */
+    public RemoteDataSourceImpl(ApiService apiService, ResilientCaller caller) {
+        this.apiService = apiService;
+        this.singleFlight = new SingleFlight();
+        this.caller = caller;
     }
 
     /**
@@ -37,155 +76,288 @@ public class RemoteDataSourceImpl implements RemoteDataSource {
             // RetrofitClient初始化失败，apiService为null，但应用不会崩溃
         }
         this.apiService = tempApiService;
+        this.singleFlight = Shared.SINGLE_FLIGHT;
+        this.caller = Shared.CALLER;
+    }
+
+    @Override
+    public void streamAllPosts(int batchSize, BatchCallback<Post> batchCallback, RemoteCallback<String> callback) {
+        // 检查apiService是否为null
+        if (apiService == null) {
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
+            return;
+        }
+        // 发起网络请求，回调在网络线程池执行，直接在回调中读取响应流
+        caller.enqueue(apiService.streamPosts(), new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    if (body != null) {
+                        body.close();
+                    }
+                    callback.onFailure(ErrorHandler.handleError(response));
+                    return;
+                }
+                try (Reader reader = body.charStream()) {
+                    FeedStreamReader.readPosts(reader, batchSize, batchCallback);
+                } catch (Exception e) {
+                    callback.onFailure(ErrorHandler.handleError(e));
+                    return;
+                }
+                callback.onSuccess(response.headers().get(HEADER_SYNC_TOKEN));
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                callback.onFailure(ErrorHandler.handleError(t));
+            }
+        });
     }
 
     @Override
-    public void getAllPosts(RemoteCallback<List<Post>> callback) {
+    public void getPostChanges(String since, RemoteCallback<PostDelta> callback) {
         // 检查apiService是否为null
         if (apiService == null) {
-            callback.onFailure(new RuntimeException("ApiService not initialized"));
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
+            return;
+        }
+        // 相同请求正在进行时直接等待其结果，不再重复发起
+        RemoteCallback<PostDelta> flight = singleFlight.join("posts?since=" + since, callback);
+        if (flight == null) {
             return;
         }
         // 发起网络请求
-        apiService.getPosts().enqueue(new Callback<List<Post>>() {
+        caller.enqueue(apiService.getPostChanges(since), new Callback<PostDelta>() {
             @Override
-            public void onResponse(Call<List<Post>> call, Response<List<Post>> response) {
+            public void onResponse(Call<PostDelta> call, Response<PostDelta> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    callback.onSuccess(response.body());
+                    PostDelta delta = response.body();
+                    // 分发前填回作者信息并计算内容哈希，之后共享的结果不再被修改
+                    DataMapper.prepareRemotePosts(delta.getPosts(), delta.getUsers());
+                    flight.onSuccess(delta);
                 } else {
-                    callback.onFailure(new RuntimeException("Failed to get posts: " + response.message()));
+                    // 保留状态码，调用方据此判断令牌是否过期
+                    flight.onFailure(ErrorHandler.handleError(response));
                 }
             }
 
             @Override
-            public void onFailure(Call<List<Post>> call, Throwable t) {
-                callback.onFailure(t);
+            public void onFailure(Call<PostDelta> call, Throwable t) {
+                flight.onFailure(ErrorHandler.handleError(t));
             }
         });
     }
 
     @Override
-    public void getPostById(String postId, RemoteCallback<Post> callback) {
+    public void getFeedPage(String cursor, int limit, RemoteCallback<FeedPage> callback) {
         // 检查apiService是否为null
         if (apiService == null) {
-            callback.onFailure(new RuntimeException("ApiService not initialized"));
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
+            return;
+        }
+        // 相同请求正在进行时直接等待其结果，不再重复发起
+        RemoteCallback<FeedPage> flight = singleFlight.join("feed?cursor=" + cursor + "&limit=" + limit, callback);
+        if (flight == null) {
             return;
         }
         // 发起网络请求
-        apiService.getPostById(postId).enqueue(new Callback<Post>() {
+        caller.enqueue(apiService.getFeed(cursor, limit), new Callback<FeedPage>() {
             @Override
-            public void onResponse(Call<Post> call, Response<Post> response) {
+            public void onResponse(Call<FeedPage> call, Response<FeedPage> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    callback.onSuccess(response.body());
+                    FeedPage page = response.body();
+                    // 分发前填回作者信息并计算内容哈希，之后共享的结果不再被修改
+                    DataMapper.prepareRemotePosts(page.getPosts(), page.getUsers());
+                    flight.onSuccess(page);
                 } else {
-                    callback.onFailure(new RuntimeException("Failed to get post: " + response.message()));
+                    flight.onFailure(ErrorHandler.handleError(response));
                 }
             }
 
             @Override
-            public void onFailure(Call<Post> call, Throwable t) {
-                callback.onFailure(t);
+            public void onFailure(Call<FeedPage> call, Throwable t) {
+                flight.onFailure(ErrorHandler.handleError(t));
             }
         });
     }
 
     @Override
-    public void likePost(String postId, RemoteCallback<Boolean> callback) {
+    public void getCommentPage(String postId, String cursor, int limit, RemoteCallback<CommentPage> callback) {
         // 检查apiService是否为null
         if (apiService == null) {
-            callback.onFailure(new RuntimeException("ApiService not initialized"));
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
+            return;
+        }
+        // 相同请求正在进行时直接等待其结果，不再重复发起
+        RemoteCallback<CommentPage> flight = singleFlight.join("comments/" + postId + "?cursor=" + cursor + "&limit=" + limit, callback);
+        if (flight == null) {
             return;
         }
         // 发起网络请求
-        apiService.likePost(postId).enqueue(new Callback<Void>() {
+        caller.enqueue(apiService.getComments(postId, cursor, limit), new Callback<CommentPage>() {
             @Override
-            public void onResponse(Call<Void> call, Response<Void> response) {
-                if (response.isSuccessful()) {
-                    callback.onSuccess(true);
+            public void onResponse(Call<CommentPage> call, Response<CommentPage> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    flight.onSuccess(response.body());
                 } else {
-                    callback.onFailure(new RuntimeException("Failed to like post: " + response.message()));
+                    flight.onFailure(ErrorHandler.handleError(response));
                 }
             }
 
             @Override
-            public void onFailure(Call<Void> call, Throwable t) {
-                callback.onFailure(t);
+            public void onFailure(Call<CommentPage> call, Throwable t) {
+                flight.onFailure(ErrorHandler.handleError(t));
+            }
+        });
+    }
+
+    @Override
+    public void getPostById(String postId, RemoteCallback<Post> callback) {
+        // 检查apiService是否为null
+        if (apiService == null) {
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
+            return;
+        }
+        // 相同请求正在进行时直接等待其结果，不再重复发起
+        RemoteCallback<Post> flight = singleFlight.join("post/" + postId, callback);
+        if (flight == null) {
+            return;
+        }
+        // 发起网络请求
+        caller.enqueue(apiService.getPostById(postId), new Callback<Post>() {
+            @Override
+            public void onResponse(Call<Post> call, Response<Post> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    Post post = response.body();
+                    // 分发前计算内容哈希，之后共享的结果不再被修改
+                    DataMapper.updateContentHash(post);
+                    flight.onSuccess(post);
+                } else {
+                    flight.onFailure(ErrorHandler.handleError(response));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<Post> call, Throwable t) {
+                flight.onFailure(ErrorHandler.handleError(t));
             }
         });
     }
 
     @Override
-    public void commentPost(String postId, String comment, RemoteCallback<Boolean> callback) {
+    public void sendEngagements(EngagementBatch batch, RemoteCallback<Boolean> callback) {
         // 检查apiService是否为null
         if (apiService == null) {
-            callback.onFailure(new RuntimeException("ApiService not initialized"));
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
             return;
         }
         // 发起网络请求
-        apiService.commentPost(postId).enqueue(new Callback<Void>() {
+        caller.enqueue(apiService.sendEngagements(batch), new Callback<Void>() {
             @Override
             public void onResponse(Call<Void> call, Response<Void> response) {
                 if (response.isSuccessful()) {
                     callback.onSuccess(true);
                 } else {
-                    callback.onFailure(new RuntimeException("Failed to comment post: " + response.message()));
+                    // 保留状态码，调用方据此判断是否重试
+                    callback.onFailure(ErrorHandler.handleError(response));
                 }
             }
 
             @Override
             public void onFailure(Call<Void> call, Throwable t) {
-                callback.onFailure(t);
+                callback.onFailure(ErrorHandler.handleError(t));
             }
         });
     }
 
     @Override
-    public void sharePost(String postId, RemoteCallback<Boolean> callback) {
+    public void addPost(Post post, String idempotencyKey, RemoteCallback<Boolean> callback) {
         // 检查apiService是否为null
         if (apiService == null) {
-            callback.onFailure(new RuntimeException("ApiService not initialized"));
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
             return;
         }
         // 发起网络请求
-        apiService.sharePost(postId).enqueue(new Callback<Void>() {
+        caller.enqueue(apiService.addPost(post, idempotencyKey), new Callback<Void>() {
             @Override
             public void onResponse(Call<Void> call, Response<Void> response) {
                 if (response.isSuccessful()) {
                     callback.onSuccess(true);
                 } else {
-                    callback.onFailure(new RuntimeException("Failed to share post: " + response.message()));
+                    // 保留状态码，调用方据此判断是否重试
+                    callback.onFailure(ErrorHandler.handleError(response));
                 }
             }
 
             @Override
             public void onFailure(Call<Void> call, Throwable t) {
-                callback.onFailure(t);
+                callback.onFailure(ErrorHandler.handleError(t));
             }
         });
     }
-    
+
     @Override
-    public void addPost(Post post, RemoteCallback<Boolean> callback) {
+    public void addComment(Comment comment, String idempotencyKey, RemoteCallback<Boolean> callback) {
         // 检查apiService是否为null
         if (apiService == null) {
-            callback.onFailure(new RuntimeException("ApiService not initialized"));
+            callback.onFailure(new NetworkException(ErrorType.UNKNOWN_ERROR, "ApiService not initialized"));
             return;
         }
         // 发起网络请求
-        apiService.addPost(post).enqueue(new Callback<Void>() {
+        caller.enqueue(apiService.addComment(comment.getPostId(), comment, idempotencyKey), new Callback<Void>() {
             @Override
             public void onResponse(Call<Void> call, Response<Void> response) {
                 if (response.isSuccessful()) {
                     callback.onSuccess(true);
                 } else {
-                    callback.onFailure(new RuntimeException("Failed to add post: " + response.message()));
+                    // 保留状态码，调用方据此判断是否重试
+                    callback.onFailure(ErrorHandler.handleError(response));
                 }
             }
 
             @Override
             public void onFailure(Call<Void> call, Throwable t) {
-                callback.onFailure(t);
+                callback.onFailure(ErrorHandler.handleError(t));
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取请求合并器，用于查看合并次数等指标
+     * @return 请求合并器
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * 获取带重试和熔断的请求发起器，用于查看重试次数和熔断状态
+     * @return 请求发起器
+     */
+    public ResilientCaller getResilientCaller() {
+        return caller;
+    }
+
+    /**
+     * 网络恢复时关闭共享熔断器，不必等待冷却结束
+     */
+    public static void onNetworkAvailable() {
+        Shared.CALLER.getCircuitBreaker().reset();
+    }
+
+    /**
+     * 默认构造的实例共享的对象，首次使用默认构造函数时才创建，依赖注入的实例不会触发全局线程池的初始化
+     */
+    private static final class Shared {
+        /**
+         * 共享同一个合并器，不同页面各自创建的仓库发出的相同请求也能合并
+         */
+        static final SingleFlight SINGLE_FLIGHT = new SingleFlight();
+
+        /**
+         * 共享同一个熔断器，服务端不可达时所有页面的请求一起停止
+         */
+        static final ResilientCaller CALLER = new ResilientCaller();
+    }
+}
@@ -0,0 +1,136 @@
+package com.mybook.data.remote;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.remote.error.CircuitBreaker;
+import com.mybook.data.remote.error.ErrorHandler;
+import com.mybook.data.remote.error.ErrorType;
+import com.mybook.data.remote.error.NetworkException;
+import com.mybook.data.remote.error.RetryPolicy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * 带重试和熔断的请求发起器
+ * 失败按ErrorType分类：超时和服务端错误按RetryPolicy退避后重试，网络错误计入熔断器，其他错误直接返回
+ * 只重试GET请求；写操作由待发送队列按幂等键重试，这里不重复发送
+ * 回调收到的失败统一为NetworkException；失败的HTTP响应仍通过onResponse交给调用方
+ */
+public class ResilientCaller {
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final AppExecutors executors;
+
+    private final AtomicLong retryCount = new AtomicLong();
+
+    /**
+     * 使用默认策略的构造函数
+     */
+    public ResilientCaller() {
+        this(new RetryPolicy(), new CircuitBreaker(), AppExecutors.getInstance());
+    }
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param retryPolicy 重试策略
+     * @param circuitBreaker 熔断器
+     * @param executors 线程调度器，用于延迟重试
+     */
+    public ResilientCaller(RetryPolicy retryPolicy, CircuitBreaker circuitBreaker, AppExecutors executors) {
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.executors = executors;
+    }
+
+    /**
+     * 异步发起请求
+     * @param call 请求
+     * @param callback 最终结果回调，重试过程中不会被调用
+     * @param <T> 响应体类型
+     */
+    public <T> void enqueue(Call<T> call, Callback<T> callback) {
+        enqueue(call, callback, 0);
+    }
+
+    private <T> void enqueue(Call<T> call, Callback<T> callback, int retries) {
+        if (!circuitBreaker.allowRequest()) {
+            // 熔断中，不发出请求
+            callback.onFailure(call, new NetworkException(ErrorType.NETWORK_ERROR, "服务暂时无法连接，请稍后重试"));
+            return;
+        }
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                // 收到响应说明服务端可达
+                circuitBreaker.onSuccess();
+                if (!response.isSuccessful()) {
+                    NetworkException error = ErrorHandler.handleError(response);
+                    if (canRetry(call, error, retries)) {
+                        closeQuietly(response.errorBody());
+                        scheduleRetry(call, callback, error, retries);
+                        return;
+                    }
+                }
+                callback.onResponse(call, response);
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                NetworkException error = ErrorHandler.handleError(t);
+                if (error.getErrorType() == ErrorType.NETWORK_ERROR && !call.isCanceled()) {
+                    circuitBreaker.onNetworkFailure();
+                } else {
+                    circuitBreaker.onRequestEnd();
+                }
+                if (canRetry(call, error, retries)) {
+                    scheduleRetry(call, callback, error, retries);
+                    return;
+                }
+                callback.onFailure(call, error);
+            }
+        });
+    }
+
+    /**
+     * 判断失败的请求能否重试：只重试未取消的GET请求，并由重试策略按错误类型决定
+     */
+    private boolean canRetry(Call<?> call, NetworkException error, int retries) {
+        return !call.isCanceled()
+                && "GET".equals(call.request().method())
+                && retryPolicy.shouldRetry(error, retries);
+    }
+
+    private <T> void scheduleRetry(Call<T> call, Callback<T> callback, NetworkException error, int retries) {
+        retryCount.incrementAndGet();
+        // 原请求不能再次执行，复制后重新发起
+        Call<T> retry = call.clone();
+        executors.schedule(executors.network(), () -> enqueue(retry, callback, retries + 1),
+                retryPolicy.delayMillis(error, retries));
+    }
+
+    private static void closeQuietly(ResponseBody body) {
+        if (body != null) {
+            body.close();
+        }
+    }
+
+    /**
+     * 获取熔断器
+     * @return 熔断器
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 获取已安排的重试次数
+     * @return 重试次数
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+}
@@ -1,25 +1,56 @@
 package com.mybook.data.remote;
 
+import android.util.Log;
+
+import com.mybook.BuildConfig;
 import com.mybook.MyBookApplication;
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.json.GsonProvider;
+import com.mybook.data.model.AuthToken;
 import com.mybook.data.remote.api.ApiService;
+import com.mybook.data.remote.auth.TokenAuthenticator;
+import com.mybook.data.remote.auth.TokenStore;
+import com.mybook.data.remote.interceptor.CacheRevalidationInterceptor;
+import com.mybook.data.remote.interceptor.HeaderProvider;
+import com.mybook.data.remote.interceptor.MetricsInterceptor;
 import com.mybook.data.remote.interceptor.RequestInterceptor;
 import com.mybook.data.remote.interceptor.ResponseInterceptor;
+import com.mybook.data.remote.interceptor.TimeoutInterceptor;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.brotli.BrotliInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Response;
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Retrofit客户端封装类
  * 用于初始化Retrofit和OkHttp，并提供ApiService实例
  */
 public class RetrofitClient {
+    private static final String TAG = "RetrofitClient";
+
     private static volatile RetrofitClient instance;
     private final Retrofit retrofit;
     private final ApiService apiService;
+    private final Cache cache;
+    private final CacheRevalidationInterceptor revalidationInterceptor = new CacheRevalidationInterceptor();
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
+    private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+    private final RateLimitGate rateLimitGate = new RateLimitGate();
+    private final TokenStore tokenStore;
+    private TokenAuthenticator tokenAuthenticator;
+    private final ConnectionPool connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES,
+            TimeUnit.MINUTES);
 
     /**
      * 基础URL
@@ -27,24 +58,61 @@ public class RetrofitClient {
     private static final String BASE_URL = "https://api.example.com";
 
     /**
-     * 连接超时时间（秒）
+     * 默认连接超时时间（秒），个别接口通过@Timeout调整
+     */
+    private static final long CONNECT_TIMEOUT = 10;
+
+    /**
+     * 默认读取超时时间（秒）
+     */
+    private static final long READ_TIMEOUT = 15;
+
+    /**
+     * 默认写入超时时间（秒）
+     */
+    private static final long WRITE_TIMEOUT = 15;
+
+    /**
+     * 连接池保留的空闲连接数
+     * 接口走HTTP/2时同一主机只需一条连接，剩余的空闲连接留给降级为HTTP/1.1的主机和图片等其他域名
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+
+    /**
+     * 空闲连接保活时间（分钟），覆盖用户浏览信息流时的请求间隔，避免反复TLS握手
+     */
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    /**
+     * 同时执行的请求上限
+     */
+    private static final int MAX_REQUESTS = 32;
+
+    /**
+     * 同一主机同时执行的请求上限
+     * 分页加载、同步和待发送队列同时进行时也不会把信息流请求挤到队列后面太久
      */
-    private static final long CONNECT_TIMEOUT = 30;
+    private static final int MAX_REQUESTS_PER_HOST = 8;
 
     /**
-     * 读取超时时间（秒）
+     * HTTP缓存目录名，位于应用缓存目录下
      */
-    private static final long READ_TIMEOUT = 30;
+    private static final String CACHE_DIR_NAME = "http_cache";
 
     /**
-     * 写入超时时间（秒）
+     * HTTP缓存容量上限（字节）
      */
-    private static final long WRITE_TIMEOUT = 30;
+    private static final long CACHE_MAX_SIZE = 20L * 1024 * 1024;
 
     /**
      * 私有构造函数
      */
     private RetrofitClient() {
+        // 创建磁盘缓存，失败时不使用缓存
+        this.cache = createCache();
+        // 读取本地保存的令牌，失败时请求不携带认证信息
+        this.tokenStore = createTokenStore();
+
         // 创建OkHttp客户端
         OkHttpClient okHttpClient = createOkHttpClient();
 
@@ -52,7 +120,8 @@ public class RetrofitClient {
         this.retrofit = new Retrofit.Builder()
                 .baseUrl(BASE_URL)
                 .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
+                .addConverterFactory(CborConverterFactory.create(GsonProvider.get())) // CBOR与JSON共用手写TypeAdapter
+                .callbackExecutor(AppExecutors.getInstance().network()) // 回调在网络线程池执行，不占用主线程
                 .build();
 
         // 创建ApiService实例
@@ -64,26 +133,96 @@ public class RetrofitClient {
      * @return OkHttpClient实例
      */
     private OkHttpClient createOkHttpClient() {
-        // 创建日志拦截器
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-
         // 创建请求拦截器
-        RequestInterceptor requestInterceptor = new RequestInterceptor();
-        // 创建响应拦截器
-        ResponseInterceptor responseInterceptor = new ResponseInterceptor();
+        RequestInterceptor requestInterceptor = new RequestInterceptor(new HeaderProvider(tokenStore, null));
+        // 创建响应拦截器，所有请求共用同一个限流闸门
+        ResponseInterceptor responseInterceptor = new ResponseInterceptor(rateLimitGate);
+
+        // 限制并发请求数，超出的请求在Dispatcher中排队
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
 
         // 构建OkHttpClient
-        return new OkHttpClient.Builder()
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
                 .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
                 .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS)
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)) // 优先HTTP/2，多个请求复用同一连接
+                .eventListener(connectionMetrics) // 统计连接新建与复用
+                .cache(cache) // 磁盘缓存，304时直接使用缓存的响应体
                 .addInterceptor(requestInterceptor) // 添加请求拦截器
-                .addInterceptor(loggingInterceptor) // 添加日志拦截器
-                .addInterceptor(responseInterceptor) // 添加响应拦截器
+                // 响应拦截器在指标拦截器外层：限流闸门关闭时本地返回的503不经过指标统计，不计为接口的真实响应
+                .addInterceptor(responseInterceptor)
+                .addInterceptor(BrotliInterceptor.INSTANCE) // 声明支持br和gzip并解压，内层拦截器看到的是压缩后的字节
+                .addInterceptor(new TimeoutInterceptor()) // 按接口上的@Timeout调整超时
+                .addInterceptor(new MetricsInterceptor(networkMetrics)); // 记录接口耗时、字节数和状态码
+
+        if (tokenStore != null) {
+            // 收到401时刷新令牌并重发请求
+            tokenAuthenticator = new TokenAuthenticator(tokenStore, this::refreshToken);
+            builder.authenticator(tokenAuthenticator);
+        }
+
+        if (BuildConfig.DEBUG) {
+            // BODY日志会缓冲并转成字符串打印整个响应体，只在调试包中开启
+            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+            builder.addInterceptor(loggingInterceptor);
+        }
+
+        return builder
+                .addNetworkInterceptor(revalidationInterceptor) // 在写入缓存前补充协商策略
                 .build();
     }
 
+    /**
+     * 创建HTTP磁盘缓存
+     * @return Cache实例，应用未初始化时返回null
+     */
+    private Cache createCache() {
+        try {
+            File directory = new File(MyBookApplication.getInstance().getCacheDir(), CACHE_DIR_NAME);
+            return new Cache(directory, CACHE_MAX_SIZE);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 创建令牌存储
+     * @return TokenStore实例，应用未初始化时返回null
+     */
+    private TokenStore createTokenStore() {
+        try {
+            return TokenStore.getInstance(MyBookApplication.getInstance());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 同步调用刷新接口，由TokenAuthenticator在OkHttp线程中调用
+     * @param refreshToken 刷新令牌
+     * @return 新令牌，刷新令牌被服务端拒绝时返回null
+     * @throws IOException 网络错误或服务端错误，令牌保持不变
+     */
+    private AuthToken refreshToken(String refreshToken) throws IOException {
+        Response<AuthToken> response = apiService.refreshToken(refreshToken).execute();
+        if (response.isSuccessful()) {
+            return response.body();
+        }
+        if (response.code() >= 400 && response.code() < 500 && response.code() != 429) {
+            // 刷新令牌已失效或被吊销
+            return null;
+        }
+        throw new IOException("Token refresh failed: HTTP " + response.code());
+    }
+
     /**
      * 获取RetrofitClient实例
      * @return RetrofitClient实例
@@ -110,4 +249,87 @@ public class RetrofitClient {
     public Retrofit getRetrofit() {
         return retrofit;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取HTTP缓存统计快照
+     * @return 缓存统计，未启用缓存时各项缓存计数为0
+     */
+    public HttpCacheStats getCacheStats() {
+        long requestCount = 0;
+        long networkCount = 0;
+        long hitCount = 0;
+        long size = 0;
+        long maxSize = 0;
+        if (cache != null) {
+            requestCount = cache.requestCount();
+            networkCount = cache.networkCount();
+            hitCount = cache.hitCount();
+            maxSize = cache.maxSize();
+            try {
+                size = cache.size();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return new HttpCacheStats(requestCount, networkCount, hitCount,
+                revalidationInterceptor.getConditionalCount(),
+                revalidationInterceptor.getNotModifiedCount(),
+                size, maxSize);
+    }
+
+    /**
+     * 输出HTTP缓存统计到日志
+     */
+    public void logCacheStats() {
+        Log.d(TAG, getCacheStats().toString());
+    }
+
+    /**
+     * 获取网络请求指标
+     * @return 按接口汇总的指标
+     */
+    public NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    /**
+     * 输出网络请求指标到日志
+     */
+    public void logNetworkMetrics() {
+        for (String line : networkMetrics.describe()) {
+            Log.d(TAG, line);
+        }
+    }
+
+    /**
+     * 获取连接复用指标
+     * @return 连接复用指标
+     */
+    public ConnectionMetrics getConnectionMetrics() {
+        return connectionMetrics;
+    }
+
+    /**
+     * 输出连接复用指标和连接池状态到日志
+     */
+    public void logConnectionMetrics() {
+        Log.d(TAG, connectionMetrics + " pool=" + connectionPool.idleConnectionCount()
+                + "/" + connectionPool.connectionCount());
+    }
+
+    /**
+     * 获取限流闸门
+     * @return 限流闸门
+     */
+    public RateLimitGate getRateLimitGate() {
+        return rateLimitGate;
+    }
+
+    /**
+     * 获取令牌认证器
+     * @return 令牌认证器，未启用令牌存储时返回null
+     */
+    public TokenAuthenticator getTokenAuthenticator() {
+        return tokenAuthenticator;
+    }
+}
@@ -0,0 +1,118 @@
+package com.mybook.data.remote;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求合并器
+ * 相同键的请求在前一个尚未返回时不再发起新的网络请求，而是等待同一个结果并分发给所有回调
+ * 所有回调收到的是同一个结果对象，回调中不应修改它；
+ * RemoteDataSourceImpl在分发前完成作者信息填回和内容哈希计算，写库时不再修改共享的帖子
+ */
+public class SingleFlight {
+    /**
+     * 进行中的请求及等待其结果的回调
+     */
+    private final Map<String, List<RemoteDataSource.RemoteCallback<?>>> inFlight = new HashMap<>();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+
+    /**
+     * 加入请求
+     * 没有相同请求在进行时返回分发回调，调用方需用它发起网络请求；否则回调挂到进行中的请求上，返回null
+     * @param key 请求键，相同键视为相同请求
+     * @param callback 调用方的回调
+     * @param <T> 回调数据类型
+     * @return 分发回调，已合并到进行中的请求时返回null
+     */
+    public <T> RemoteDataSource.RemoteCallback<T> join(String key, RemoteDataSource.RemoteCallback<T> callback) {
+        requestCount.incrementAndGet();
+        synchronized (inFlight) {
+            List<RemoteDataSource.RemoteCallback<?>> waiters = inFlight.get(key);
+            if (waiters != null) {
+                waiters.add(callback);
+                collapsedCount.incrementAndGet();
+                return null;
+            }
+            waiters = new ArrayList<>();
+            waiters.add(callback);
+            inFlight.put(key, waiters);
+        }
+        return new RemoteDataSource.RemoteCallback<T>() {
+            @Override
+            public void onSuccess(T data) {
+                for (RemoteDataSource.RemoteCallback<T> waiter : SingleFlight.this.<T>complete(key)) {
+                    try {
+                        waiter.onSuccess(data);
+                    } catch (Exception e) {
+                        // 单个回调出错不影响其他回调
+                        e.printStackTrace();
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                for (RemoteDataSource.RemoteCallback<T> waiter : SingleFlight.this.<T>complete(key)) {
+                    try {
+                        waiter.onFailure(throwable);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * 结束请求并取出等待的回调，之后相同键的请求会重新发起
+     * @param key 请求键
+     * @param <T> 回调数据类型
+     * @return 等待结果的回调
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<RemoteDataSource.RemoteCallback<T>> complete(String key) {
+        List<RemoteDataSource.RemoteCallback<?>> waiters;
+        synchronized (inFlight) {
+            waiters = inFlight.remove(key);
+        }
+        List<RemoteDataSource.RemoteCallback<T>> callbacks = new ArrayList<>();
+        if (waiters != null) {
+            for (RemoteDataSource.RemoteCallback<?> waiter : waiters) {
+                // 同一个键只会以相同的类型加入
+                callbacks.add((RemoteDataSource.RemoteCallback<T>) waiter);
+            }
+        }
+        return callbacks;
+    }
+
+    /**
+     * 获取经过合并器的请求总数
+     * @return 请求总数
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * 获取被合并、未实际发起的请求数
+     * @return 合并次数
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    /**
+     * 获取当前进行中的请求数
+     * @return 进行中的请求数
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+}
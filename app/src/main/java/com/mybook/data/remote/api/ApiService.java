@@ -1,25 +1,63 @@
 package com.mybook.data.remote.api;
 
+import com.mybook.data.model.AuthToken;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.CommentPage;
+import com.mybook.data.model.EngagementBatch;
+import com.mybook.data.model.FeedPage;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostDelta;
 
-import java.util.List;
-
+import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.http.Body;
+import retrofit2.http.Field;
+import retrofit2.http.FormUrlEncoded;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.Path;
 import retrofit2.http.POST;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * API服务接口
  * 定义所有网络请求方法
+ * 点赞等轻量操作快速失败交给待发送队列重试，发帖等上传请求放宽超时，见@Timeout
  */
 public interface ApiService {
     /**
-     * 获取所有帖子
-     * @return 帖子列表的Call对象
+     * 以流的形式获取所有帖子
+     * 响应体不预先读入内存，由调用方按JSON逐条解析；响应头X-Sync-Token为本次全量数据对应的同步令牌
+     * @return 原始响应体的Call对象，使用后需关闭
+     */
+    @Timeout(read = 60_000)
+    @Headers("Accept: application/json")
+    @Streaming
+    @GET("/posts")
+    Call<ResponseBody> streamPosts();
+
+    /**
+     * 增量获取帖子变化
+     * 同步令牌过期时服务端返回410，需重新全量同步；与信息流分页一样请求规范化格式
+     * @param since 上次同步返回的令牌
+     * @return 增量同步响应的Call对象
      */
+    @Headers("X-Feed-Format: normalized")
     @GET("/posts")
-    Call<List<Post>> getPosts();
+    Call<PostDelta> getPostChanges(@Query("since") String since);
+
+    /**
+     * 按游标分页获取帖子信息流
+     * 请求规范化格式，作者信息在users中只出现一次，服务端不支持时返回普通格式
+     * @param cursor 上一页返回的游标，获取第一页时传null
+     * @param limit 每页数量
+     * @return 信息流分页的Call对象
+     */
+    @Headers("X-Feed-Format: normalized")
+    @GET("/posts/feed")
+    Call<FeedPage> getFeed(@Query("cursor") String cursor, @Query("limit") int limit);
 
     /**
      * 根据ID获取帖子
@@ -30,34 +68,54 @@ public interface ApiService {
     Call<Post> getPostById(@Path("id") String postId);
 
     /**
-     * 点赞帖子
-     * @param postId 帖子ID
-     * @return 点赞结果的Call对象
-     */
-    @POST("/posts/{id}/like")
-    Call<Void> likePost(@Path("id") String postId);
-
-    /**
-     * 评论帖子
+     * 按游标分页获取帖子评论
      * @param postId 帖子ID
-     * @return 评论结果的Call对象
+     * @param cursor 上一页返回的游标，获取第一页时传null
+     * @param limit 每页数量
+     * @return 评论分页的Call对象
      */
-    @POST("/posts/{id}/comment")
-    Call<Void> commentPost(@Path("id") String postId);
+    @GET("/posts/{id}/comments")
+    Call<CommentPage> getComments(@Path("id") String postId, @Query("cursor") String cursor, @Query("limit") int limit);
 
     /**
-     * 分享帖子
-     * @param postId 帖子ID
-     * @return 分享结果的Call对象
+     * 批量提交点赞、收藏和分享操作
+     * @param batch 批量互动请求
+     * @return 提交结果的Call对象
      */
-    @POST("/posts/{id}/share")
-    Call<Void> sharePost(@Path("id") String postId);
+    @Timeout(connect = 5_000, read = 5_000, write = 5_000)
+    @POST("/posts/actions")
+    Call<Void> sendEngagements(@Body EngagementBatch batch);
     
     /**
      * 添加新帖子
      * @param post 新帖子对象
+     * @param idempotencyKey 幂等键，重试时保持不变，为null时不发送
      * @return 添加结果的Call对象
      */
+    @Timeout(read = 30_000, write = 60_000)
     @POST("/posts")
-    Call<Void> addPost(Post post);
-}
\ No newline at end of file
+    Call<Void> addPost(@Body Post post, @Header("Idempotency-Key") String idempotencyKey);
+
+    /**
+     * 发表评论
+     * @param postId 帖子ID
+     * @param comment 评论对象，ID由客户端生成
+     * @param idempotencyKey 幂等键，重试时保持不变
+     * @return 发表结果的Call对象
+     */
+    @Timeout(read = 30_000, write = 30_000)
+    @POST("/posts/{id}/comments")
+    Call<Void> addComment(@Path("id") String postId, @Body Comment comment,
+                          @Header("Idempotency-Key") String idempotencyKey);
+
+    /**
+     * 用刷新令牌换取新的访问令牌
+     * 由TokenAuthenticator在收到401时同步调用，请求本身不携带访问令牌
+     * @param refreshToken 刷新令牌
+     * @return 新令牌的Call对象，刷新令牌失效时服务端返回401
+     */
+    @Timeout(connect = 5_000, read = 5_000, write = 5_000)
+    @FormUrlEncoded
+    @POST("/auth/refresh")
+    Call<AuthToken> refreshToken(@Field("refreshToken") String refreshToken);
+}
@@ -0,0 +1,31 @@
+package com.mybook.data.remote.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口级超时时间（毫秒）
+ * 标注在ApiService方法上，由TimeoutInterceptor在请求时应用；未设置或为0的项使用客户端默认值
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timeout {
+    /**
+     * 连接超时（毫秒）
+     */
+    int connect() default 0;
+
+    /**
+     * 读取超时（毫秒）
+     */
+    int read() default 0;
+
+    /**
+     * 写入超时（毫秒）
+     */
+    int write() default 0;
+}
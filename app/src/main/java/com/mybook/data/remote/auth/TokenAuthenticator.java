@@ -0,0 +1,139 @@
+package com.mybook.data.remote.auth;
+
+import androidx.annotation.Nullable;
+
+import com.mybook.data.model.AuthToken;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * 令牌认证器
+ * 收到401时用刷新令牌换取新的访问令牌并重发请求；同一时刻只有一个线程刷新，
+ * 其他同时收到401的请求在锁上等待，刷新完成后直接使用新令牌重发，不会重复刷新
+ * 刷新被拒绝时清除令牌，之后的请求不再携带令牌，也不再反复刷新
+ */
+public class TokenAuthenticator implements Authenticator {
+    /**
+     * 认证请求头
+     */
+    public static final String HEADER_AUTHORIZATION = "Authorization";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * 令牌刷新接口
+     */
+    public interface TokenRefresher {
+        /**
+         * 同步刷新令牌，在OkHttp线程中调用
+         * @param refreshToken 刷新令牌
+         * @return 新令牌，刷新令牌已失效时返回null
+         * @throws IOException 网络错误，令牌保持不变
+         */
+        AuthToken refresh(String refreshToken) throws IOException;
+    }
+
+    private final TokenStore tokenStore;
+    private final TokenRefresher refresher;
+    private final Object refreshLock = new Object();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong reusedCount = new AtomicLong();
+
+    /**
+     * 构造函数
+     * @param tokenStore 令牌存储
+     * @param refresher 令牌刷新接口
+     */
+    public TokenAuthenticator(TokenStore tokenStore, TokenRefresher refresher) {
+        this.tokenStore = tokenStore;
+        this.refresher = refresher;
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, Response response) throws IOException {
+        Request request = response.request();
+        String failedToken = bearerToken(request);
+        if (failedToken == null || hasPriorUnauthorized(response)) {
+            // 未携带令牌的请求（如刷新请求本身）无法通过刷新解决；重发后仍为401时放弃，避免循环
+            return null;
+        }
+
+        synchronized (refreshLock) {
+            String current = tokenStore.getAccessToken();
+            if (current != null && !current.equals(failedToken)) {
+                // 等待期间其他请求已经刷新过，直接使用新令牌
+                reusedCount.incrementAndGet();
+                return withToken(request, current);
+            }
+            String refreshToken = tokenStore.getRefreshToken();
+            if (refreshToken == null) {
+                return null;
+            }
+            refreshCount.incrementAndGet();
+            AuthToken token = refresher.refresh(refreshToken);
+            if (token == null || token.getAccessToken() == null) {
+                // 刷新令牌已失效，需要重新登录
+                tokenStore.clear();
+                return null;
+            }
+            tokenStore.save(token);
+            return withToken(request, token.getAccessToken());
+        }
+    }
+
+    /**
+     * 获取实际发出的刷新请求数
+     * @return 刷新次数
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    /**
+     * 获取直接复用其他请求刷新结果的次数
+     * @return 复用次数
+     */
+    public long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * 生成认证请求头的值
+     * @param token 访问令牌
+     * @return 请求头的值
+     */
+    public static String bearer(String token) {
+        return BEARER_PREFIX + token;
+    }
+
+    private static boolean hasPriorUnauthorized(Response response) {
+        for (Response prior = response.priorResponse(); prior != null; prior = prior.priorResponse()) {
+            if (prior.code() == 401) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String bearerToken(Request request) {
+        String header = request.header(HEADER_AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length());
+    }
+
+    private static Request withToken(Request request, String token) {
+        return request.newBuilder()
+                .header(HEADER_AUTHORIZATION, bearer(token))
+                .build();
+    }
+}
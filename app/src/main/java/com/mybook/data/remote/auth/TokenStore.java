@@ -0,0 +1,86 @@
+package com.mybook.data.remote.auth;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.mybook.data.model.AuthToken;
+
+/**
+ * 认证令牌存储
+ * 令牌保存在SharedPreferences中，内存中保留一份，每个请求读取令牌时不访问磁盘
+ */
+public class TokenStore {
+    private static final String PREFS_NAME = "auth";
+    private static final String KEY_ACCESS_TOKEN = "access_token";
+    private static final String KEY_REFRESH_TOKEN = "refresh_token";
+
+    private static volatile TokenStore instance;
+
+    private final SharedPreferences preferences;
+    private volatile String accessToken;
+    private volatile String refreshToken;
+
+    private TokenStore(Context context) {
+        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.accessToken = preferences.getString(KEY_ACCESS_TOKEN, null);
+        this.refreshToken = preferences.getString(KEY_REFRESH_TOKEN, null);
+    }
+
+    /**
+     * 获取全局共享的令牌存储
+     * @param context 上下文
+     * @return 令牌存储实例
+     */
+    public static TokenStore getInstance(Context context) {
+        TokenStore result = instance;
+        if (result == null) {
+            synchronized (TokenStore.class) {
+                result = instance;
+                if (result == null) {
+                    result = instance = new TokenStore(context.getApplicationContext());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取访问令牌
+     * @return 访问令牌，未登录时返回null
+     */
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * 获取刷新令牌
+     * @return 刷新令牌，未登录或刷新失败后返回null
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    /**
+     * 保存登录或刷新得到的令牌
+     * @param token 新令牌，refreshToken为null时保留原刷新令牌
+     */
+    public synchronized void save(AuthToken token) {
+        accessToken = token.getAccessToken();
+        if (token.getRefreshToken() != null) {
+            refreshToken = token.getRefreshToken();
+        }
+        preferences.edit()
+                .putString(KEY_ACCESS_TOKEN, accessToken)
+                .putString(KEY_REFRESH_TOKEN, refreshToken)
+                .apply();
+    }
+
+    /**
+     * 清除令牌，之后的请求不再携带认证信息，也不会再尝试刷新
+     */
+    public synchronized void clear() {
+        accessToken = null;
+        refreshToken = null;
+        preferences.edit().clear().apply();
+    }
+}
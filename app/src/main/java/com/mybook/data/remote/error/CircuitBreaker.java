@@ -0,0 +1,167 @@
+package com.mybook.data.remote.error;
+
+/**
+ * 熔断器
+ * 连续多次网络错误（连接失败、域名解析失败等）后打开熔断，冷却期内的请求直接失败，不再反复连接不可达的服务端
+ * 冷却结束后放行一个探测请求：成功则关闭熔断，仍然失败则再次打开，冷却时间翻倍
+ * 收到任何HTTP响应都说明服务端可达，会重置连续失败计数
+ */
+public class CircuitBreaker {
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 正常放行
+         */
+        CLOSED,
+
+        /**
+         * 熔断中，请求直接失败
+         */
+        OPEN,
+
+        /**
+         * 冷却结束，只放行一个探测请求
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * 默认打开熔断的连续网络错误次数
+     */
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * 默认第一次熔断的冷却时间（毫秒）
+     */
+    private static final long DEFAULT_OPEN_MILLIS = 30 * 1000;
+
+    /**
+     * 默认冷却时间上限（毫秒）
+     */
+    private static final long DEFAULT_MAX_OPEN_MILLIS = 5 * 60 * 1000;
+
+    private final int failureThreshold;
+    private final long baseOpenMillis;
+    private final long maxOpenMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openMillis;
+    private long openUntil;
+    private boolean probeInFlight;
+    private long rejectedCount;
+    private long openedCount;
+
+    /**
+     * 使用默认参数的构造函数
+     */
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS, DEFAULT_MAX_OPEN_MILLIS);
+    }
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param failureThreshold 打开熔断的连续网络错误次数
+     * @param baseOpenMillis 第一次熔断的冷却时间（毫秒）
+     * @param maxOpenMillis 冷却时间上限（毫秒）
+     */
+    public CircuitBreaker(int failureThreshold, long baseOpenMillis, long maxOpenMillis) {
+        this.failureThreshold = failureThreshold;
+        this.baseOpenMillis = baseOpenMillis;
+        this.maxOpenMillis = maxOpenMillis;
+        this.openMillis = baseOpenMillis;
+    }
+
+    /**
+     * 判断是否允许发出请求
+     * @return 允许时返回true；返回true后必须调用onSuccess、onNetworkFailure或onRequestEnd之一
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        rejectedCount++;
+        return false;
+    }
+
+    /**
+     * 记录收到HTTP响应，服务端可达，关闭熔断
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        openMillis = baseOpenMillis;
+        state = State.CLOSED;
+    }
+
+    /**
+     * 记录一次网络错误，连续错误达到阈值或探测请求失败时打开熔断
+     */
+    public synchronized void onNetworkFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            // 探测失败，冷却时间翻倍
+            probeInFlight = false;
+            openMillis = Math.min(openMillis * 2, maxOpenMillis);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * 记录请求以其他原因结束（如超时、解析错误），不改变熔断状态，只释放探测名额
+     */
+    public synchronized void onRequestEnd() {
+        probeInFlight = false;
+    }
+
+    /**
+     * 立即关闭熔断，在系统通知网络恢复时调用
+     */
+    public synchronized void reset() {
+        onSuccess();
+    }
+
+    /**
+     * 获取当前状态
+     * @return 熔断器状态
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * 获取熔断期间被直接拒绝的请求数
+     * @return 请求数
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 获取打开熔断的次数
+     * @return 次数
+     */
+    public synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openMillis;
+        openedCount++;
+    }
+}
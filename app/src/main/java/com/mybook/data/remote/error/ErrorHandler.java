@@ -1,10 +1,15 @@
 package com.mybook.data.remote.error;
 
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
+import com.mybook.data.remote.RateLimitGate;
+
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 
 import retrofit2.HttpException;
+import retrofit2.Response;
 
 /**
  * 错误处理工具类
@@ -17,24 +22,39 @@ public class ErrorHandler {
      * @return 自定义的NetworkException
      */
     public static NetworkException handleError(Throwable throwable) {
-        if (throwable instanceof HttpException) {
+        if (throwable instanceof NetworkException) {
+            // 已经分类过的错误
+            return (NetworkException) throwable;
+        } else if (throwable instanceof HttpException) {
             // HTTP错误
             return handleHttpError((HttpException) throwable);
+        } else if (throwable instanceof JsonParseException || throwable instanceof MalformedJsonException) {
+            // 解析错误，MalformedJsonException同时是IOException，需先于IO错误判断
+            return new NetworkException(ErrorType.PARSE_ERROR, "数据解析错误，请稍后重试", throwable);
         } else if (throwable instanceof SocketTimeoutException) {
             // 超时错误
-            return new NetworkException(ErrorType.TIMEOUT_ERROR, "请求超时，请稍后重试");
+            return new NetworkException(ErrorType.TIMEOUT_ERROR, "请求超时，请稍后重试", throwable);
         } else if (throwable instanceof UnknownHostException) {
             // 网络连接错误
-            return new NetworkException(ErrorType.NETWORK_ERROR, "网络连接失败，请检查网络设置");
+            return new NetworkException(ErrorType.NETWORK_ERROR, "网络连接失败，请检查网络设置", throwable);
         } else if (throwable instanceof IOException) {
             // IO错误
-            return new NetworkException(ErrorType.NETWORK_ERROR, "网络请求失败，请稍后重试");
+            return new NetworkException(ErrorType.NETWORK_ERROR, "网络请求失败，请稍后重试", throwable);
         } else {
             // 其他未知错误
             return new NetworkException(ErrorType.UNKNOWN_ERROR, "未知错误，请稍后重试", throwable);
         }
     }
 
+    /**
+     * 将失败的HTTP响应转换为自定义的NetworkException
+     * @param response 状态码不是2xx或响应体为空的响应
+     * @return 自定义的NetworkException
+     */
+    public static NetworkException handleError(Response<?> response) {
+        return handleHttpError(new HttpException(response));
+    }
+
     /**
      * 处理HTTP错误
      * @param httpException HTTP异常
@@ -46,23 +66,40 @@ public class ErrorHandler {
 
         switch (statusCode) {
             case 401:
-                return new NetworkException(ErrorType.UNAUTHORIZED_ERROR, statusCode, "未授权，请重新登录");
+                return new NetworkException(ErrorType.UNAUTHORIZED_ERROR, statusCode, "未授权，请重新登录", httpException);
             case 403:
-                return new NetworkException(ErrorType.FORBIDDEN_ERROR, statusCode, "禁止访问，权限不足");
+                return new NetworkException(ErrorType.FORBIDDEN_ERROR, statusCode, "禁止访问，权限不足", httpException);
             case 404:
-                return new NetworkException(ErrorType.NOT_FOUND_ERROR, statusCode, "请求的资源不存在");
-            case 500:
-            case 501:
-            case 502:
+                return new NetworkException(ErrorType.NOT_FOUND_ERROR, statusCode, "请求的资源不存在", httpException);
+            case 408:
+                return new NetworkException(ErrorType.TIMEOUT_ERROR, statusCode, "请求超时，请稍后重试", httpException);
+            case 429:
             case 503:
-            case 504:
-            case 505:
-                return new NetworkException(ErrorType.SERVER_ERROR, statusCode, "服务器错误，请稍后重试");
+                // 限流或服务暂不可用，属于服务端暂时无法处理，按Retry-After稍后重试
+                return new NetworkException(ErrorType.SERVER_ERROR, statusCode, "服务器繁忙，请稍后重试", httpException,
+                        retryAfterMillis(httpException));
             default:
-                return new NetworkException(ErrorType.SERVER_ERROR, statusCode, "HTTP错误: " + message);
+                if (statusCode >= 500) {
+                    return new NetworkException(ErrorType.SERVER_ERROR, statusCode, "服务器错误，请稍后重试", httpException);
+                }
+                if (statusCode >= 400) {
+                    return new NetworkException(ErrorType.CLIENT_ERROR, statusCode, "HTTP错误: " + message, httpException);
+                }
+                // 状态码成功但没有响应体
+                return new NetworkException(ErrorType.PARSE_ERROR, statusCode, "响应内容为空", httpException);
         }
     }
 
+    /**
+     * 读取HTTP错误响应中的Retry-After
+     * @param httpException HTTP异常
+     * @return 等待时间（毫秒），未指定时返回-1
+     */
+    private static long retryAfterMillis(HttpException httpException) {
+        Response<?> response = httpException.response();
+        return response != null ? RateLimitGate.parseRetryAfter(response.headers()) : -1;
+    }
+
     /**
      * 根据错误类型获取友好的错误消息
      * @param errorType 错误类型
@@ -80,6 +117,8 @@ public class ErrorHandler {
                 return "禁止访问，权限不足";
             case NOT_FOUND_ERROR:
                 return "请求的资源不存在";
+            case CLIENT_ERROR:
+                return "请求无效，请稍后重试";
             case PARSE_ERROR:
                 return "数据解析错误，请稍后重试";
             case TIMEOUT_ERROR:
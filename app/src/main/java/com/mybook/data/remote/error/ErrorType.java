@@ -2,7 +2,7 @@ package com.mybook.data.remote.error;
 
 /**
  * 错误类型枚举
- * 定义所有可能的错误类型
+ * 定义所有可能的错误类型，重试策略和熔断器按类型决定是否重试
  */
 public enum ErrorType {
     /**
@@ -30,6 +30,11 @@ public enum ErrorType {
      */
     NOT_FOUND_ERROR,
 
+    /**
+     * 其他客户端错误（4xx），请求本身有误，重试不会成功
+     */
+    CLIENT_ERROR,
+
     /**
      * 解析错误
      */
@@ -43,5 +48,13 @@ public enum ErrorType {
     /**
      * 未知错误
      */
-    UNKNOWN_ERROR
+    UNKNOWN_ERROR;
+
+    /**
+     * 是否为暂时性错误：网络不可用、超时或服务端错误，稍后重试可能成功
+     * @return 暂时性错误返回true
+     */
+    public boolean isTransient() {
+        return this == NETWORK_ERROR || this == TIMEOUT_ERROR || this == SERVER_ERROR;
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ package com.mybook.data.remote.error;
 public class NetworkException extends Exception {
     private final ErrorType errorType;
     private final int errorCode;
+    private final long retryAfterMillis;
 
     /**
      * 构造函数
@@ -17,6 +18,7 @@ public class NetworkException extends Exception {
         super(message);
         this.errorType = errorType;
         this.errorCode = -1;
+        this.retryAfterMillis = -1;
     }
 
     /**
@@ -29,6 +31,7 @@ public class NetworkException extends Exception {
         super(message, cause);
         this.errorType = errorType;
         this.errorCode = -1;
+        this.retryAfterMillis = -1;
     }
 
     /**
@@ -41,6 +44,37 @@ public class NetworkException extends Exception {
         super(message);
         this.errorType = errorType;
         this.errorCode = errorCode;
+        this.retryAfterMillis = -1;
+    }
+
+    /**
+     * 构造函数
+     * @param errorType 错误类型
+     * @param errorCode 错误代码
+     * @param message 错误消息
+     * @param cause 原始异常
+     */
+    public NetworkException(ErrorType errorType, int errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorType = errorType;
+        this.errorCode = errorCode;
+        this.retryAfterMillis = -1;
+    }
+
+    /**
+     * 构造函数
+     * @param errorType 错误类型
+     * @param errorCode 错误代码
+     * @param message 错误消息
+     * @param cause 原始异常
+     * @param retryAfterMillis 服务端要求的等待时间（毫秒），-1表示未指定
+     */
+    public NetworkException(ErrorType errorType, int errorCode, String message, Throwable cause,
+                            long retryAfterMillis) {
+        super(message, cause);
+        this.errorType = errorType;
+        this.errorCode = errorCode;
+        this.retryAfterMillis = retryAfterMillis;
     }
 
     /**
@@ -58,4 +92,12 @@ public class NetworkException extends Exception {
     public int getErrorCode() {
         return errorCode;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取服务端通过Retry-After要求的等待时间
+     * @return 等待时间（毫秒），-1表示未指定
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mybook.data.remote.error;
+
+import java.util.Random;
+
+/**
+ * 重试策略
+ * 只有超时和服务端错误会立即退避重试；网络不可用交给熔断器处理，客户端错误（4xx）和解析错误不重试
+ * 退避时间按指数增长并加入随机抖动，避免大量客户端在同一时刻一起重试；服务端给出Retry-After时至少等待该时间
+ */
+public class RetryPolicy {
+    /**
+     * 默认最多重试次数（不含第一次请求）
+     */
+    private static final int DEFAULT_MAX_RETRIES = 2;
+
+    /**
+     * 默认第一次重试前的基准等待时间（毫秒）
+     */
+    private static final long DEFAULT_BASE_DELAY_MILLIS = 500;
+
+    /**
+     * 默认单次等待时间上限（毫秒）
+     */
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 8000;
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Random random;
+
+    /**
+     * 使用默认参数的构造函数
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_BASE_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS, new Random());
+    }
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param maxRetries 最多重试次数
+     * @param baseDelayMillis 第一次重试的基准等待时间（毫秒）
+     * @param maxDelayMillis 单次等待时间上限（毫秒）
+     * @param random 抖动使用的随机数生成器
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, Random random) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.random = random;
+    }
+
+    /**
+     * 判断是否应该重试
+     * @param errorType 本次失败的错误类型
+     * @param retryCount 已经重试过的次数
+     * @return 需要重试时返回true
+     */
+    public boolean shouldRetry(ErrorType errorType, int retryCount) {
+        if (retryCount >= maxRetries) {
+            return false;
+        }
+        return errorType == ErrorType.TIMEOUT_ERROR || errorType == ErrorType.SERVER_ERROR;
+    }
+
+    /**
+     * 判断是否应该重试，服务端要求的等待时间超过单次等待上限时不在本次调用内重试
+     * @param error 本次失败
+     * @param retryCount 已经重试过的次数
+     * @return 需要重试时返回true
+     */
+    public boolean shouldRetry(NetworkException error, int retryCount) {
+        return shouldRetry(error.getErrorType(), retryCount) && error.getRetryAfterMillis() <= maxDelayMillis;
+    }
+
+    /**
+     * 计算下一次重试前的等待时间，不短于服务端要求的等待时间
+     * @param error 本次失败
+     * @param retryCount 已经重试过的次数
+     * @return 等待时间（毫秒）
+     */
+    public long delayMillis(NetworkException error, int retryCount) {
+        return Math.max(delayMillis(retryCount), error.getRetryAfterMillis());
+    }
+
+    /**
+     * 计算下一次重试前的等待时间
+     * 基准时间按重试次数翻倍，实际等待时间在其一半到全部之间随机取值
+     * @param retryCount 已经重试过的次数
+     * @return 等待时间（毫秒）
+     */
+    public long delayMillis(int retryCount) {
+        long exponential = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retryCount, 20));
+        long half = exponential / 2;
+        synchronized (random) {
+            return half + (long) (random.nextDouble() * (exponential - half));
+        }
+    }
+}
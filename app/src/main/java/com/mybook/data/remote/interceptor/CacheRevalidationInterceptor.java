@@ -0,0 +1,91 @@
+package com.mybook.data.remote.interceptor;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存协商拦截器
+ * 作为网络拦截器添加，服务端返回了ETag或Last-Modified但没有给出缓存策略时，
+ * 将GET响应标记为"Cache-Control: no-cache"：响应体写入磁盘缓存，但每次使用前都必须向服务端确认。
+ * OkHttp下次请求同一地址时会自动带上If-None-Match/If-Modified-Since，服务端返回304时直接使用缓存的响应体
+ */
+public class CacheRevalidationInterceptor implements Interceptor {
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    private static final String HEADER_EXPIRES = "Expires";
+    private static final String HEADER_PRAGMA = "Pragma";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    /**
+     * 发出的条件请求数
+     */
+    private final AtomicLong conditionalCount = new AtomicLong();
+
+    /**
+     * 服务端返回304的次数，即协商后命中缓存的次数
+     */
+    private final AtomicLong notModifiedCount = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean conditional = request.header(HEADER_IF_NONE_MATCH) != null
+                || request.header(HEADER_IF_MODIFIED_SINCE) != null;
+        if (conditional) {
+            conditionalCount.incrementAndGet();
+        }
+
+        Response response = chain.proceed(request);
+
+        if (conditional && response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            notModifiedCount.incrementAndGet();
+        }
+        if (!shouldRevalidate(request, response)) {
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader(HEADER_PRAGMA)
+                .header(HEADER_CACHE_CONTROL, "no-cache")
+                .build();
+    }
+
+    /**
+     * 判断响应是否需要改为每次协商
+     * 服务端已经给出缓存策略时保持原样
+     * @param request 请求对象
+     * @param response 网络响应
+     * @return 需要改写时返回true
+     */
+    private boolean shouldRevalidate(Request request, Response response) {
+        if (!"GET".equals(request.method()) || !response.isSuccessful()) {
+            return false;
+        }
+        if (response.header(HEADER_CACHE_CONTROL) != null || response.header(HEADER_EXPIRES) != null) {
+            return false;
+        }
+        return response.header(HEADER_ETAG) != null || response.header(HEADER_LAST_MODIFIED) != null;
+    }
+
+    /**
+     * 获取发出的条件请求数
+     * @return 条件请求数
+     */
+    public long getConditionalCount() {
+        return conditionalCount.get();
+    }
+
+    /**
+     * 获取服务端返回304的次数
+     * @return 304次数
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+}
@@ -0,0 +1,179 @@
+package com.mybook.data.remote.interceptor;
+
+import androidx.annotation.Nullable;
+
+import com.mybook.BuildConfig;
+import com.mybook.data.remote.CborConverterFactory;
+import com.mybook.data.remote.auth.TokenAuthenticator;
+import com.mybook.data.remote.auth.TokenStore;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * 公共请求头提供者
+ * 固定不变的请求头在创建时构建一次并缓存，每个请求只追加时间戳、认证和签名等动态请求头，
+ * 所有请求头写入同一个Request.Builder，每个请求只复制一次Request
+ */
+public class HeaderProvider {
+    /**
+     * 时间戳请求头
+     */
+    public static final String HEADER_TIMESTAMP = "X-Timestamp";
+
+    /**
+     * 签名请求头
+     */
+    public static final String HEADER_SIGNATURE = "X-Signature";
+
+    /**
+     * 请求签名接口
+     */
+    public interface RequestSigner {
+        /**
+         * 计算请求签名，在OkHttp线程中调用
+         * @param request 原始请求，可读取方法、URL和请求体
+         * @param timestamp 本次请求携带的时间戳
+         * @return 签名，返回null时不添加签名请求头
+         */
+        @Nullable
+        String sign(Request request, String timestamp);
+    }
+
+    /**
+     * 固定请求头，接口上已声明的同名请求头优先
+     */
+    private static final Headers STATIC_HEADERS = new Headers.Builder()
+            // 优先接收CBOR，服务端不支持时返回JSON
+            .add("Accept", CborConverterFactory.ACCEPT)
+            .add("Content-Type", "application/json")
+            .add("X-Device-Type", "Android")
+            .add("X-App-Version", BuildConfig.VERSION_NAME)
+            .build();
+
+    private final TokenStore tokenStore;
+    private final RequestSigner signer;
+
+    /**
+     * 上一次生成的时间戳，同一毫秒内的请求直接复用
+     */
+    private volatile Stamp lastStamp = new Stamp(0L, "0");
+
+    /**
+     * 上一次生成的认证请求头，令牌不变时直接复用
+     */
+    private volatile Bearer lastBearer = new Bearer(null, null);
+
+    /**
+     * 构造函数
+     * @param tokenStore 令牌存储，为null时请求不携带认证信息
+     * @param signer 请求签名，为null时不签名
+     */
+    public HeaderProvider(@Nullable TokenStore tokenStore, @Nullable RequestSigner signer) {
+        this.tokenStore = tokenStore;
+        this.signer = signer;
+    }
+
+    /**
+     * 为请求添加公共请求头
+     * @param request 原始请求
+     * @return 添加请求头后的新请求
+     */
+    public Request apply(Request request) {
+        Headers original = request.headers();
+        Request.Builder builder = request.newBuilder();
+        if (original.size() == 0) {
+            // 大部分接口没有声明请求头，直接使用缓存的固定请求头，不再逐个校验
+            builder.headers(STATIC_HEADERS);
+        } else {
+            for (int i = 0, size = STATIC_HEADERS.size(); i < size; i++) {
+                String name = STATIC_HEADERS.name(i);
+                if (original.get(name) == null) {
+                    builder.addHeader(name, STATIC_HEADERS.value(i));
+                }
+            }
+        }
+
+        // 添加时间戳
+        String timestamp = timestamp();
+        builder.addHeader(HEADER_TIMESTAMP, timestamp);
+
+        // 添加认证token（如果有），刷新令牌的请求不携带
+        String authorization = authorization();
+        if (authorization != null && original.get(TokenAuthenticator.HEADER_AUTHORIZATION) == null
+                && !isRefreshRequest(request)) {
+            builder.addHeader(TokenAuthenticator.HEADER_AUTHORIZATION, authorization);
+        }
+
+        // 签名基于原始请求计算，结果与其他请求头一起写入，不需要再复制一次请求
+        if (signer != null) {
+            String signature = signer.sign(request, timestamp);
+            if (signature != null) {
+                builder.header(HEADER_SIGNATURE, signature);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 获取当前时间戳字符串
+     * @return 毫秒时间戳
+     */
+    private String timestamp() {
+        long now = System.currentTimeMillis();
+        Stamp stamp = lastStamp;
+        if (stamp.millis != now) {
+            stamp = new Stamp(now, Long.toString(now));
+            lastStamp = stamp;
+        }
+        return stamp.text;
+    }
+
+    /**
+     * 获取认证请求头的值
+     * @return 请求头的值，未登录时返回null
+     */
+    private String authorization() {
+        String token = tokenStore != null ? tokenStore.getAccessToken() : null;
+        if (token == null) {
+            return null;
+        }
+        Bearer bearer = lastBearer;
+        if (!token.equals(bearer.token)) {
+            bearer = new Bearer(token, TokenAuthenticator.bearer(token));
+            lastBearer = bearer;
+        }
+        return bearer.value;
+    }
+
+    /**
+     * 判断是否为刷新令牌的请求
+     * @param request 请求对象
+     * @return 是刷新请求时返回true
+     */
+    private static boolean isRefreshRequest(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation != null && "refreshToken".equals(invocation.method().getName());
+    }
+
+    private static final class Stamp {
+        final long millis;
+        final String text;
+
+        Stamp(long millis, String text) {
+            this.millis = millis;
+            this.text = text;
+        }
+    }
+
+    private static final class Bearer {
+        final String token;
+        final String value;
+
+        Bearer(String token, String value) {
+            this.token = token;
+            this.value = value;
+        }
+    }
+}
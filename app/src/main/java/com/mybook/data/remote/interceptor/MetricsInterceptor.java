@@ -0,0 +1,138 @@
+package com.mybook.data.remote.interceptor;
+
+import androidx.annotation.NonNull;
+
+import com.mybook.data.remote.NetworkMetrics;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+
+/**
+ * 请求指标拦截器
+ * 记录每个接口的耗时、状态码和响应字节数，用于替代线上环境的BODY日志
+ * 响应体只在被读取时计数，不做缓冲或复制，Gson仍直接从网络流解析
+ */
+public class MetricsInterceptor implements Interceptor {
+    private final NetworkMetrics metrics;
+
+    /**
+     * 构造函数
+     * @param metrics 指标汇总对象
+     */
+    public MetricsInterceptor(NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = endpointName(request);
+        long start = System.nanoTime();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.recordFailure(endpoint, elapsedMillis(start));
+            throw e;
+        }
+        metrics.recordResponse(endpoint, response.code(), elapsedMillis(start));
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        return response.newBuilder()
+                .body(new CountingResponseBody(body, endpoint, metrics))
+                .build();
+    }
+
+    /**
+     * 获取接口名：Retrofit请求使用ApiService的方法名，使带路径参数的地址归为同一接口
+     * @param request 请求对象
+     * @return 接口名
+     */
+    private static String endpointName(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return invocation.method().getName();
+        }
+        return request.method() + " " + request.url().encodedPath();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * 读取时计数的响应体，读取结束或关闭时记录一次字节数
+     */
+    private static class CountingResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final String endpoint;
+        private final NetworkMetrics metrics;
+        private BufferedSource source;
+
+        CountingResponseBody(ResponseBody delegate, String endpoint, NetworkMetrics metrics) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            if (source == null) {
+                source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                    private long bytesRead;
+                    private boolean recorded;
+
+                    @Override
+                    public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                        long read = super.read(sink, byteCount);
+                        if (read == -1) {
+                            record();
+                        } else {
+                            bytesRead += read;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        record();
+                        super.close();
+                    }
+
+                    private void record() {
+                        if (!recorded) {
+                            recorded = true;
+                            metrics.recordBody(endpoint, bytesRead);
+                        }
+                    }
+                });
+            }
+            return source;
+        }
+    }
+}
@@ -1,19 +1,53 @@
 package com.mybook.data.remote.interceptor;
 
+import com.mybook.data.remote.RateLimitGate;
+
 import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.IOException;
 
 /**
  * 响应拦截器
- * 用于处理公共响应和错误
+ * 用于处理公共响应和错误：服务端限流时关闭共享的限流闸门，闸门关闭期间请求在本地直接返回503
+ * 401由TokenAuthenticator在网络层刷新令牌后重发，到达这里的401说明刷新已失败
  */
 public class ResponseInterceptor implements Interceptor {
+    /**
+     * 429未携带Retry-After时的默认等待时间（毫秒）
+     */
+    private static final long DEFAULT_TOO_MANY_REQUESTS_MILLIS = 2000;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_UNAVAILABLE = 503;
+
+    private final RateLimitGate rateLimitGate;
+
+    /**
+     * 构造函数
+     * @param rateLimitGate 所有请求共享的限流闸门
+     */
+    public ResponseInterceptor(RateLimitGate rateLimitGate) {
+        this.rateLimitGate = rateLimitGate;
+    }
+
     @Override
     public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+
+        // 限流期间不发出请求，直接返回带剩余等待时间的503
+        long waitMillis = rateLimitGate.remainingMillis();
+        if (waitMillis > 0) {
+            rateLimitGate.recordBlocked();
+            return throttledResponse(request, waitMillis);
+        }
+
         // 执行请求，获取响应
-        Response response = chain.proceed(chain.request());
+        Response response = chain.proceed(request);
 
         // 处理响应
         handleResponse(response);
@@ -46,6 +80,11 @@ public class ResponseInterceptor implements Interceptor {
                 // 资源不存在
                 handleNotFound();
                 break;
+            case HTTP_TOO_MANY_REQUESTS:
+            case HTTP_UNAVAILABLE:
+                // 限流或服务暂不可用
+                handleRateLimited(response);
+                break;
             case 500:
                 // 服务器错误
                 handleServerError();
@@ -61,9 +100,8 @@ public class ResponseInterceptor implements Interceptor {
      * 处理未授权错误
      */
     private void handleUnauthorized() {
+        // 令牌刷新失败时TokenAuthenticator已清除令牌，之后的请求不再携带令牌，也不会反复刷新
         // 这里可以发送广播或事件，通知UI层需要重新登录
-        // 例如使用EventBus发送登录事件
-        // EventBus.getInstance().post(new LoginRequiredEvent());
     }
 
     /**
@@ -80,6 +118,21 @@ public class ResponseInterceptor implements Interceptor {
         // 处理资源不存在问题
     }
 
+    /**
+     * 处理限流：按Retry-After关闭闸门，之后的请求在到期前不再发往服务端
+     * 503未携带Retry-After时不关闭闸门，由重试策略退避
+     * @param response 响应对象
+     */
+    private void handleRateLimited(Response response) {
+        long retryAfterMillis = RateLimitGate.parseRetryAfter(response.headers());
+        if (retryAfterMillis < 0 && response.code() == HTTP_TOO_MANY_REQUESTS) {
+            retryAfterMillis = DEFAULT_TOO_MANY_REQUESTS_MILLIS;
+        }
+        if (retryAfterMillis > 0) {
+            rateLimitGate.block(retryAfterMillis);
+        }
+    }
+
     /**
      * 处理服务器错误
      */
@@ -94,4 +147,22 @@ public class ResponseInterceptor implements Interceptor {
     private void handleOtherError(int code) {
         // 处理其他错误
     }
-}
\ No newline at end of file
+
+    /**
+     * 构造限流期间的本地响应
+     * @param request 请求对象
+     * @param waitMillis 剩余等待时间（毫秒）
+     * @return 状态码503、带Retry-After的响应
+     */
+    private static Response throttledResponse(Request request, long waitMillis) {
+        long retryAfterSeconds = (waitMillis + 999) / 1000;
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(HTTP_UNAVAILABLE)
+                .message("Rate limited, retry after " + retryAfterSeconds + "s")
+                .header(RateLimitGate.HEADER_RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ResponseBody.create("", MediaType.get("text/plain")))
+                .build();
+    }
+}
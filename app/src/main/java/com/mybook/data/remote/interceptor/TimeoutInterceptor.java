@@ -0,0 +1,40 @@
+package com.mybook.data.remote.interceptor;
+
+import com.mybook.data.remote.api.Timeout;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口超时拦截器
+ * 读取ApiService方法上的@Timeout，只调整这一次调用的超时时间，不需要为不同接口创建多个客户端
+ * 需作为应用拦截器添加，连接超时只对之后新建的连接生效
+ */
+public class TimeoutInterceptor implements Interceptor {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Invocation invocation = request.tag(Invocation.class);
+        Timeout timeout = invocation != null ? invocation.method().getAnnotation(Timeout.class) : null;
+        if (timeout == null) {
+            return chain.proceed(request);
+        }
+
+        Chain timedChain = chain;
+        if (timeout.connect() > 0) {
+            timedChain = timedChain.withConnectTimeout(timeout.connect(), TimeUnit.MILLISECONDS);
+        }
+        if (timeout.read() > 0) {
+            timedChain = timedChain.withReadTimeout(timeout.read(), TimeUnit.MILLISECONDS);
+        }
+        if (timeout.write() > 0) {
+            timedChain = timedChain.withWriteTimeout(timeout.write(), TimeUnit.MILLISECONDS);
+        }
+        return timedChain.proceed(request);
+    }
+}
@@ -0,0 +1,128 @@
+package com.mybook.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.ListenableFutureRemoteMediator;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.LocalDataSource;
+import com.mybook.data.local.paging.FeedCursor;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.CommentPage;
+import com.mybook.data.model.RemoteKey;
+import com.mybook.data.remote.RemoteDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 帖子评论远程协调器
+ * 打开详情页时先展示本地缓存的评论，本地评论翻到底时再按服务端游标拉取下一页并写入Room
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+public class CommentRemoteMediator extends ListenableFutureRemoteMediator<FeedCursor, Comment> {
+    /**
+     * 评论列表在remote_keys表中的标识前缀，后接帖子ID
+     */
+    static final String LABEL_PREFIX = "comments:";
+
+    private final String postId;
+    private final LocalDataSource localDataSource;
+    private final RemoteDataSource remoteDataSource;
+    private final AppExecutors executors;
+
+    /**
+     * 构造函数
+     * @param postId 帖子ID
+     * @param localDataSource 本地数据源
+     * @param remoteDataSource 远程数据源
+     * @param executors 线程调度器，游标读取在读线程池执行，写库在写通道执行
+     */
+    public CommentRemoteMediator(String postId, LocalDataSource localDataSource, RemoteDataSource remoteDataSource,
+                                 AppExecutors executors) {
+        this.postId = postId;
+        this.localDataSource = localDataSource;
+        this.remoteDataSource = remoteDataSource;
+        this.executors = executors;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<InitializeAction> initializeFuture() {
+        // 先展示本地缓存，不在打开页面时阻塞等待远程刷新
+        SettableFuture<InitializeAction> future = SettableFuture.create();
+        future.set(InitializeAction.SKIP_INITIAL_REFRESH);
+        return future;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType,
+                                                       @NonNull PagingState<FeedCursor, Comment> state) {
+        SettableFuture<MediatorResult> future = SettableFuture.create();
+        if (loadType == LoadType.PREPEND) {
+            // 评论按时间升序展示，只向后翻页
+            future.set(new MediatorResult.Success(true));
+            return future;
+        }
+
+        String label = LABEL_PREFIX + postId;
+        executors.diskRead().execute(() -> {
+            try {
+                String cursor = null;
+                if (loadType == LoadType.APPEND) {
+                    RemoteKey remoteKey = localDataSource.getRemoteKey(label);
+                    if (remoteKey != null && remoteKey.getNextCursor() == null) {
+                        // 服务端已无更多评论
+                        future.set(new MediatorResult.Success(true));
+                        return;
+                    }
+                    // 尚未请求过时从第一页开始，已缓存的评论按主键去重
+                    cursor = remoteKey != null ? remoteKey.getNextCursor() : null;
+                }
+                int limit = loadType == LoadType.REFRESH
+                        ? state.getConfig().initialLoadSize
+                        : state.getConfig().pageSize;
+                fetchPage(label, cursor, limit, future);
+            } catch (Exception e) {
+                future.set(new MediatorResult.Error(e));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 请求一页远程评论，并与下一页游标一起写入本地
+     * @param label 评论列表标识
+     * @param cursor 远程游标，第一页为null
+     * @param limit 每页数量
+     * @param future 加载结果
+     */
+    private void fetchPage(String label, String cursor, int limit, SettableFuture<MediatorResult> future) {
+        remoteDataSource.getCommentPage(postId, cursor, limit, new RemoteDataSource.RemoteCallback<CommentPage>() {
+            @Override
+            public void onSuccess(CommentPage page) {
+                // 写库切换到写通道，与其他写操作串行执行
+                executors.diskWrite().execute(() -> {
+                    try {
+                        List<Comment> comments = page.getComments() != null ? page.getComments() : new ArrayList<>();
+                        localDataSource.saveCommentPage(comments, new RemoteKey(label, page.getNextCursor()));
+                        future.set(new MediatorResult.Success(page.getNextCursor() == null));
+                    } catch (Exception e) {
+                        future.set(new MediatorResult.Error(e));
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.set(new MediatorResult.Error(throwable));
+            }
+        });
+    }
+}
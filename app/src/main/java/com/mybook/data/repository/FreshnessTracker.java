@@ -0,0 +1,162 @@
+package com.mybook.data.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存新鲜度记录
+ * 记录每个资源最近一次从远程成功获取的时间，保存在SharedPreferences中，应用重启后仍然有效
+ * 内存中保留一份，判断新鲜度时不访问磁盘
+ * 帖子详情每个帖子一条记录，加载时清除超过最长保留时间的记录，数量超过上限时淘汰最早的记录
+ */
+public class FreshnessTracker {
+    private static final String PREFS_NAME = "freshness";
+
+    /**
+     * 从未获取过的资源的缓存年龄
+     */
+    public static final long NEVER_FETCHED = Long.MAX_VALUE;
+
+    /**
+     * 记录的最长保留时间（毫秒），远超各资源的新鲜期和旧数据展示时长，过期记录与从未获取过没有区别
+     */
+    static final long MAX_AGE_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * 最多保留的记录数量
+     */
+    static final int MAX_ENTRIES = 500;
+
+    private static volatile FreshnessTracker instance;
+
+    private final SharedPreferences preferences;
+    private final Map<String, Long> fetchedAt = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     * @param preferences 持久化存储，为null时只记录在内存中
+     */
+    FreshnessTracker(SharedPreferences preferences) {
+        this.preferences = preferences;
+        if (preferences == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        SharedPreferences.Editor editor = null;
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Long && now - (Long) value < MAX_AGE_MILLIS) {
+                fetchedAt.put(entry.getKey(), (Long) value);
+            } else {
+                // 过期或格式不对的记录不再有用，从磁盘上一并删除
+                if (editor == null) {
+                    editor = preferences.edit();
+                }
+                editor.remove(entry.getKey());
+            }
+        }
+        while (fetchedAt.size() > MAX_ENTRIES) {
+            String oldest = removeOldest();
+            if (editor == null) {
+                editor = preferences.edit();
+            }
+            editor.remove(oldest);
+        }
+        if (editor != null) {
+            editor.apply();
+        }
+    }
+
+    /**
+     * 获取全局共享的新鲜度记录
+     * @param context 上下文，为null时只记录在内存中
+     * @return 新鲜度记录实例
+     */
+    public static FreshnessTracker getInstance(Context context) {
+        FreshnessTracker result = instance;
+        if (result == null) {
+            synchronized (FreshnessTracker.class) {
+                result = instance;
+                if (result == null) {
+                    SharedPreferences preferences = context != null
+                            ? context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                            : null;
+                    result = instance = new FreshnessTracker(preferences);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取缓存年龄
+     * @param key 资源标识
+     * @return 距上次成功获取的毫秒数，从未获取过时返回NEVER_FETCHED
+     */
+    public long ageMillis(String key) {
+        Long time = fetchedAt.get(key);
+        if (time == null) {
+            return NEVER_FETCHED;
+        }
+        // 系统时间被调回时视为刚获取过
+        return Math.max(0L, System.currentTimeMillis() - time);
+    }
+
+    /**
+     * 记录资源刚从远程获取成功
+     * @param key 资源标识
+     */
+    public void markFetched(String key) {
+        long now = System.currentTimeMillis();
+        fetchedAt.put(key, now);
+        String evicted = fetchedAt.size() > MAX_ENTRIES ? removeOldest() : null;
+        if (preferences != null) {
+            SharedPreferences.Editor editor = preferences.edit().putLong(key, now);
+            if (evicted != null) {
+                editor.remove(evicted);
+            }
+            editor.apply();
+        }
+    }
+
+    /**
+     * 使资源失效，下次读取时重新从远程获取
+     * @param key 资源标识
+     */
+    public void invalidate(String key) {
+        fetchedAt.remove(key);
+        if (preferences != null) {
+            preferences.edit().remove(key).apply();
+        }
+    }
+
+    /**
+     * 获取记录数量
+     * @return 记录数量
+     */
+    public int size() {
+        return fetchedAt.size();
+    }
+
+    /**
+     * 从内存中删除获取时间最早的记录
+     * @return 被删除记录的资源标识
+     */
+    private synchronized String removeOldest() {
+        String oldestKey = null;
+        long oldestTime = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : fetchedAt.entrySet()) {
+            if (entry.getValue() < oldestTime) {
+                oldestTime = entry.getValue();
+                oldestKey = entry.getKey();
+            }
+        }
+        if (oldestKey != null) {
+            fetchedAt.remove(oldestKey);
+        }
+        return oldestKey;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mybook.data.repository;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.remote.RemoteDataSource;
+
+/**
+ * 以本地缓存为准、按需从远程刷新的资源
+ * 界面始终观察本地数据，远程数据写入本地后自动更新；是否访问网络取决于缓存年龄：
+ * 年龄小于ttl时缓存新鲜，不访问网络；
+ * 超过ttl但仍在staleWindow内时直接展示旧数据，同时在后台重新验证（stale-while-revalidate），状态保持SUCCESS；
+ * 超过staleWindow或本地没有数据时状态为LOADING，获取完成后变为SUCCESS，失败时为ERROR并继续携带旧数据
+ * @param <T> 数据类型
+ */
+public abstract class NetworkBoundResource<T> {
+    private final MediatorLiveData<Resource<T>> result = new MediatorLiveData<>();
+    private final String key;
+    private final long ttlMillis;
+    private final long staleWindowMillis;
+    private final FreshnessTracker freshness;
+    private final AppExecutors executors;
+
+    /**
+     * 构造函数，创建后在主线程开始读取本地数据
+     * @param key 资源标识，用于记录缓存年龄
+     * @param ttlMillis 缓存新鲜期（毫秒）
+     * @param staleWindowMillis 新鲜期之后仍可直接展示旧数据的时长（毫秒）
+     * @param freshness 缓存新鲜度记录
+     * @param executors 线程调度器
+     */
+    protected NetworkBoundResource(String key, long ttlMillis, long staleWindowMillis,
+                                   FreshnessTracker freshness, AppExecutors executors) {
+        this.key = key;
+        this.ttlMillis = ttlMillis;
+        this.staleWindowMillis = staleWindowMillis;
+        this.freshness = freshness;
+        this.executors = executors;
+        // MediatorLiveData只能在主线程添加数据源
+        executors.mainThread().execute(this::start);
+    }
+
+    /**
+     * 读取本地数据
+     * @return 本地数据的LiveData，数据库变化时自动更新
+     */
+    protected abstract LiveData<T> loadFromDb();
+
+    /**
+     * 从远程获取数据并写入本地，完成后调用callback
+     * @param callback 获取结果回调，写入本地后调用onSuccess
+     */
+    protected abstract void fetchFromNetwork(RemoteDataSource.RemoteCallback<Void> callback);
+
+    /**
+     * 远程获取失败时调用，默认打印错误
+     * @param throwable 失败原因
+     */
+    protected void onFetchFailed(Throwable throwable) {
+        throwable.printStackTrace();
+    }
+
+    /**
+     * 获取资源的LiveData
+     * @return 带加载状态的数据
+     */
+    public LiveData<Resource<T>> asLiveData() {
+        return result;
+    }
+
+    /**
+     * 读取第一份本地数据后按缓存年龄决定是否访问网络
+     */
+    private void start() {
+        LiveData<T> dbSource = loadFromDb();
+        result.addSource(dbSource, data -> {
+            result.removeSource(dbSource);
+            long age = freshness.ageMillis(key);
+            if (data != null && age < ttlMillis) {
+                // 缓存新鲜，不访问网络
+                observeDb(dbSource, Resource.Status.SUCCESS, null);
+            } else if (data != null && age - ttlMillis < staleWindowMillis) {
+                // 先展示旧数据，后台重新验证
+                observeDb(dbSource, Resource.Status.SUCCESS, null);
+                fetch(dbSource, false);
+            } else {
+                observeDb(dbSource, Resource.Status.LOADING, null);
+                fetch(dbSource, true);
+            }
+        });
+    }
+
+    /**
+     * 从远程获取数据
+     * @param dbSource 本地数据源
+     * @param blocking 界面是否在等待本次获取，为true时获取结束后更新状态
+     */
+    private void fetch(LiveData<T> dbSource, boolean blocking) {
+        RemoteDataSource.RemoteCallback<Void> callback = new RemoteDataSource.RemoteCallback<Void>() {
+            @Override
+            public void onSuccess(Void data) {
+                freshness.markFetched(key);
+                if (blocking) {
+                    executors.mainThread().execute(() -> observeDb(dbSource, Resource.Status.SUCCESS, null));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                onFetchFailed(throwable);
+                if (blocking) {
+                    executors.mainThread().execute(() -> observeDb(dbSource, Resource.Status.ERROR, throwable));
+                }
+                // 后台重新验证失败时继续展示旧数据，下次读取时再次尝试
+            }
+        };
+        try {
+            fetchFromNetwork(callback);
+        } catch (Exception e) {
+            callback.onFailure(e);
+        }
+    }
+
+    /**
+     * 以指定状态转发本地数据
+     * @param dbSource 本地数据源
+     * @param status 加载状态
+     * @param error 错误，status为ERROR时使用
+     */
+    private void observeDb(LiveData<T> dbSource, Resource.Status status, Throwable error) {
+        result.removeSource(dbSource);
+        result.addSource(dbSource, data -> {
+            switch (status) {
+                case LOADING:
+                    result.setValue(Resource.loading(data));
+                    break;
+                case ERROR:
+                    result.setValue(Resource.error(error, data));
+                    break;
+                default:
+                    result.setValue(Resource.success(data));
+                    break;
+            }
+        });
+    }
+}
@@ -0,0 +1,477 @@
+package com.mybook.data.repository;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+
+import androidx.annotation.NonNull;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.json.GsonProvider;
+import com.mybook.data.local.AppDatabase;
+import com.mybook.data.local.LocalDataSource;
+import com.mybook.data.local.LocalDataSourceImpl;
+import com.mybook.data.local.dao.OutboxDao;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.EngagementAction;
+import com.mybook.data.model.OutboxEntry;
+import com.mybook.data.model.Post;
+import com.mybook.data.remote.EngagementBatcher;
+import com.mybook.data.remote.RemoteDataSource;
+import com.mybook.data.remote.RemoteDataSourceImpl;
+import com.mybook.data.remote.error.ErrorHandler;
+import com.mybook.data.remote.error.ErrorType;
+import com.mybook.data.remote.error.NetworkException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 待发送写操作处理器
+ * 写操作先持久化到outbox表，再由本处理器按入队顺序逐个发送；连续的互动操作由EngagementBatcher合并为一次批量请求
+ * 网络、超时和服务端错误按指数退避等待，期间后面的操作不会越过它发送；网络恢复时立即重试，
+ * 尝试次数用完后放弃并回滚
+ * 服务端明确拒绝的操作只回滚这一条操作对应的本地数据，不重新加载整个信息流
+ * 出队、发送结果的处理都在写线程中执行
+ */
+public class OutboxProcessor {
+    /**
+     * 服务端错误最多尝试次数，超过后放弃并回滚
+     */
+    private static final int MAX_ATTEMPTS = 8;
+
+    /**
+     * 网络错误最多尝试次数，按退避间隔约一小时；离线时等待网络恢复，
+     * 但一条始终无法送达的操作不会永远挡住后面的操作
+     */
+    private static final int MAX_NETWORK_ATTEMPTS = 20;
+
+    /**
+     * 第一次重试前的等待时间（毫秒），之后每次翻倍
+     */
+    private static final long INITIAL_BACKOFF_MILLIS = 2000;
+
+    /**
+     * 重试等待时间上限（毫秒）
+     */
+    private static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000;
+
+    private static volatile OutboxProcessor instance;
+
+    private final OutboxDao outboxDao;
+    private final LocalDataSource localDataSource;
+    private final RemoteDataSource remoteDataSource;
+    private final AppExecutors executors;
+
+    /**
+     * 是否有请求正在发送，只在写线程中访问
+     */
+    private boolean sending;
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpAt;
+    private boolean networkCallbackRegistered;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong rolledBackCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param outboxDao Outbox DAO实例
+     * @param localDataSource 本地数据源，用于回滚
+     * @param remoteDataSource 远程数据源
+     * @param executors 线程调度器
+     */
+    public OutboxProcessor(OutboxDao outboxDao, LocalDataSource localDataSource,
+                           RemoteDataSource remoteDataSource, AppExecutors executors) {
+        this.outboxDao = outboxDao;
+        this.localDataSource = localDataSource;
+        this.remoteDataSource = remoteDataSource;
+        this.executors = executors;
+    }
+
+    /**
+     * 获取全局共享的处理器，所有页面的写操作经过同一个队列
+     * @param context 上下文
+     * @return 处理器实例，数据库初始化失败时返回null
+     */
+    public static OutboxProcessor getInstance(Context context) {
+        OutboxProcessor result = instance;
+        if (result == null) {
+            synchronized (OutboxProcessor.class) {
+                result = instance;
+                if (result == null) {
+                    AppDatabase database = AppDatabase.getInstance(context.getApplicationContext());
+                    if (database == null) {
+                        return null;
+                    }
+                    AppExecutors executors = AppExecutors.getInstance();
+                    result = instance = new OutboxProcessor(database.outboxDao(),
+                            new LocalDataSourceImpl(database, executors), new RemoteDataSourceImpl(), executors);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在后台启动全局处理器：监听网络恢复，并发送上次退出前未发送的操作
+     * @param context 上下文
+     */
+    public static void start(Context context) {
+        Context appContext = context.getApplicationContext();
+        AppExecutors.getInstance().diskWrite().execute(() -> {
+            OutboxProcessor processor = getInstance(appContext);
+            if (processor != null) {
+                processor.registerNetworkCallback(appContext);
+                processor.drainNow();
+            }
+        });
+    }
+
+    /**
+     * 入队发帖操作
+     * @param post 新帖子，需已保存到本地
+     */
+    public void enqueuePost(Post post) {
+        if (post == null) {
+            return;
+        }
+        OutboxEntry entry = new OutboxEntry(UUID.randomUUID().toString(), OutboxEntry.TYPE_ADD_POST,
+                post.getId(), post.getId(), null, 1, GsonProvider.get().toJson(post), System.currentTimeMillis());
+        executors.diskWrite().execute(() -> {
+            outboxDao.insert(entry);
+            drainNext();
+        });
+    }
+
+    /**
+     * 入队评论操作
+     * @param comment 新评论，需已保存到本地
+     */
+    public void enqueueComment(Comment comment) {
+        if (comment == null) {
+            return;
+        }
+        OutboxEntry entry = new OutboxEntry(UUID.randomUUID().toString(), OutboxEntry.TYPE_ADD_COMMENT,
+                comment.getPostId(), comment.getId(), null, 1, GsonProvider.get().toJson(comment),
+                System.currentTimeMillis());
+        executors.diskWrite().execute(() -> {
+            outboxDao.insert(entry);
+            drainNext();
+        });
+    }
+
+    /**
+     * 入队点赞或取消点赞操作，在本地切换点赞状态之后调用
+     * @param postId 帖子ID
+     * @param liked 切换后的点赞状态，为true时发送点赞，否则发送取消点赞
+     */
+    public void enqueueLike(String postId, boolean liked) {
+        enqueueEngagement(postId, EngagementAction.TYPE_LIKE, liked);
+    }
+
+    /**
+     * 入队互动操作，在合并窗口结束后发送
+     * @param postId 帖子ID
+     * @param engagementType 互动类型，取值见EngagementAction
+     */
+    public void enqueueEngagement(String postId, String engagementType) {
+        enqueueEngagement(postId, engagementType, null);
+    }
+
+    /**
+     * 入队互动操作，在合并窗口结束后发送
+     * @param postId 帖子ID
+     * @param engagementType 互动类型
+     * @param targetState 点赞操作的目标状态，其他操作为null
+     */
+    private void enqueueEngagement(String postId, String engagementType, Boolean targetState) {
+        if (postId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        OutboxEntry entry = new OutboxEntry(UUID.randomUUID().toString(), OutboxEntry.TYPE_ENGAGEMENT,
+                postId, null, engagementType, 1, null, now);
+        entry.setTargetState(targetState);
+        // 合并窗口结束前不发送，窗口内的反向操作可以直接抵消
+        entry.setNextAttemptAt(now + EngagementBatcher.WINDOW_MILLIS);
+        executors.diskWrite().execute(() -> {
+            if (outboxDao.enqueueEngagement(entry)) {
+                cancelledCount.addAndGet(2);
+            }
+            drainNext();
+        });
+    }
+
+    /**
+     * 清除退避等待并立即发送，在网络恢复时调用
+     */
+    public void drainNow() {
+        executors.diskWrite().execute(() -> {
+            outboxDao.resetBackoff();
+            drainNext();
+        });
+    }
+
+    /**
+     * 发送队首的操作，需在写线程中调用
+     * 队首操作还在等待时安排到时唤醒，不会跳过它发送后面的操作
+     */
+    private void drainNext() {
+        if (sending) {
+            return;
+        }
+        List<OutboxEntry> head = outboxDao.getHead(EngagementBatcher.MAX_BATCH_SIZE);
+        if (head.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        OutboxEntry first = head.get(0);
+        if (first.getNextAttemptAt() > now) {
+            scheduleDrain(first.getNextAttemptAt() - now);
+            return;
+        }
+
+        List<OutboxEntry> batch;
+        if (first.isEngagement()) {
+            // 连续的互动操作合并为一次请求
+            batch = EngagementBatcher.collect(head, now);
+        } else {
+            batch = Collections.singletonList(first);
+        }
+        List<Long> ids = idsOf(batch);
+        // 先记录发送次数，之后这些操作不再参与合并抵消
+        outboxDao.markAttempted(ids);
+        for (OutboxEntry entry : batch) {
+            entry.setAttempts(entry.getAttempts() + 1);
+        }
+
+        sending = true;
+        send(batch, new RemoteDataSource.RemoteCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean data) {
+                executors.diskWrite().execute(() -> {
+                    outboxDao.deleteByIds(ids);
+                    sentCount.addAndGet(batch.size());
+                    sending = false;
+                    drainNext();
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                executors.diskWrite().execute(() -> {
+                    handleFailure(batch, throwable);
+                    sending = false;
+                    drainNext();
+                });
+            }
+        });
+    }
+
+    /**
+     * 按操作类型发送
+     * @param batch 一个非互动操作，或一组互动操作
+     * @param callback 发送结果回调
+     */
+    private void send(List<OutboxEntry> batch, RemoteDataSource.RemoteCallback<Boolean> callback) {
+        OutboxEntry first = batch.get(0);
+        try {
+            switch (first.getType()) {
+                case OutboxEntry.TYPE_ADD_POST:
+                    remoteDataSource.addPost(GsonProvider.get().fromJson(first.getPayload(), Post.class),
+                            first.getIdempotencyKey(), callback);
+                    break;
+                case OutboxEntry.TYPE_ADD_COMMENT:
+                    remoteDataSource.addComment(GsonProvider.get().fromJson(first.getPayload(), Comment.class),
+                            first.getIdempotencyKey(), callback);
+                    break;
+                case OutboxEntry.TYPE_ENGAGEMENT:
+                    remoteDataSource.sendEngagements(EngagementBatcher.toBatch(batch), callback);
+                    break;
+                default:
+                    callback.onFailure(new IllegalStateException("Unknown outbox type: " + first.getType()));
+                    break;
+            }
+        } catch (RuntimeException e) {
+            // 负载无法解析等本地错误，重试次数用完后回滚
+            callback.onFailure(e);
+        }
+    }
+
+    /**
+     * 处理发送失败：可重试时退避等待，否则回滚本地数据并出队
+     * @param batch 发送失败的操作
+     * @param throwable 失败原因
+     */
+    private void handleFailure(List<OutboxEntry> batch, Throwable throwable) {
+        int attempts = batch.get(0).getAttempts();
+        NetworkException error = ErrorHandler.handleError(throwable);
+        ErrorType errorType = error.getErrorType();
+        int maxAttempts = errorType == ErrorType.NETWORK_ERROR ? MAX_NETWORK_ATTEMPTS : MAX_ATTEMPTS;
+        if (isRetryable(errorType) && attempts < maxAttempts) {
+            // 服务端限流时至少等待Retry-After要求的时间
+            long delay = Math.max(Math.min(INITIAL_BACKOFF_MILLIS << Math.min(attempts - 1, 20), MAX_BACKOFF_MILLIS),
+                    error.getRetryAfterMillis());
+            outboxDao.setNextAttemptAt(idsOf(batch), System.currentTimeMillis() + delay);
+            retryCount.incrementAndGet();
+            return;
+        }
+        throwable.printStackTrace();
+        rollback(batch);
+        outboxDao.deleteByIds(idsOf(batch));
+        rolledBackCount.addAndGet(batch.size());
+    }
+
+    /**
+     * 回滚被服务端拒绝的操作：只撤销这些操作在本地留下的数据
+     * @param batch 被拒绝的操作
+     */
+    private void rollback(List<OutboxEntry> batch) {
+        Set<String> reloadPostIds = new LinkedHashSet<>();
+        for (OutboxEntry entry : batch) {
+            switch (entry.getType()) {
+                case OutboxEntry.TYPE_ADD_POST:
+                    localDataSource.deletePost(entry.getPostId());
+                    break;
+                case OutboxEntry.TYPE_ADD_COMMENT:
+                    localDataSource.deleteComment(entry.getTargetId());
+                    break;
+                case OutboxEntry.TYPE_ENGAGEMENT:
+                    if (EngagementAction.TYPE_LIKE.equals(entry.getEngagementType())
+                            && entry.getTargetState() != null) {
+                        // 点赞已在本地乐观更新，本地仍是该操作的结果时撤销，只写入这一行；
+                        // 之后用户又切换过时保留最新的选择，由后面的操作决定服务端状态
+                        localDataSource.revertLike(entry.getPostId(), entry.getTargetState());
+                    } else {
+                        reloadPostIds.add(entry.getPostId());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        // 收藏、分享等计数以服务端为准，只重新获取涉及的帖子
+        for (String postId : reloadPostIds) {
+            remoteDataSource.getPostById(postId, new RemoteDataSource.RemoteCallback<Post>() {
+                @Override
+                public void onSuccess(Post post) {
+                    localDataSource.savePost(post);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            });
+        }
+    }
+
+    /**
+     * 判断失败是否可重试：网络、超时和服务端错误稍后可能成功；客户端错误（4xx）重试也不会成功
+     * 未知错误（如负载无法解析）也重试，次数用完后回滚
+     * @param errorType 错误类型
+     * @return 可重试时返回true
+     */
+    private static boolean isRetryable(ErrorType errorType) {
+        return errorType.isTransient() || errorType == ErrorType.UNKNOWN_ERROR;
+    }
+
+    /**
+     * 安排在指定时间后发送，已有更早的唤醒时不重复安排
+     * @param delayMillis 延迟时间（毫秒）
+     */
+    private synchronized void scheduleDrain(long delayMillis) {
+        long at = System.currentTimeMillis() + delayMillis;
+        if (wakeUp != null && !wakeUp.isDone()) {
+            if (wakeUpAt <= at) {
+                return;
+            }
+            wakeUp.cancel(false);
+        }
+        wakeUpAt = at;
+        wakeUp = executors.schedule(executors.diskWrite(), this::drainNext, delayMillis);
+    }
+
+    /**
+     * 注册网络恢复回调，网络可用时清除退避并立即发送
+     * @param context 上下文
+     */
+    private synchronized void registerNetworkCallback(Context context) {
+        if (networkCallbackRegistered) {
+            return;
+        }
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return;
+        }
+        NetworkRequest request = new NetworkRequest.Builder()
+                .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                .build();
+        try {
+            connectivityManager.registerNetworkCallback(request, new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    // 网络恢复后服务端可能已可达，关闭熔断后立即重试
+                    RemoteDataSourceImpl.onNetworkAvailable();
+                    drainNow();
+                }
+            });
+            networkCallbackRegistered = true;
+        } catch (RuntimeException e) {
+            // 缺少权限等情况下仍可依靠退避重试
+            e.printStackTrace();
+        }
+    }
+
+    private static List<Long> idsOf(List<OutboxEntry> entries) {
+        List<Long> ids = new ArrayList<>(entries.size());
+        for (OutboxEntry entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 获取发送成功的操作数
+     * @return 操作数
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * 获取重试次数
+     * @return 重试次数
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * 获取被拒绝并回滚的操作数
+     * @return 操作数
+     */
+    public long getRolledBackCount() {
+        return rolledBackCount.get();
+    }
+
+    /**
+     * 获取因切换抵消而未发送的操作数
+     * @return 操作数
+     */
+    public long getCancelledCount() {
+        return cancelledCount.get();
+    }
+}
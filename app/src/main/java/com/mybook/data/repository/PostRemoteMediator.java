@@ -0,0 +1,173 @@
+package com.mybook.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.ListenableFutureRemoteMediator;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.LocalDataSource;
+import com.mybook.data.local.paging.FeedCursor;
+import com.mybook.data.model.FeedPage;
+import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.data.model.RemoteKey;
+import com.mybook.data.remote.RemoteDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 帖子信息流远程协调器
+ * 本地缓存翻到底时按服务端游标拉取下一页并写入Room，界面始终只从本地分页读取
+ * 刷新时已有同步令牌则只增量同步变化和删除的帖子；还没有令牌时拉取第一页尽快展示，
+ * 同时在后台流式全量同步以取得令牌
+ * 首页在新鲜期内重新打开时直接展示本地缓存，跳过首屏刷新；手动下拉刷新不受影响
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+public class PostRemoteMediator extends ListenableFutureRemoteMediator<FeedCursor, PostCard> {
+    /**
+     * 信息流在remote_keys表中的标识
+     */
+    static final String FEED_LABEL = "feed";
+
+    private final LocalDataSource localDataSource;
+    private final RemoteDataSource remoteDataSource;
+    private final PostSynchronizer synchronizer;
+    private final FreshnessTracker freshness;
+    private final long ttlMillis;
+    private final AppExecutors executors;
+
+    /**
+     * 构造函数
+     * @param localDataSource 本地数据源
+     * @param remoteDataSource 远程数据源
+     * @param synchronizer 帖子同步器
+     * @param freshness 缓存新鲜度记录
+     * @param ttlMillis 信息流新鲜期（毫秒）
+     * @param executors 线程调度器，游标读取在读线程池执行，写库在写通道执行
+     */
+    public PostRemoteMediator(LocalDataSource localDataSource, RemoteDataSource remoteDataSource,
+                              PostSynchronizer synchronizer, FreshnessTracker freshness, long ttlMillis,
+                              AppExecutors executors) {
+        this.localDataSource = localDataSource;
+        this.remoteDataSource = remoteDataSource;
+        this.synchronizer = synchronizer;
+        this.freshness = freshness;
+        this.ttlMillis = ttlMillis;
+        this.executors = executors;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<InitializeAction> initializeFuture() {
+        // 缓存新鲜时不发起首屏刷新，列表直接从本地分页读取
+        SettableFuture<InitializeAction> future = SettableFuture.create();
+        future.set(freshness.ageMillis(FEED_LABEL) < ttlMillis
+                ? InitializeAction.SKIP_INITIAL_REFRESH
+                : InitializeAction.LAUNCH_INITIAL_REFRESH);
+        return future;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType,
+                                                       @NonNull PagingState<FeedCursor, PostCard> state) {
+        SettableFuture<MediatorResult> future = SettableFuture.create();
+        if (loadType == LoadType.PREPEND) {
+            // 信息流只向后翻页，新内容通过刷新获取
+            future.set(new MediatorResult.Success(true));
+            return future;
+        }
+
+        executors.diskRead().execute(() -> {
+            try {
+                if (loadType == LoadType.REFRESH) {
+                    String syncToken = synchronizer.getSyncToken();
+                    if (syncToken != null) {
+                        syncChanges(syncToken, future);
+                        return;
+                    }
+                }
+                String cursor = null;
+                if (loadType == LoadType.APPEND) {
+                    RemoteKey remoteKey = localDataSource.getRemoteKey(FEED_LABEL);
+                    if (remoteKey == null || remoteKey.getNextCursor() == null) {
+                        // 尚未刷新过或服务端已无更多数据
+                        future.set(new MediatorResult.Success(true));
+                        return;
+                    }
+                    cursor = remoteKey.getNextCursor();
+                }
+                int limit = loadType == LoadType.REFRESH
+                        ? state.getConfig().initialLoadSize
+                        : state.getConfig().pageSize;
+                fetchPage(cursor, limit, loadType == LoadType.REFRESH, future);
+            } catch (Exception e) {
+                future.set(new MediatorResult.Error(e));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 增量同步自上次令牌以来的变化，令牌过期时由同步器改为全量同步
+     * @param syncToken 同步令牌
+     * @param future 加载结果
+     */
+    private void syncChanges(String syncToken, SettableFuture<MediatorResult> future) {
+        synchronizer.syncChanges(syncToken, new RemoteDataSource.RemoteCallback<Void>() {
+            @Override
+            public void onSuccess(Void data) {
+                freshness.markFetched(FEED_LABEL);
+                // 是否还有更早的帖子由APPEND按信息流游标判断
+                future.set(new MediatorResult.Success(false));
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.set(new MediatorResult.Error(throwable));
+            }
+        });
+    }
+
+    /**
+     * 请求一页远程数据，并与下一页游标一起写入本地
+     * @param cursor 远程游标，第一页为null
+     * @param limit 每页数量
+     * @param refresh 是否为首页刷新，成功后记录信息流的获取时间
+     * @param future 加载结果
+     */
+    private void fetchPage(String cursor, int limit, boolean refresh, SettableFuture<MediatorResult> future) {
+        remoteDataSource.getFeedPage(cursor, limit, new RemoteDataSource.RemoteCallback<FeedPage>() {
+            @Override
+            public void onSuccess(FeedPage page) {
+                // 写库切换到写通道，与其他写操作串行执行
+                executors.diskWrite().execute(() -> {
+                    try {
+                        // 作者信息已由远程数据源填回，结果可能与其他调用方共享，这里不再修改
+                        List<Post> posts = page.getPosts() != null ? page.getPosts() : new ArrayList<>();
+                        localDataSource.saveFeedPage(posts, new RemoteKey(FEED_LABEL, page.getNextCursor()));
+                        if (refresh) {
+                            freshness.markFetched(FEED_LABEL);
+                            // 还没有同步令牌，后台全量同步一次，之后的刷新只拉取增量
+                            synchronizer.startFullSync();
+                        }
+                        future.set(new MediatorResult.Success(page.getNextCursor() == null));
+                    } catch (Exception e) {
+                        future.set(new MediatorResult.Error(e));
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                future.set(new MediatorResult.Error(throwable));
+            }
+        });
+    }
+}
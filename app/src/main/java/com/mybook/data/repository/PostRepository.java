@@ -1,16 +1,23 @@
 package com.mybook.data.repository;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingData;
 
+import com.mybook.data.model.Comment;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
 
 import java.util.List;
 
 public interface PostRepository {
-    LiveData<List<Post>> getPosts();
-    LiveData<Post> getPostById(String id);
+    LiveData<PagingData<PostCard>> getPagedPosts();
+    LiveData<Resource<Post>> getPostById(String id);
     void likePost(String id);
     void commentPost(String id, String comment);
+    LiveData<PagingData<Comment>> getComments(String postId);
+    void addComment(Comment comment);
     void sharePost(String id);
+    void savePost(String id);
     void addPost(Post post);
+    void seedPosts(List<Post> posts);
 }
\ No newline at end of file
@@ -1,41 +1,120 @@
 package com.mybook.data.repository;
 
+import androidx.annotation.OptIn;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
+import com.mybook.base.concurrent.AppExecutors;
 import com.mybook.data.local.AppDatabase;
 import com.mybook.data.local.LocalDataSource;
 import com.mybook.data.local.LocalDataSourceImpl;
+import com.mybook.data.local.paging.FeedCursor;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.EngagementAction;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
 import com.mybook.data.remote.RemoteDataSource;
 import com.mybook.data.remote.RemoteDataSourceImpl;
 
-import java.util.ArrayList;
+import java.text.SimpleDateFormat;
 
 import android.content.Context;
 
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.UUID;
 
 /**
  * 帖子仓库实现类
  * 实现数据仓库模式，集成本地数据源和远程数据源
  */
 public class PostRepositoryImpl implements PostRepository {
+    /**
+     * 信息流每页数量
+     */
+    private static final int FEED_PAGE_SIZE = 20;
+
+    /**
+     * 距离已加载边界多少条时预取下一页
+     */
+    private static final int FEED_PREFETCH_DISTANCE = 10;
+
+    /**
+     * 首次加载数量
+     */
+    private static final int FEED_INITIAL_LOAD_SIZE = 40;
+
+    /**
+     * 内存中最多保留的帖子数量，超出后丢弃远离可见区域的页
+     */
+    private static final int FEED_MAX_SIZE = 200;
+
+    /**
+     * 评论每页数量
+     */
+    private static final int COMMENT_PAGE_SIZE = 20;
+
+    /**
+     * 评论首次加载数量，打开详情页时一屏可见的评论
+     */
+    private static final int COMMENT_INITIAL_LOAD_SIZE = 20;
+
+    /**
+     * 内存中最多保留的评论数量，长评论串超出后丢弃远离可见区域的页
+     */
+    private static final int COMMENT_MAX_SIZE = 200;
+
+    /**
+     * 帖子详情的缓存标识前缀
+     */
+    private static final String POST_RESOURCE_KEY_PREFIX = "post:";
+
+    /**
+     * 帖子详情新鲜期（毫秒），在列表和详情之间来回切换时不重复下载
+     */
+    private static final long POST_TTL_MILLIS = 60 * 1000L;
+
+    /**
+     * 帖子详情过期后仍直接展示旧数据的时长（毫秒）
+     */
+    private static final long POST_STALE_WINDOW_MILLIS = 30 * 60 * 1000L;
+
+    /**
+     * 信息流新鲜期（毫秒），期间打开首页不再发起首屏刷新
+     */
+    private static final long FEED_TTL_MILLIS = 2 * 60 * 1000L;
+
     private final LocalDataSource localDataSource;
     private final RemoteDataSource remoteDataSource;
-    private final Executor executor;
+    private final AppExecutors executors;
+    private final OutboxProcessor outbox;
+    private final FreshnessTracker freshness;
+    private final PostSynchronizer synchronizer;
 
     /**
      * 构造函数，用于依赖注入和测试
      * @param localDataSource 本地数据源
      * @param remoteDataSource 远程数据源
+     * @param outbox 待发送写操作处理器
+     * @param freshness 缓存新鲜度记录
+     * @param executors 线程调度器
      */
-    public PostRepositoryImpl(LocalDataSource localDataSource, RemoteDataSource remoteDataSource) {
+    public PostRepositoryImpl(LocalDataSource localDataSource, RemoteDataSource remoteDataSource,
+                              OutboxProcessor outbox, FreshnessTracker freshness, AppExecutors executors) {
         this.localDataSource = localDataSource;
         this.remoteDataSource = remoteDataSource;
-        this.executor = Executors.newSingleThreadExecutor();
+        this.outbox = outbox;
+        this.freshness = freshness;
+        this.executors = executors;
+        this.synchronizer = new PostSynchronizer(localDataSource, remoteDataSource, executors);
     }
 
     /**
@@ -44,199 +123,182 @@ public class PostRepositoryImpl implements PostRepository {
      */
     public PostRepositoryImpl(Context context) {
         // 获取数据库实例
+        this.executors = AppExecutors.getInstance();
         AppDatabase database = AppDatabase.getInstance(context.getApplicationContext());
         if (database != null) {
-            this.localDataSource = new LocalDataSourceImpl(database);
+            this.localDataSource = new LocalDataSourceImpl(database, executors);
         } else {
             // 数据库初始化失败，使用null作为数据源，后续使用时需要处理null情况
             this.localDataSource = null;
         }
         this.remoteDataSource = new RemoteDataSourceImpl();
-        this.executor = Executors.newSingleThreadExecutor();
-        // 移除构造函数中的网络请求，将网络请求延迟到实际需要时再执行
-        // refreshPosts();
-    }
-
-    /**
-     * 从远程刷新帖子数据到本地
-     */
-    private void refreshPosts() {
-        remoteDataSource.getAllPosts(new RemoteDataSource.RemoteCallback<List<Post>>() {
-            public void onSuccess(List<Post> data) {
-                // 将远程数据转换为本地数据并保存
-                executor.execute(() -> {
-                    localDataSource.savePosts(data);
-                });
-            }
-
-            public void onFailure(Throwable throwable) {
-                // 远程数据获取失败，使用本地缓存
-                throwable.printStackTrace();
-            }
-        });
+        // 所有页面共享同一个待发送队列，数据库初始化失败时为null
+        this.outbox = OutboxProcessor.getInstance(context);
+        // 所有页面共享缓存年龄，来回切换页面时不重复下载
+        this.freshness = FreshnessTracker.getInstance(context);
+        // 所有页面共享同一个同步器，全量同步不会并发执行；下拉刷新时由PostRemoteMediator调用，构造函数中不发起网络请求
+        this.synchronizer = PostSynchronizer.getInstance(context);
     }
 
+    @OptIn(markerClass = ExperimentalPagingApi.class)
     @Override
-    public LiveData<List<Post>> getPosts() {
-        // 从本地数据源获取帖子列表，添加空检查
-        LiveData<List<Post>> localPosts = null;
-        if (localDataSource != null) {
-            try {
-                localPosts = localDataSource.getAllPosts();
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 本地数据获取失败，返回空的LiveData
-                return new MutableLiveData<>(new ArrayList<>());
-            }
+    public LiveData<PagingData<PostCard>> getPagedPosts() {
+        if (localDataSource == null) {
+            // 数据库初始化失败，返回空的分页数据
+            return new MutableLiveData<>(PagingData.empty());
         }
-        
-        // 同时从远程刷新数据，但添加错误处理
-        try {
-            refreshPosts();
-        } catch (Exception e) {
-            e.printStackTrace();
-            // 网络请求失败不会导致应用崩溃
-        }
-        
-        return localPosts != null ? localPosts : new MutableLiveData<>(new ArrayList<>());
+        Pager<FeedCursor, PostCard> pager = new Pager<>(
+                new PagingConfig(FEED_PAGE_SIZE, FEED_PREFETCH_DISTANCE, false, FEED_INITIAL_LOAD_SIZE, FEED_MAX_SIZE),
+                null,
+                new PostRemoteMediator(localDataSource, remoteDataSource, synchronizer, freshness,
+                        FEED_TTL_MILLIS, executors),
+                () -> localDataSource.getPostPagingSource()
+        );
+        return PagingLiveData.getLiveData(pager);
     }
 
     @Override
-    public LiveData<Post> getPostById(String id) {
-        // 优先从本地获取帖子，添加空检查
-        LiveData<Post> localPost = null;
-        if (localDataSource != null) {
-            try {
-                localPost = localDataSource.getPostById(id);
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 本地数据获取失败，返回空的LiveData
-                return new MutableLiveData<>(null);
-            }
+    public LiveData<Resource<Post>> getPostById(String id) {
+        if (localDataSource == null) {
+            // 数据库初始化失败，返回空数据
+            return new MutableLiveData<>(Resource.success(null));
         }
-        
-        // 同时从远程刷新该帖子数据
-        try {
-            remoteDataSource.getPostById(id, new RemoteDataSource.RemoteCallback<Post>() {
-                public void onSuccess(Post data) {
-                    executor.execute(() -> {
-                        if (localDataSource != null) {
-                            localDataSource.savePost(data);
-                        }
-                    });
-                }
-
-                public void onFailure(Throwable throwable) {
-                    // 远程获取失败，使用本地缓存
-                    throwable.printStackTrace();
-                }
-            });
-        } catch (Exception e) {
-            e.printStackTrace();
-            // 网络请求失败不会导致应用崩溃
-        }
-        
-        return localPost != null ? localPost : new MutableLiveData<>(null);
-    }
+        // 优先展示本地帖子，缓存过期时才从远程获取
+        return new NetworkBoundResource<Post>(POST_RESOURCE_KEY_PREFIX + id, POST_TTL_MILLIS,
+                POST_STALE_WINDOW_MILLIS, freshness, executors) {
+            @Override
+            protected LiveData<Post> loadFromDb() {
+                return localDataSource.getPostById(id);
+            }
 
-    public void likePost(String id) {
-        // 1. 先更新本地数据（乐观更新）
-        executor.execute(() -> {
-            // 2. 然后更新远程数据
-            try {
-                remoteDataSource.likePost(id, new RemoteDataSource.RemoteCallback<Boolean>() {
-                    public void onSuccess(Boolean data) {
-                        // 远程更新成功，无需额外操作
+            @Override
+            protected void fetchFromNetwork(RemoteDataSource.RemoteCallback<Void> callback) {
+                remoteDataSource.getPostById(id, new RemoteDataSource.RemoteCallback<Post>() {
+                    public void onSuccess(Post data) {
+                        // 直接在写通道中落库，写入完成后才回调，缓存不会在数据写入前被标记为新鲜
+                        executors.diskWrite().execute(() -> {
+                            try {
+                                localDataSource.savePostBatch(Collections.singletonList(data));
+                                callback.onSuccess(null);
+                            } catch (Exception e) {
+                                callback.onFailure(e);
+                            }
+                        });
                     }
 
                     public void onFailure(Throwable throwable) {
-                        // 远程更新失败，需要回滚本地数据
-                        throwable.printStackTrace();
-                        // 重新从远程获取最新数据并更新本地
-                        refreshPosts();
+                        // 远程获取失败，使用本地缓存
+                        callback.onFailure(throwable);
                     }
                 });
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 网络请求失败不会导致应用崩溃
+            }
+        }.asLiveData();
+    }
+
+    public void likePost(String id) {
+        if (localDataSource == null) {
+            return;
+        }
+        executors.diskWrite().execute(() -> {
+            // 1. 先在本地切换这一行的点赞状态（乐观更新），信息流和详情页随之刷新
+            Boolean liked = localDataSource.toggleLike(id);
+            // 2. 带着切换后的状态写入待发送队列，合并窗口内点赞又取消不会发送请求；
+            // 被服务端拒绝时只在本地仍是该状态时撤销
+            if (liked != null && outbox != null) {
+                outbox.enqueueLike(id, liked);
             }
         });
     }
 
     @Override
     public void commentPost(String id, String comment) {
-        // 1. 先更新本地数据（乐观更新）
-        executor.execute(() -> {
-            // 2. 然后更新远程数据
-            try {
-                remoteDataSource.commentPost(id, comment, new RemoteDataSource.RemoteCallback<Boolean>() {
-                    public void onSuccess(Boolean data) {
-                        // 远程更新成功，无需额外操作
-                    }
-
-                    public void onFailure(Throwable throwable) {
-                        // 远程更新失败，需要回滚本地数据
-                        throwable.printStackTrace();
-                        // 重新从远程获取最新数据并更新本地
-                        refreshPosts();
-                    }
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 网络请求失败不会导致应用崩溃
-            }
-        });
+        // 生成评论后与详情页发表评论走同一流程
+        Comment newComment = new Comment();
+        newComment.setId(UUID.randomUUID().toString());
+        newComment.setPostId(id);
+        newComment.setContent(comment);
+        newComment.setCreatedAt(currentIsoTime());
+        addComment(newComment);
     }
 
     public void sharePost(String id) {
-        // 1. 先更新本地数据（乐观更新）
-        executor.execute(() -> {
-            // 2. 然后更新远程数据
-            try {
-                remoteDataSource.sharePost(id, new RemoteDataSource.RemoteCallback<Boolean>() {
-                    public void onSuccess(Boolean data) {
-                        // 远程更新成功，无需额外操作
-                    }
+        // 分享操作写入待发送队列，与其他互动一起批量提交
+        enqueueEngagement(id, EngagementAction.TYPE_SHARE);
+    }
 
-                    public void onFailure(Throwable throwable) {
-                        // 远程更新失败，需要回滚本地数据
-                        throwable.printStackTrace();
-                        // 重新从远程获取最新数据并更新本地
-                        refreshPosts();
-                    }
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 网络请求失败不会导致应用崩溃
-            }
-        });
+    @Override
+    public void savePost(String id) {
+        // 收藏操作写入待发送队列，合并窗口内收藏又取消不会发送请求
+        enqueueEngagement(id, EngagementAction.TYPE_SAVE);
+    }
+
+    /**
+     * 将互动操作写入待发送队列
+     * @param id 帖子ID
+     * @param engagementType 互动类型
+     */
+    private void enqueueEngagement(String id, String engagementType) {
+        if (outbox != null) {
+            outbox.enqueueEngagement(id, engagementType);
+        }
+    }
+
+    @OptIn(markerClass = ExperimentalPagingApi.class)
+    @Override
+    public LiveData<PagingData<Comment>> getComments(String postId) {
+        if (localDataSource == null) {
+            // 数据库初始化失败，返回空的分页数据
+            return new MutableLiveData<>(PagingData.empty());
+        }
+        Pager<FeedCursor, Comment> pager = new Pager<>(
+                new PagingConfig(COMMENT_PAGE_SIZE, COMMENT_PAGE_SIZE / 2, false, COMMENT_INITIAL_LOAD_SIZE,
+                        COMMENT_MAX_SIZE),
+                null,
+                new CommentRemoteMediator(postId, localDataSource, remoteDataSource, executors),
+                () -> localDataSource.getCommentPagingSource(postId)
+        );
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    @Override
+    public void addComment(Comment comment) {
+        // 1. 先保存到本地，评论列表随之刷新
+        if (localDataSource != null) {
+            localDataSource.saveComment(comment);
+        }
+        // 2. 写入待发送队列，离线时等网络恢复后发送，被服务端拒绝时只删除这条评论
+        if (outbox != null) {
+            outbox.enqueueComment(comment);
+        }
     }
 
     @Override
     public void addPost(Post post) {
-        executor.execute(() -> {
-            // 1. 保存到本地数据源
-            if (localDataSource != null) {
-                localDataSource.savePost(post);
-            }
-            // 2. 保存到远程数据源
-            try {
-                remoteDataSource.addPost(post, new RemoteDataSource.RemoteCallback<Boolean>() {
-                    @Override
-                    public void onSuccess(Boolean data) {
-                        // 远程保存成功，无需额外操作
-                    }
-                    
-                    @Override
-                    public void onFailure(Throwable throwable) {
-                        // 远程保存失败，记录日志但不影响本地保存
-                        throwable.printStackTrace();
-                    }
-                });
-            } catch (Exception e) {
-                e.printStackTrace();
-                // 远程保存失败，记录日志但不影响本地保存
-            }
-        });
+        // 1. 保存到本地数据源
+        if (localDataSource != null) {
+            localDataSource.savePost(post);
+        }
+        // 2. 写入待发送队列，离线时等网络恢复后发送，被服务端拒绝时只删除这条帖子
+        if (outbox != null) {
+            outbox.enqueuePost(post);
+        }
+    }
+
+    /**
+     * 获取当前UTC时间的ISO 8601字符串，与服务端返回的createdAt格式一致
+     * @return 时间字符串
+     */
+    private static String currentIsoTime() {
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return isoFormat.format(new Date());
+    }
+
+    @Override
+    public void seedPosts(List<Post> posts) {
+        // 预置数据只补充本地缺失的帖子，不覆盖已有数据
+        if (localDataSource != null) {
+            localDataSource.savePostsIfAbsent(posts);
+        }
     }
 }
\ No newline at end of file
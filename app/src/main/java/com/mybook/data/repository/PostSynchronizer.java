@@ -0,0 +1,257 @@
+package com.mybook.data.repository;
+
+import android.content.Context;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.AppDatabase;
+import com.mybook.data.local.LocalDataSource;
+import com.mybook.data.local.LocalDataSourceImpl;
+import com.mybook.data.model.Post;
+import com.mybook.data.model.PostDelta;
+import com.mybook.data.model.RemoteKey;
+import com.mybook.data.remote.RemoteDataSource;
+import com.mybook.data.remote.RemoteDataSourceImpl;
+import com.mybook.data.remote.error.NetworkException;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 帖子同步器
+ * 有同步令牌时只拉取增量变化；令牌过期（410）或还没有令牌时以流的形式全量同步并取得新令牌
+ * 全量同步结束后删除本地存在而服务端已不存在的帖子，删除与令牌在同一事务中提交
+ * 同步令牌和删除扫描是全局的，所有页面共享同一个实例，避免两次全量同步并发执行
+ */
+public class PostSynchronizer {
+    /**
+     * 帖子同步令牌在remote_keys表中的列表标识
+     */
+    static final String SYNC_LABEL = "posts:sync";
+
+    /**
+     * 流式全量同步时每批写入的帖子数量
+     */
+    static final int REFRESH_BATCH_SIZE = 50;
+
+    private static volatile PostSynchronizer instance;
+
+    private final LocalDataSource localDataSource;
+    private final RemoteDataSource remoteDataSource;
+    private final AppExecutors executors;
+
+    /**
+     * 是否有全量同步正在进行，同一时刻只进行一次
+     */
+    private final AtomicBoolean fullSyncRunning = new AtomicBoolean();
+
+    /**
+     * 构造函数，用于依赖注入和测试
+     * @param localDataSource 本地数据源
+     * @param remoteDataSource 远程数据源
+     * @param executors 线程调度器，写库在写通道执行
+     */
+    public PostSynchronizer(LocalDataSource localDataSource, RemoteDataSource remoteDataSource,
+                            AppExecutors executors) {
+        this.localDataSource = localDataSource;
+        this.remoteDataSource = remoteDataSource;
+        this.executors = executors;
+    }
+
+    /**
+     * 获取全局共享的同步器，所有页面的同步经过同一个全量同步标记
+     * @param context 上下文
+     * @return 同步器实例，数据库初始化失败时返回null
+     */
+    public static PostSynchronizer getInstance(Context context) {
+        PostSynchronizer result = instance;
+        if (result == null) {
+            synchronized (PostSynchronizer.class) {
+                result = instance;
+                if (result == null) {
+                    AppDatabase database = AppDatabase.getInstance(context.getApplicationContext());
+                    if (database == null) {
+                        return null;
+                    }
+                    AppExecutors executors = AppExecutors.getInstance();
+                    result = instance = new PostSynchronizer(new LocalDataSourceImpl(database, executors),
+                            new RemoteDataSourceImpl(), executors);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 读取本地保存的同步令牌，需在后台线程调用
+     * @return 同步令牌，尚未全量同步过时返回null
+     */
+    public String getSyncToken() {
+        RemoteKey syncKey = localDataSource.getRemoteKey(SYNC_LABEL);
+        return syncKey != null ? syncKey.getNextCursor() : null;
+    }
+
+    /**
+     * 同步帖子：有令牌时增量同步，没有令牌时全量同步，需在后台线程调用
+     * @param callback 同步结果回调，写入本地后调用onSuccess
+     */
+    public void sync(RemoteDataSource.RemoteCallback<Void> callback) {
+        String syncToken = getSyncToken();
+        if (syncToken != null) {
+            syncChanges(syncToken, callback);
+        } else {
+            syncAll(callback);
+        }
+    }
+
+    /**
+     * 在后台开始全量同步以取得同步令牌，已有全量同步正在进行时不重复发起
+     * 失败时只打印错误，下次刷新时再次尝试
+     */
+    public void startFullSync() {
+        if (fullSyncRunning.get()) {
+            return;
+        }
+        syncAll(new RemoteDataSource.RemoteCallback<Void>() {
+            @Override
+            public void onSuccess(Void data) {
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                throwable.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * 增量同步：只拉取自上次令牌以来变化和删除的帖子，在一个事务中应用并更新令牌
+     * 令牌过期（410）时改为全量同步
+     * @param syncToken 上次同步的令牌
+     * @param callback 同步结果回调
+     */
+    public void syncChanges(String syncToken, RemoteDataSource.RemoteCallback<Void> callback) {
+        remoteDataSource.getPostChanges(syncToken, new RemoteDataSource.RemoteCallback<PostDelta>() {
+            @Override
+            public void onSuccess(PostDelta delta) {
+                // 作者信息已由远程数据源填回，结果可能与其他调用方共享，这里不再修改
+                List<Post> posts = delta.getPosts() != null ? delta.getPosts() : new ArrayList<>();
+                List<String> deletedIds = delta.getDeletedIds() != null ? delta.getDeletedIds() : new ArrayList<>();
+                // 服务端未返回新令牌时沿用旧令牌
+                String nextToken = delta.getSyncToken() != null ? delta.getSyncToken() : syncToken;
+                executors.diskWrite().execute(() -> {
+                    try {
+                        localDataSource.applySync(posts, deletedIds, new RemoteKey(SYNC_LABEL, nextToken));
+                        callback.onSuccess(null);
+                    } catch (Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                if (throwable instanceof NetworkException
+                        && ((NetworkException) throwable).getErrorCode() == HttpURLConnection.HTTP_GONE) {
+                    // 令牌过期，改为全量同步
+                    syncAll(callback);
+                    return;
+                }
+                // 远程数据获取失败，使用本地缓存
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
+    /**
+     * 全量同步
+     * 以流的形式边下载边解析，每解析满一批就提交到写线程，第一批帖子无需等待下载完成即可显示
+     * 每批提交前等待上一批写完，内存中最多保留两批帖子，另外只记录已收到的帖子ID；
+     * 全部写完后删除本次未收到的帖子并保存同步令牌，有批次写入失败时不删除也不保存令牌
+     * @param callback 同步结果回调
+     */
+    public void syncAll(RemoteDataSource.RemoteCallback<Void> callback) {
+        if (!fullSyncRunning.compareAndSet(false, true)) {
+            callback.onFailure(new IllegalStateException("Full sync already running"));
+            return;
+        }
+        RemoteDataSource.RemoteCallback<Void> done = new RemoteDataSource.RemoteCallback<Void>() {
+            @Override
+            public void onSuccess(Void data) {
+                fullSyncRunning.set(false);
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                fullSyncRunning.set(false);
+                callback.onFailure(throwable);
+            }
+        };
+
+        AtomicReference<ListenableFuture<Integer>> lastWrite = new AtomicReference<>();
+        Set<String> receivedIds = new HashSet<>();
+        try {
+            remoteDataSource.streamAllPosts(REFRESH_BATCH_SIZE, batch -> {
+                awaitWrite(lastWrite.get());
+                for (Post post : batch) {
+                    receivedIds.add(post.getId());
+                }
+                // 差量保存，未变化的帖子不会写库，也不会触发列表刷新
+                lastWrite.set(Futures.submit(() -> localDataSource.savePostBatch(batch), executors.diskWrite()));
+            }, new RemoteDataSource.RemoteCallback<String>() {
+                @Override
+                public void onSuccess(String syncToken) {
+                    try {
+                        awaitWrite(lastWrite.get());
+                    } catch (RuntimeException e) {
+                        // 有批次写入失败时不保存令牌，下次重新全量同步
+                        done.onFailure(e);
+                        return;
+                    }
+                    executors.diskWrite().execute(() -> {
+                        try {
+                            localDataSource.applyFullSync(receivedIds, new RemoteKey(SYNC_LABEL, syncToken));
+                            done.onSuccess(null);
+                        } catch (Exception e) {
+                            done.onFailure(e);
+                        }
+                    });
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    // 远程数据获取失败，使用本地缓存；已写入的批次保留
+                    done.onFailure(throwable);
+                }
+            });
+        } catch (RuntimeException e) {
+            done.onFailure(e);
+        }
+    }
+
+    /**
+     * 等待上一批写入完成
+     * @param write 上一批的写入结果，可为null
+     */
+    private static void awaitWrite(ListenableFuture<Integer> write) {
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while saving posts", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to save posts", e.getCause());
+        }
+    }
+}
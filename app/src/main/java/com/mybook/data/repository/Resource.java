@@ -0,0 +1,87 @@
+package com.mybook.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 带加载状态的数据
+ * 加载中和出错时也携带本地缓存的数据，界面可以先展示缓存
+ * @param <T> 数据类型
+ */
+public class Resource<T> {
+    /**
+     * 加载状态
+     */
+    public enum Status {
+        /**
+         * 正在从远程获取，data为本地缓存（可能为null）
+         */
+        LOADING,
+
+        /**
+         * 数据可用，可能正在后台重新验证
+         */
+        SUCCESS,
+
+        /**
+         * 远程获取失败，data为本地缓存（可能为null）
+         */
+        ERROR
+    }
+
+    @NonNull
+    private final Status status;
+    @Nullable
+    private final T data;
+    @Nullable
+    private final Throwable error;
+
+    private Resource(@NonNull Status status, @Nullable T data, @Nullable Throwable error) {
+        this.status = status;
+        this.data = data;
+        this.error = error;
+    }
+
+    /**
+     * 创建加载中状态
+     * @param data 本地缓存的数据
+     * @return Resource对象
+     */
+    public static <T> Resource<T> loading(@Nullable T data) {
+        return new Resource<>(Status.LOADING, data, null);
+    }
+
+    /**
+     * 创建成功状态
+     * @param data 数据
+     * @return Resource对象
+     */
+    public static <T> Resource<T> success(@Nullable T data) {
+        return new Resource<>(Status.SUCCESS, data, null);
+    }
+
+    /**
+     * 创建出错状态
+     * @param error 错误
+     * @param data 本地缓存的数据
+     * @return Resource对象
+     */
+    public static <T> Resource<T> error(@NonNull Throwable error, @Nullable T data) {
+        return new Resource<>(Status.ERROR, data, error);
+    }
+
+    @NonNull
+    public Status getStatus() {
+        return status;
+    }
+
+    @Nullable
+    public T getData() {
+        return data;
+    }
+
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+}
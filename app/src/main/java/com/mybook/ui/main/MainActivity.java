@@ -4,6 +4,9 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.databinding.DataBindingUtil;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
@@ -19,11 +22,12 @@ import android.widget.Toast;
 
 import com.mybook.R;
 import com.mybook.databinding.ActivityMainBinding;
-import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.ui.main.adapters.FeedLoadStateAdapter;
 import com.mybook.ui.main.adapters.PostAdapter;
+import com.mybook.ui.main.adapters.SkeletonAdapter;
 
-import java.util.ArrayList;
-import java.util.List;
+import kotlin.Unit;
 
 /**
  * 应用主界面
@@ -33,9 +37,8 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
     private ActivityMainBinding binding;
     private MainViewModel viewModel;
     private PostAdapter postAdapter;
-    private List<Post> posts = new ArrayList<>();
-    private boolean isLoading = false;
-    private boolean hasMore = true;
+    private SkeletonAdapter skeletonAdapter;
+    private FeedLoadStateAdapter loadStateAdapter;
     
     // 广播接收器，用于接收帖子发布成功的广播
     private BroadcastReceiver refreshPostsReceiver = new BroadcastReceiver() {
@@ -72,14 +75,11 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
         observePosts();
         
         // 观察加载状态
-        observeLoading();
+        observeLoadStates();
         
         // 观察错误信息
         observeError();
         
-        // 初始加载数据
-        loadPosts();
-        
         // 注册广播接收器，接收帖子发布成功的广播
         IntentFilter filter = new IntentFilter("com.mybook.ACTION_REFRESH_POSTS");
         registerReceiver(refreshPostsReceiver, filter);
@@ -125,13 +125,15 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
         // 设置布局管理器
         binding.postRecyclerView.setLayoutManager(layoutManager);
         
-        // 创建适配器
-        postAdapter = new PostAdapter(this, posts, this);
+        // 创建适配器：骨架屏、分页帖子和底部加载状态依次组合
+        postAdapter = new PostAdapter(this, this);
+        skeletonAdapter = new SkeletonAdapter(this);
+        loadStateAdapter = new FeedLoadStateAdapter(this, () -> postAdapter.retry());
         
         // 设置适配器
-        binding.postRecyclerView.setAdapter(postAdapter);
+        binding.postRecyclerView.setAdapter(new ConcatAdapter(skeletonAdapter, postAdapter, loadStateAdapter));
         
-        // 设置滚动监听器，实现上拉加载更多和滑动时暂停加载
+        // 设置滚动监听器，实现滑动时暂停加载，上拉加载更多由分页库按预取距离自动触发
         binding.postRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
             public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
@@ -148,13 +150,6 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
                     // 正在滚动，暂停图片加载
                     com.bumptech.glide.Glide.with(MainActivity.this).pauseRequests();
                 }
-                
-                // 当滚动停止且有更多数据时，加载更多
-                if (!recyclerView.canScrollVertically(1) && newState == RecyclerView.SCROLL_STATE_IDLE) {
-                    if (!isLoading && hasMore) {
-                        loadMorePosts();
-                    }
-                }
             }
             
             @Override
@@ -201,37 +196,49 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
      * 观察帖子数据
      */
     private void observePosts() {
-        viewModel.getPosts().observe(this, postList -> {
-            // 隐藏骨架屏
-            postAdapter.setShowingSkeleton(false);
-            
-            if (postList != null) {
-                posts.clear();
-                posts.addAll(postList);
-                postAdapter.updatePosts(posts);
-                
-                // 显示/隐藏空数据状态
-                updateEmptyState();
-                
-                // 隐藏网络错误状态
-                binding.networkErrorLayout.setVisibility(View.GONE);
-            } else {
-                // 显示空数据状态
-                updateEmptyState();
-            }
+        viewModel.getPagedPosts().observe(this, pagingData -> {
+            postAdapter.submitData(getLifecycle(), pagingData);
         });
     }
 
     /**
      * 观察加载状态
      */
-    private void observeLoading() {
-        viewModel.getIsLoading().observe(this, isLoading -> {
-            this.isLoading = isLoading;
-            binding.swipeRefreshLayout.setRefreshing(isLoading);
+    private void observeLoadStates() {
+        postAdapter.addLoadStateListener(loadStates -> {
+            renderLoadStates(loadStates);
+            return Unit.INSTANCE;
         });
     }
 
+    /**
+     * 根据分页加载状态更新骨架屏、下拉刷新、底部状态和空数据/错误状态
+     * @param loadStates 分页加载状态
+     */
+    private void renderLoadStates(CombinedLoadStates loadStates) {
+        LoadState refresh = loadStates.getRefresh();
+        boolean isRefreshing = refresh instanceof LoadState.Loading;
+        boolean isEmpty = postAdapter.getItemCount() == 0;
+        
+        // 首次加载且无缓存时显示骨架屏，否则使用下拉刷新指示器
+        skeletonAdapter.setShowing(isRefreshing && isEmpty);
+        binding.swipeRefreshLayout.setRefreshing(isRefreshing && !isEmpty);
+        
+        // 更新底部加载更多状态
+        loadStateAdapter.setLoadState(loadStates.getAppend());
+        
+        // 刷新失败且无缓存时显示网络错误状态
+        boolean showError = refresh instanceof LoadState.Error && isEmpty;
+        binding.networkErrorLayout.setVisibility(showError ? View.VISIBLE : View.GONE);
+        
+        // 显示/隐藏空数据状态
+        if (!isRefreshing && !showError) {
+            updateEmptyState();
+        } else {
+            binding.emptyStateLayout.setVisibility(View.GONE);
+        }
+    }
+
     /**
      * 观察错误信息
      */
@@ -253,71 +260,18 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
         });
     }
 
-    /**
-     * 初始加载数据
-     */
-    private void loadPosts() {
-        // 显示骨架屏
-        postAdapter.setShowingSkeleton(true);
-        viewModel.getPosts();
-    }
-
     /**
      * 刷新数据
      */
     private void refreshPosts() {
-        // 重置加载状态
-        hasMore = true;
-        
-        // 显示骨架屏
-        postAdapter.setShowingSkeleton(true);
-        
-        // 加载数据
-        loadPosts();
-    }
-
-    /**
-     * 加载更多数据
-     */
-    private void loadMorePosts() {
-        if (isLoading || !hasMore) {
-            return;
-        }
-        
-        // 设置加载更多状态
-        postAdapter.setLoadingMore(true);
-        isLoading = true;
-        
-        // 模拟加载更多数据
-        // 这里将在后续实现中替换为实际的加载更多逻辑
-        new Thread(() -> {
-            try {
-                // 模拟网络请求延迟
-                Thread.sleep(2000);
-                
-                // 运行在主线程
-                runOnUiThread(() -> {
-                    // 取消加载更多状态
-                    postAdapter.setLoadingMore(false);
-                    isLoading = false;
-                    
-                    // 模拟没有更多数据
-                    hasMore = false;
-                    
-                    // 显示没有更多数据提示
-                    Toast.makeText(this, getString(R.string.no_more_data), Toast.LENGTH_SHORT).show();
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+        postAdapter.refresh();
     }
 
     /**
      * 更新空数据状态
      */
     private void updateEmptyState() {
-        if (posts.isEmpty()) {
+        if (postAdapter.getItemCount() == 0) {
             // 显示空数据状态
             binding.emptyStateLayout.setVisibility(View.VISIBLE);
         } else {
@@ -328,10 +282,10 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
 
     /**
      * 帖子点击事件
-     * @param post 帖子对象
+     * @param post 帖子卡片
      */
     @Override
-    public void onPostClick(Post post) {
+    public void onPostClick(PostCard post) {
         try {
             // 添加详细日志
             Log.d("MainActivity", "onPostClick called");
@@ -363,25 +317,14 @@ public class MainActivity extends AppCompatActivity implements PostAdapter.OnPos
 
     /**
      * 点赞点击事件
-     * @param post 帖子对象
+     * @param post 帖子卡片
      */
     @Override
-    public void onLikeClick(Post post) {
+    public void onLikeClick(PostCard post) {
         // 处理点赞逻辑
         viewModel.likePost(post.getId());
         Toast.makeText(this, "点赞：" + post.getId(), Toast.LENGTH_SHORT).show();
     }
-
-
-
-    /**
-     * 加载更多事件
-     */
-    @Override
-    public void onLoadMore() {
-        // 加载更多数据
-        loadMorePosts();
-    }
     
     @Override
     protected void onDestroy() {
@@ -3,49 +3,41 @@ package com.mybook.ui.main;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
+import com.mybook.base.concurrent.AppExecutors;
 import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
 import com.mybook.data.repository.PostRepository;
 import com.mybook.data.repository.PostRepositoryImpl;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 public class MainViewModel extends AndroidViewModel {
     private final PostRepository postRepository;
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
-    private final MutableLiveData<List<Post>> postsLiveData = new MutableLiveData<>();
-    private final Executor executor = Executors.newSingleThreadExecutor();
-    private List<Post> allPosts = new ArrayList<>(); // 保存所有帖子数据
+    private final LiveData<PagingData<PostCard>> pagedPosts;
+    private final AppExecutors executors = AppExecutors.getInstance();
 
     public MainViewModel(android.app.Application application) {
         super(application);
         this.postRepository = new PostRepositoryImpl(application);
+        this.pagedPosts = PagingLiveData.cachedIn(postRepository.getPagedPosts(), ViewModelKt.getViewModelScope(this));
         // 初始化模拟数据
         initMockData();
     }
 
     /**
      * 初始化模拟数据
+     * 预置到本地缓存，信息流通过分页数据源从本地读取
      */
     private void initMockData() {
-        executor.execute(() -> {
-            // 模拟网络延迟
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            
-            // 创建模拟帖子数据
-            allPosts = createMockPosts();
-            
-            // 更新LiveData
-            postsLiveData.postValue(allPosts);
-        });
+        // 生成数据在计算线程池执行，写库由本地数据源交给写通道
+        executors.compute().execute(() -> postRepository.seedPosts(createMockPosts()));
     }
 
     /**
@@ -96,31 +88,11 @@ public class MainViewModel extends AndroidViewModel {
     }
 
     /**
-     * 获取帖子列表
-     * @return 帖子列表的LiveData
+     * 获取分页帖子列表
+     * @return 分页帖子数据的LiveData，已缓存在ViewModel作用域内，配置变更后无需重新加载
      */
-    public LiveData<List<Post>> getPosts() {
-        isLoading.setValue(true);
-        
-        // 模拟网络请求，延迟1秒后返回数据
-        executor.execute(() -> {
-            try {
-                Thread.sleep(1000);
-                // 如果allPosts为空，则重新创建模拟数据
-                if (allPosts.isEmpty()) {
-                    allPosts = createMockPosts();
-                }
-                // 每次调用都更新LiveData，确保新帖子能立即显示
-                postsLiveData.postValue(new ArrayList<>(allPosts));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                errorMessage.postValue("获取帖子失败：" + e.getMessage());
-            } finally {
-                isLoading.postValue(false);
-            }
-        });
-        
-        return postsLiveData;
+    public LiveData<PagingData<PostCard>> getPagedPosts() {
+        return pagedPosts;
     }
     
     /**
@@ -128,17 +100,11 @@ public class MainViewModel extends AndroidViewModel {
      * @param post 新帖子对象
      */
     public void addPost(Post post) {
-        executor.execute(() -> {
+        executors.compute().execute(() -> {
             try {
                 isLoading.postValue(true);
                 
-                // 添加新帖子到列表开头
-                allPosts.add(0, post);
-                
-                // 更新LiveData，创建新的ArrayList确保数据引用变化，触发UI刷新
-                postsLiveData.postValue(new ArrayList<>(allPosts));
-                
-                // 保存到本地数据库
+                // 保存到本地数据库，信息流数据源随之失效并自动刷新
                 postRepository.addPost(post);
             } catch (Exception e) {
                 errorMessage.postValue("发布帖子失败：" + e.getMessage());
@@ -156,27 +122,16 @@ public class MainViewModel extends AndroidViewModel {
         return errorMessage;
     }
 
+    /**
+     * 点赞或取消点赞帖子
+     * 本地只更新这一行，列表由分页数据源刷新对应的卡片，不复制整个列表
+     * @param postId 帖子ID
+     */
     public void likePost(String postId) {
         try {
-            isLoading.setValue(true);
-            // 模拟点赞操作，更新本地数据
-            List<Post> currentPosts = postsLiveData.getValue();
-            if (currentPosts != null) {
-                for (Post post : currentPosts) {
-                    if (post.getId().equals(postId)) {
-                        post.setLiked(!post.isLiked());
-                        post.setLikes(post.getLikes() + (post.isLiked() ? 1 : -1));
-                        break;
-                    }
-                }
-                // 更新LiveData
-                postsLiveData.setValue(new ArrayList<>(currentPosts));
-            }
             postRepository.likePost(postId);
         } catch (Exception e) {
             errorMessage.setValue("点赞失败：" + e.getMessage());
-        } finally {
-            isLoading.setValue(false);
         }
     }
 
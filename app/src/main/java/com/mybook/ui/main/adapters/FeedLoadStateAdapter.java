@@ -0,0 +1,98 @@
+package com.mybook.ui.main.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.paging.LoadState;
+import androidx.paging.LoadStateAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import com.mybook.R;
+
+/**
+ * 信息流底部加载状态适配器
+ * 根据向后翻页的加载状态显示加载中、加载失败或没有更多数据
+ */
+public class FeedLoadStateAdapter extends LoadStateAdapter<FeedLoadStateAdapter.LoadStateViewHolder> {
+
+    private Context mContext;
+    private Runnable mRetryAction;
+
+    /**
+     * 构造函数
+     * @param context 上下文
+     * @param retryAction 加载失败后点击重试的操作
+     */
+    public FeedLoadStateAdapter(Context context, Runnable retryAction) {
+        this.mContext = context;
+        this.mRetryAction = retryAction;
+    }
+
+    @Override
+    public boolean displayLoadStateAsItem(@NonNull LoadState loadState) {
+        // 除加载中和加载失败外，翻到底时也显示提示
+        return super.displayLoadStateAsItem(loadState)
+                || (loadState instanceof LoadState.NotLoading && loadState.getEndOfPaginationReached());
+    }
+
+    @NonNull
+    @Override
+    public LoadStateViewHolder onCreateViewHolder(@NonNull ViewGroup parent, @NonNull LoadState loadState) {
+        View view = LayoutInflater.from(mContext).inflate(R.layout.item_loading, parent, false);
+        // 底部状态项横跨两列
+        ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+        if (layoutParams instanceof StaggeredGridLayoutManager.LayoutParams) {
+            ((StaggeredGridLayoutManager.LayoutParams) layoutParams).setFullSpan(true);
+        }
+        return new LoadStateViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull LoadStateViewHolder holder, @NonNull LoadState loadState) {
+        holder.bind(loadState);
+    }
+
+    /**
+     * 加载状态项ViewHolder
+     */
+    class LoadStateViewHolder extends RecyclerView.ViewHolder {
+        TextView loadingText;
+        ProgressBar loadingProgress;
+
+        LoadStateViewHolder(@NonNull View itemView) {
+            super(itemView);
+            loadingText = itemView.findViewById(R.id.loading_text);
+            loadingProgress = itemView.findViewById(R.id.loading_progress);
+        }
+
+        /**
+         * 绑定加载状态
+         * @param loadState 加载状态
+         */
+        void bind(LoadState loadState) {
+            if (loadState instanceof LoadState.Loading) {
+                loadingText.setText(mContext.getString(R.string.loading_more));
+                loadingProgress.setVisibility(View.VISIBLE);
+                itemView.setOnClickListener(null);
+            } else if (loadState instanceof LoadState.Error) {
+                loadingText.setText(mContext.getString(R.string.load_more_failed));
+                loadingProgress.setVisibility(View.GONE);
+                itemView.setOnClickListener(v -> {
+                    if (mRetryAction != null) {
+                        mRetryAction.run();
+                    }
+                });
+            } else {
+                loadingText.setText(mContext.getString(R.string.no_more_data));
+                loadingProgress.setVisibility(View.GONE);
+                itemView.setOnClickListener(null);
+            }
+        }
+    }
+}
@@ -8,144 +8,78 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.mybook.R;
-import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.data.model.PostImage;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
 /**
  * 帖子适配器
- * 用于RecyclerView展示帖子数据，支持双列瀑布流布局
+ * 用于RecyclerView展示分页帖子数据，支持双列瀑布流布局
  */
-public class PostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+public class PostAdapter extends PagingDataAdapter<PostCard, PostAdapter.PostViewHolder> {
 
-    // 数据类型常量
-    private static final int TYPE_ITEM = 0; // 帖子项
-    private static final int TYPE_LOADING = 1; // 加载更多项
-    private static final int TYPE_SKELETON = 2; // 骨架屏项
-
-    private List<Post> mPosts;
     private Context mContext;
     private OnPostClickListener mListener;
-    private boolean isLoadingMore = false;
     private boolean isScrolling = false;
-    private boolean isShowingSkeleton = false;
-    private static final int SKELETON_COUNT = 6; // 骨架屏数量
+
+    /**
+     * 帖子卡片差异比较，卡片投影只包含展示字段，直接比较内容即可
+     */
+    private static final DiffUtil.ItemCallback<PostCard> DIFF_CALLBACK = new DiffUtil.ItemCallback<PostCard>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull PostCard oldItem, @NonNull PostCard newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull PostCard oldItem, @NonNull PostCard newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
 
     /**
      * 点击事件监听器
      */
     public interface OnPostClickListener {
-        void onPostClick(Post post);
-        void onLikeClick(Post post);
-        void onLoadMore();
+        void onPostClick(PostCard post);
+        void onLikeClick(PostCard post);
     }
 
     /**
      * 构造函数
      * @param context 上下文
-     * @param posts 帖子列表
      * @param listener 点击事件监听器
      */
-    public PostAdapter(Context context, List<Post> posts, OnPostClickListener listener) {
+    public PostAdapter(Context context, OnPostClickListener listener) {
+        super(DIFF_CALLBACK);
         this.mContext = context;
-        this.mPosts = posts;
         this.mListener = listener;
     }
 
     @NonNull
     @Override
-    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        if (viewType == TYPE_ITEM) {
-            // 创建帖子项ViewHolder
-            View view = LayoutInflater.from(mContext).inflate(R.layout.item_post, parent, false);
-            return new PostViewHolder(view);
-        } else if (viewType == TYPE_LOADING) {
-            // 创建加载更多项ViewHolder
-            View view = LayoutInflater.from(mContext).inflate(R.layout.item_loading, parent, false);
-            return new LoadingViewHolder(view);
-        } else {
-            // 创建骨架屏项ViewHolder
-            View view = LayoutInflater.from(mContext).inflate(R.layout.item_post_skeleton, parent, false);
-            return new SkeletonViewHolder(view);
-        }
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        if (holder instanceof PostViewHolder) {
-            // 绑定帖子数据
-            Post post = mPosts.get(position);
-            PostViewHolder postViewHolder = (PostViewHolder) holder;
-            postViewHolder.bind(post);
-        } else if (holder instanceof LoadingViewHolder) {
-            // 绑定加载更多数据
-            LoadingViewHolder loadingViewHolder = (LoadingViewHolder) holder;
-            loadingViewHolder.bind();
-        } else if (holder instanceof SkeletonViewHolder) {
-            // 骨架屏不需要绑定数据，只需要显示动画
-        }
+    public PostViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // 创建帖子项ViewHolder
+        View view = LayoutInflater.from(mContext).inflate(R.layout.item_post, parent, false);
+        return new PostViewHolder(view);
     }
 
     @Override
-    public int getItemCount() {
-        if (isShowingSkeleton) {
-            return SKELETON_COUNT;
+    public void onBindViewHolder(@NonNull PostViewHolder holder, int position) {
+        // 绑定帖子数据，未开启占位符时数据不会为null，这里仍做保护
+        PostCard post = getItem(position);
+        if (post != null) {
+            holder.bind(post);
         }
-        return mPosts == null ? 0 : mPosts.size() + (isLoadingMore ? 1 : 0);
-    }
-
-    @Override
-    public int getItemViewType(int position) {
-        // 显示骨架屏时返回骨架屏类型
-        if (isShowingSkeleton) {
-            return TYPE_SKELETON;
-        }
-        // 最后一项且正在加载更多时，返回加载更多类型
-        return (position == mPosts.size() && isLoadingMore) ? TYPE_LOADING : TYPE_ITEM;
-    }
-
-    /**
-     * 设置加载更多状态
-     * @param isLoadingMore 是否正在加载更多
-     */
-    public void setLoadingMore(boolean isLoadingMore) {
-        this.isLoadingMore = isLoadingMore;
-        notifyDataSetChanged();
-    }
-
-    /**
-     * 添加帖子列表
-     * @param posts 要添加的帖子列表
-     */
-    public void addPosts(List<Post> posts) {
-        int startPosition = mPosts.size();
-        mPosts.addAll(posts);
-        notifyItemRangeInserted(startPosition, posts.size());
-    }
-
-    /**
-     * 更新帖子列表
-     * @param posts 新的帖子列表
-     */
-    public void updatePosts(List<Post> posts) {
-        mPosts = posts;
-        notifyDataSetChanged();
-    }
-    
-    /**
-     * 设置骨架屏显示状态
-     * @param isShowingSkeleton 是否显示骨架屏
-     */
-    public void setShowingSkeleton(boolean isShowingSkeleton) {
-        this.isShowingSkeleton = isShowingSkeleton;
-        notifyDataSetChanged();
     }
 
     /**
@@ -178,25 +112,27 @@ public class PostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
             // 设置点击事件
             itemView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && mListener != null) {
-                    mListener.onPostClick(mPosts.get(position));
+                int position = getBindingAdapterPosition();
+                PostCard post = position != RecyclerView.NO_POSITION ? getItem(position) : null;
+                if (post != null && mListener != null) {
+                    mListener.onPostClick(post);
                 }
             });
 
             likeButton.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && mListener != null) {
-                    mListener.onLikeClick(mPosts.get(position));
+                int position = getBindingAdapterPosition();
+                PostCard post = position != RecyclerView.NO_POSITION ? getItem(position) : null;
+                if (post != null && mListener != null) {
+                    mListener.onLikeClick(post);
                 }
             });
         }
 
         /**
          * 绑定帖子数据
-         * @param post 帖子对象
+         * @param post 帖子卡片
          */
-        void bind(Post post) {
+        void bind(PostCard post) {
             // 设置用户头像
             Glide.with(mContext)
                     .load(post.getAvatar())
@@ -211,10 +147,18 @@ public class PostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             postContent.setText(post.getContent());
 
             // 设置帖子图片
-            if (post.getImages() != null && !post.getImages().isEmpty()) {
+            PostImage cover = post.getCover();
+            if (cover != null) {
                 // 计算图片宽度（双列瀑布流）
                 int screenWidth = mContext.getResources().getDisplayMetrics().widthPixels;
                 int imageWidth = (screenWidth - mContext.getResources().getDimensionPixelSize(R.dimen.grid_spacing) * 3) / 2;
+
+                // 已知图片尺寸时按比例预设高度，避免图片解码后卡片高度跳变
+                ViewGroup.LayoutParams params = postImage.getLayoutParams();
+                params.height = cover.hasSize()
+                        ? (int) ((long) imageWidth * cover.getHeight() / cover.getWidth())
+                        : ViewGroup.LayoutParams.WRAP_CONTENT;
+                postImage.setLayoutParams(params);
                 
                 // 使用Glide加载图片并设置自适应高度
                 // 滚动时加载低分辨率图片，停止滚动时加载高分辨率图片
@@ -234,7 +178,7 @@ public class PostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
                 }
                 
                 Glide.with(mContext)
-                        .load(post.getImages().get(0))
+                        .load(cover.getUrl())
                         .apply(options)
                         .into(postImage);
             }
@@ -269,36 +213,4 @@ public class PostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
             return dateString;
         }
     }
-
-    /**
-     * 加载更多项ViewHolder
-     */
-    class LoadingViewHolder extends RecyclerView.ViewHolder {
-        TextView loadingText;
-
-        LoadingViewHolder(@NonNull View itemView) {
-            super(itemView);
-            loadingText = itemView.findViewById(R.id.loading_text);
-        }
-
-        /**
-         * 绑定加载更多数据
-         */
-        void bind() {
-            loadingText.setText(mContext.getString(R.string.loading_more));
-            // 触发加载更多
-            if (mListener != null) {
-                mListener.onLoadMore();
-            }
-        }
-    }
-    
-    /**
-     * 骨架屏项ViewHolder
-     */
-    class SkeletonViewHolder extends RecyclerView.ViewHolder {
-        SkeletonViewHolder(@NonNull View itemView) {
-            super(itemView);
-        }
-    }
 }
\ No newline at end of file
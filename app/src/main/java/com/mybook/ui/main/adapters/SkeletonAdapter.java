@@ -0,0 +1,73 @@
+package com.mybook.ui.main.adapters;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mybook.R;
+
+/**
+ * 骨架屏适配器
+ * 首次加载且列表为空时显示占位骨架，与帖子适配器组合使用
+ */
+public class SkeletonAdapter extends RecyclerView.Adapter<SkeletonAdapter.SkeletonViewHolder> {
+
+    private static final int SKELETON_COUNT = 6; // 骨架屏数量
+
+    private Context mContext;
+    private boolean isShowing = false;
+
+    /**
+     * 构造函数
+     * @param context 上下文
+     */
+    public SkeletonAdapter(Context context) {
+        this.mContext = context;
+    }
+
+    @NonNull
+    @Override
+    public SkeletonViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(mContext).inflate(R.layout.item_post_skeleton, parent, false);
+        return new SkeletonViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SkeletonViewHolder holder, int position) {
+        // 骨架屏不需要绑定数据，只需要显示动画
+    }
+
+    @Override
+    public int getItemCount() {
+        return isShowing ? SKELETON_COUNT : 0;
+    }
+
+    /**
+     * 设置骨架屏显示状态
+     * @param isShowing 是否显示骨架屏
+     */
+    public void setShowing(boolean isShowing) {
+        if (this.isShowing == isShowing) {
+            return;
+        }
+        this.isShowing = isShowing;
+        if (isShowing) {
+            notifyItemRangeInserted(0, SKELETON_COUNT);
+        } else {
+            notifyItemRangeRemoved(0, SKELETON_COUNT);
+        }
+    }
+
+    /**
+     * 骨架屏项ViewHolder
+     */
+    static class SkeletonViewHolder extends RecyclerView.ViewHolder {
+        SkeletonViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
@@ -31,8 +31,12 @@ import com.mybook.ui.main.MainViewModel;
 
 import java.io.File;
 import java.io.IOException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * 发布新帖子的Activity
@@ -317,7 +321,7 @@ public class PostActivity extends AppCompatActivity {
                 false,
                 false,
                 0,
-                "2025-12-04T12:00:00Z"
+                currentIsoTime()
         );
 
         // 添加新帖子到数据源
@@ -334,6 +338,17 @@ public class PostActivity extends AppCompatActivity {
         finish();
     }
 
+    /**
+     * 获取当前时间的ISO格式字符串（UTC）
+     * 信息流按创建时间排序，新帖子需使用真实发布时间才能显示在最前面
+     * @return ISO格式的时间字符串
+     */
+    private String currentIsoTime() {
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return isoFormat.format(new Date());
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
@@ -1,7 +1,13 @@
 package com.mybook.ui.post;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
 
 import android.content.Intent;
 import android.os.Bundle;
@@ -18,10 +24,15 @@ import com.google.android.material.appbar.MaterialToolbar;
 import com.mybook.R;
 import com.mybook.data.model.Comment;
 import com.mybook.data.model.Post;
+import com.mybook.data.repository.Resource;
+import com.mybook.ui.main.adapters.FeedLoadStateAdapter;
 import com.mybook.util.ToastUtil;
 
-import java.util.ArrayList;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * 帖子详情页Activity
@@ -51,12 +62,16 @@ public class PostDetailActivity extends AppCompatActivity {
     private ImageView sendButton;
     private androidx.recyclerview.widget.RecyclerView commentsRecyclerView;
     
+    private View postHeader;
+
     private MediaAdapter mediaAdapter;
     private CommentAdapter commentAdapter;
-    private List<Comment> comments = new ArrayList<>();
+    private PostDetailViewModel viewModel;
 
     private String postId;
     private Post currentPost;
+    // 发表评论后，新评论写入本地并出现在列表中时滚动到该评论
+    private boolean scrollToLatestComment;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -73,8 +88,11 @@ public class PostDetailActivity extends AppCompatActivity {
             // 获取帖子ID
             getPostIdFromIntent();
 
-            // 加载帖子详情
+            // 加载帖子详情和评论
+            viewModel = new ViewModelProvider(this).get(PostDetailViewModel.class);
+            viewModel.init(postId);
             loadPostDetail();
+            loadComments();
         } catch (Exception e) {
             e.printStackTrace();
             ToastUtil.showShort(this, "页面初始化失败，请返回重试");
@@ -91,22 +109,32 @@ public class PostDetailActivity extends AppCompatActivity {
         toolbarUserName = findViewById(R.id.toolbar_user_name);
         toolbarFollowButton = findViewById(R.id.toolbar_follow_button);
         toolbarShareButton = findViewById(R.id.toolbar_share_button);
-        
-        postTime = findViewById(R.id.post_time);
-        postTitle = findViewById(R.id.post_title);
-        postContent = findViewById(R.id.post_content);
-        mediaViewPager = findViewById(R.id.media_view_pager);
-        imageIndicator = findViewById(R.id.image_indicator);
-        likeButton = findViewById(R.id.like_button);
-        likeCount = findViewById(R.id.like_count);
-        commentButton = findViewById(R.id.comment_button);
-        commentCount = findViewById(R.id.comment_count);
-        saveButton = findViewById(R.id.save_button);
-        saveCount = findViewById(R.id.save_count);
-        commentInput = findViewById(R.id.comment_input);
-        sendButton = findViewById(R.id.send_button);
         commentsRecyclerView = findViewById(R.id.comments_recycler_view);
 
+        // 帖子内容作为评论列表的头部，随评论一起滚动
+        postHeader = getLayoutInflater().inflate(R.layout.layout_post_detail_header, commentsRecyclerView, false);
+        postTime = postHeader.findViewById(R.id.post_time);
+        postTitle = postHeader.findViewById(R.id.post_title);
+        postContent = postHeader.findViewById(R.id.post_content);
+        mediaViewPager = postHeader.findViewById(R.id.media_view_pager);
+        imageIndicator = postHeader.findViewById(R.id.image_indicator);
+        likeButton = postHeader.findViewById(R.id.like_button);
+        likeCount = postHeader.findViewById(R.id.like_count);
+        commentButton = postHeader.findViewById(R.id.comment_button);
+        commentCount = postHeader.findViewById(R.id.comment_count);
+        saveButton = postHeader.findViewById(R.id.save_button);
+        saveCount = postHeader.findViewById(R.id.save_count);
+        commentInput = postHeader.findViewById(R.id.comment_input);
+        sendButton = postHeader.findViewById(R.id.send_button);
+
+        // 设置ViewPager2页面变化监听器
+        mediaViewPager.registerOnPageChangeCallback(new androidx.viewpager2.widget.ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                updateImageIndicator(position);
+            }
+        });
+
         // 设置顶部栏返回按钮
         setSupportActionBar(toolbar);
         if (getSupportActionBar() != null) {
@@ -122,9 +150,24 @@ public class PostDetailActivity extends AppCompatActivity {
      * 初始化评论列表
      */
     private void initCommentsRecyclerView() {
-        // 创建并设置适配器
-        commentAdapter = new CommentAdapter(comments);
-        commentsRecyclerView.setAdapter(commentAdapter);
+        // 创建并设置适配器：帖子内容、分页评论、底部加载状态
+        commentAdapter = new CommentAdapter();
+        FeedLoadStateAdapter loadStateAdapter = new FeedLoadStateAdapter(this, () -> commentAdapter.retry());
+        commentsRecyclerView.setAdapter(new ConcatAdapter(
+                new HeaderAdapter(postHeader),
+                commentAdapter.withLoadStateFooter(loadStateAdapter)));
+
+        // 新评论写入本地后出现在列表中，滚动到该评论
+        commentAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                if (scrollToLatestComment) {
+                    scrollToLatestComment = false;
+                    // 头部占据第一个位置
+                    commentsRecyclerView.scrollToPosition(positionStart + itemCount);
+                }
+            }
+        });
         
         // 设置布局管理器
         androidx.recyclerview.widget.LinearLayoutManager layoutManager = new androidx.recyclerview.widget.LinearLayoutManager(this);
@@ -182,20 +225,38 @@ public class PostDetailActivity extends AppCompatActivity {
 
     /**
      * 加载帖子详情
+     * 优先展示本地缓存的帖子，本地没有缓存且远程获取结束后使用模拟数据，远程数据写入本地后自动更新
      */
     private void loadPostDetail() {
-        try {
-            // 这里简化实现，实际项目中应该根据帖子ID从服务器或本地数据库获取帖子详情
-            // 暂时使用模拟数据，但确保ID与传入ID一致
-            currentPost = createMockPost();
-            
-            // 展示帖子详情
-            displayPostDetail(currentPost);
-        } catch (Exception e) {
-            e.printStackTrace();
-            ToastUtil.showShort(this, "加载帖子详情失败");
-            // 显示默认数据或返回
-        }    
+        viewModel.getPost().observe(this, resource -> {
+            try {
+                Post post = resource.getData();
+                if (post == null && resource.getStatus() == Resource.Status.LOADING) {
+                    // 本地没有缓存，等待远程获取结果
+                    return;
+                }
+                if (post != null) {
+                    currentPost = post;
+                } else if (currentPost == null) {
+                    currentPost = createMockPost();
+                } else {
+                    return;
+                }
+                // 展示帖子详情
+                displayPostDetail(currentPost);
+            } catch (Exception e) {
+                e.printStackTrace();
+                ToastUtil.showShort(this, "加载帖子详情失败");
+            }
+        });
+    }
+
+    /**
+     * 加载评论
+     * 先展示本地缓存的评论，滚动到底部时按页加载更早缓存之外的评论
+     */
+    private void loadComments() {
+        viewModel.getComments().observe(this, pagingData -> commentAdapter.submitData(getLifecycle(), pagingData));
     }
 
     /**
@@ -303,21 +364,14 @@ public class PostDetailActivity extends AppCompatActivity {
             // 设置媒体内容
             if (mediaViewPager != null && post.getImages() != null) {
                 List<String> mediaList = post.getImages();
-                if (!mediaList.isEmpty()) {
+                // 帖子数据更新时图片不变则保留当前页，避免轮播跳回第一张
+                if (!mediaList.isEmpty() && (mediaAdapter == null || !mediaList.equals(mediaAdapter.mediaList))) {
                     // 创建并设置适配器
                     mediaAdapter = new MediaAdapter(mediaList);
                     mediaViewPager.setAdapter(mediaAdapter);
                     
                     // 设置图片指示器
                     setupImageIndicator(mediaList.size());
-                    
-                    // 设置ViewPager2页面变化监听器
-                    mediaViewPager.registerOnPageChangeCallback(new androidx.viewpager2.widget.ViewPager2.OnPageChangeCallback() {
-                        @Override
-                        public void onPageSelected(int position) {
-                            updateImageIndicator(position);
-                        }
-                    });
                 }
             }
 
@@ -456,25 +510,60 @@ public class PostDetailActivity extends AppCompatActivity {
     }
 
     /**
-     * 评论适配器类，用于处理RecyclerView的评论展示
+     * 帖子内容头部适配器，只包含一个预先创建的帖子内容视图
      */
-    private class CommentAdapter extends androidx.recyclerview.widget.RecyclerView.Adapter<CommentAdapter.CommentViewHolder> {
+    private static class HeaderAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
-        private List<Comment> commentList;
+        private final View headerView;
 
-        public CommentAdapter(List<Comment> commentList) {
-            this.commentList = commentList;
+        HeaderAdapter(View headerView) {
+            this.headerView = headerView;
         }
 
+        @NonNull
         @Override
-        public CommentViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            // 头部视图只有一个实例，重新创建时先从原父布局移除
+            if (headerView.getParent() instanceof ViewGroup) {
+                ((ViewGroup) headerView.getParent()).removeView(headerView);
+            }
+            return new RecyclerView.ViewHolder(headerView) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            // 头部内容由Activity直接更新，无需绑定
+        }
+
+        @Override
+        public int getItemCount() {
+            return 1;
+        }
+    }
+
+    /**
+     * 评论适配器类，用于分页展示评论
+     */
+    private class CommentAdapter extends PagingDataAdapter<Comment, CommentAdapter.CommentViewHolder> {
+
+        public CommentAdapter() {
+            super(DIFF_CALLBACK);
+        }
+
+        @NonNull
+        @Override
+        public CommentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
             View view = getLayoutInflater().inflate(R.layout.item_comment, parent, false);
             return new CommentViewHolder(view);
         }
 
         @Override
-        public void onBindViewHolder(CommentViewHolder holder, int position) {
-            Comment comment = commentList.get(position);
+        public void onBindViewHolder(@NonNull CommentViewHolder holder, int position) {
+            Comment comment = getItem(position);
+            if (comment == null) {
+                return;
+            }
             
             // 加载用户头像
             Glide.with(holder.commentAvatar.getContext())
@@ -494,29 +583,7 @@ public class PostDetailActivity extends AppCompatActivity {
             holder.commentContent.setText(comment.getContent() != null ? comment.getContent() : "");
         }
 
-        @Override
-        public int getItemCount() {
-            return commentList.size();
-        }
-
-        /**
-         * 添加新评论到列表
-         */
-        public void addComment(Comment comment) {
-            commentList.add(comment);
-            notifyItemInserted(commentList.size() - 1);
-        }
-
-        /**
-         * 更新评论列表
-         */
-        public void updateComments(List<Comment> newComments) {
-            commentList.clear();
-            commentList.addAll(newComments);
-            notifyDataSetChanged();
-        }
-
-        public class CommentViewHolder extends androidx.recyclerview.widget.RecyclerView.ViewHolder {
+        public class CommentViewHolder extends RecyclerView.ViewHolder {
             ImageView commentAvatar;
             TextView commentName;
             TextView commentTime;
@@ -532,6 +599,21 @@ public class PostDetailActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * 评论差异比较，按ID判断是否为同一条评论
+     */
+    private static final DiffUtil.ItemCallback<Comment> DIFF_CALLBACK = new DiffUtil.ItemCallback<Comment>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Comment oldItem, @NonNull Comment newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Comment oldItem, @NonNull Comment newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
     /**
      * 格式化日期
      * @param dateString ISO格式的日期字符串
@@ -555,25 +637,24 @@ public class PostDetailActivity extends AppCompatActivity {
         return dateString;
     }
 
+    /**
+     * 获取当前时间的ISO格式字符串（UTC），与服务端及评论排序使用的格式一致
+     * @return ISO格式的当前时间
+     */
+    private String currentIsoTime() {
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return isoFormat.format(new Date());
+    }
+
     /**
      * 点赞帖子
      */
     private void likePost() {
-        // 这里简化实现，实际项目中应该调用API点赞帖子
+        // 本地数据库中这一行先被切换，帖子LiveData随之刷新界面；请求由仓库合并后批量提交
         if (currentPost != null) {
-            currentPost.setLiked(!currentPost.isLiked());
-            int newLikes = currentPost.getLikes() + (currentPost.isLiked() ? 1 : -1);
-            currentPost.setLikes(newLikes);
-            
-            // 更新UI
-            if (currentPost.isLiked()) {
-                likeButton.setImageResource(R.drawable.ic_heart_filled);
-            } else {
-                likeButton.setImageResource(R.drawable.ic_heart);
-            }
-            likeCount.setText(String.valueOf(currentPost.getLikes()));
-            
-            ToastUtil.showShort(this, currentPost.isLiked() ? "点赞成功" : "取消点赞");
+            viewModel.likePost();
+            ToastUtil.showShort(this, currentPost.isLiked() ? "取消点赞" : "点赞成功");
         }
     }
 
@@ -609,12 +690,12 @@ public class PostDetailActivity extends AppCompatActivity {
                 "当前用户",
                 "https://picsum.photos/id/1005/100/100",
                 commentText,
-                "2025-12-04T" + java.time.LocalTime.now().toString() + "Z"
+                currentIsoTime()
         );
         
-        // 添加评论到列表
-        comments.add(newComment);
-        commentAdapter.notifyItemInserted(comments.size() - 1);
+        // 保存评论，写入本地后评论列表自动更新
+        scrollToLatestComment = true;
+        viewModel.addComment(newComment);
         
         // 更新评论数量
         if (currentPost != null) {
@@ -623,9 +704,6 @@ public class PostDetailActivity extends AppCompatActivity {
             commentCount.setText(String.valueOf(newComments));
         }
         
-        // 滚动到最新评论
-        commentsRecyclerView.scrollToPosition(comments.size() - 1);
-        
         // 清空评论输入框
         commentInput.setText("");
         
@@ -651,8 +729,9 @@ public class PostDetailActivity extends AppCompatActivity {
      * 收藏/取消收藏帖子
      */
     private void savePost() {
-        // 这里简化实现，实际项目中应该调用API收藏/取消收藏帖子
+        // 界面立即切换状态，请求由仓库合并后批量提交
         if (currentPost != null) {
+            viewModel.savePost();
             currentPost.setSaved(!currentPost.isSaved());
             int newSaves = currentPost.getSaves() + (currentPost.isSaved() ? 1 : -1);
             currentPost.setSaves(newSaves);
@@ -0,0 +1,87 @@
+package com.mybook.ui.post;
+
+import android.app.Application;
+
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.Post;
+import com.mybook.data.repository.PostRepository;
+import com.mybook.data.repository.PostRepositoryImpl;
+import com.mybook.data.repository.Resource;
+
+/**
+ * 帖子详情页ViewModel
+ * 帖子和评论都从本地缓存读取，帖子缓存过期时才从远程获取，评论按页加载并缓存在ViewModel作用域内
+ */
+public class PostDetailViewModel extends AndroidViewModel {
+    private final PostRepository postRepository;
+    private String postId;
+    private LiveData<Resource<Post>> post;
+    private LiveData<PagingData<Comment>> comments;
+
+    public PostDetailViewModel(Application application) {
+        super(application);
+        this.postRepository = new PostRepositoryImpl(application);
+    }
+
+    /**
+     * 设置帖子ID，配置变更后重复调用不会重新加载
+     * @param postId 帖子ID
+     */
+    public void init(String postId) {
+        if (this.postId != null) {
+            return;
+        }
+        this.postId = postId;
+        this.post = postRepository.getPostById(postId);
+        this.comments = PagingLiveData.cachedIn(postRepository.getComments(postId),
+                ViewModelKt.getViewModelScope(this));
+    }
+
+    /**
+     * 获取帖子详情
+     * @return 带加载状态的帖子，本地没有缓存时data为null
+     */
+    public LiveData<Resource<Post>> getPost() {
+        return post;
+    }
+
+    /**
+     * 获取分页评论
+     * @return 分页评论数据的LiveData
+     */
+    public LiveData<PagingData<Comment>> getComments() {
+        return comments;
+    }
+
+    /**
+     * 发表评论
+     * @param comment 新评论
+     */
+    public void addComment(Comment comment) {
+        postRepository.addComment(comment);
+    }
+
+    /**
+     * 点赞或取消点赞当前帖子
+     */
+    public void likePost() {
+        if (postId != null) {
+            postRepository.likePost(postId);
+        }
+    }
+
+    /**
+     * 收藏或取消收藏当前帖子
+     */
+    public void savePost() {
+        if (postId != null) {
+            postRepository.savePost(postId);
+        }
+    }
+}
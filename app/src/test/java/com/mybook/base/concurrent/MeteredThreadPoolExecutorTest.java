@@ -0,0 +1,172 @@
+package com.mybook.base.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MeteredThreadPoolExecutor拒绝策略单元测试
+ * 使用容量为1的单线程池，先用一个未完成的任务占住线程，再填满队列
+ */
+public class MeteredThreadPoolExecutorTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MeteredThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new MeteredThreadPoolExecutor("test", 1, 1, 0,
+                new MeteredThreadPoolExecutor.BlockingPolicy(null, 200));
+        // 默认的线程工厂会调用android.os.Process设置优先级
+        executor.setThreadFactory(Thread::new);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void poolThreadSubmittingToFullQueueRunsInline() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Future<?> writer = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            order.add("first");
+            // 队列已被占满，等待空位会等待自己，应直接执行
+            executor.execute(() -> order.add("nested"));
+            order.add("after nested");
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        executor.execute(() -> order.add("queued"));
+
+        release.countDown();
+        writer.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        executor.submit(() -> { }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals("first", order.get(0));
+        assertEquals("nested", order.get(1));
+        assertEquals("after nested", order.get(2));
+        assertEquals("queued", order.get(3));
+    }
+
+    @Test
+    public void otherThreadWaitsForSpace() throws Exception {
+        fillPool();
+        CountDownLatch ran = new CountDownLatch(1);
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+                return;
+            }
+            release.countDown();
+        }).start();
+
+        // 占住线程的任务在等待期间结束，队列腾出空位
+        executor.execute(ran::countDown);
+
+        assertTrue(ran.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void otherThreadTimesOutWithRejection() throws Exception {
+        fillPool();
+        long start = System.nanoTime();
+        try {
+            executor.execute(() -> { });
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            // 预期的结果
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+    }
+
+    @Test
+    public void mainThreadDoesNotWait() throws Exception {
+        executor = new MeteredThreadPoolExecutor("test", 1, 1, 0,
+                new MeteredThreadPoolExecutor.BlockingPolicy(Thread.currentThread(), TimeUnit.MINUTES.toMillis(1)));
+        executor.setThreadFactory(Thread::new);
+        fillPool();
+        long start = System.nanoTime();
+        try {
+            executor.execute(() -> { });
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            // 预期的结果
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shutdownExecutorRejects() {
+        executor.shutdown();
+        executor.execute(() -> { });
+    }
+
+    @Test
+    public void overflowPolicyRunsRejectedTaskOnFallbackThread() throws Exception {
+        MeteredThreadPoolExecutor.OverflowPolicy policy =
+                new MeteredThreadPoolExecutor.OverflowPolicy(runnable -> new Thread(runnable, "fallback"));
+        executor = new MeteredThreadPoolExecutor("test", 1, 1, 0, policy);
+        executor.setThreadFactory(Thread::new);
+        fillPool();
+
+        CountDownLatch ran = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        executor.execute(() -> {
+            threads.add(Thread.currentThread().getName());
+            ran.countDown();
+        });
+
+        // 线程池仍被占满，任务由备用线程执行，而不是在提交线程中执行
+        assertTrue(ran.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("fallback", threads.get(0));
+        assertEquals(1, policy.getOverflowCount());
+        assertTrue(executor.describe().contains("overflowed=1"));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void overflowPolicyRejectsAfterShutdown() {
+        executor = new MeteredThreadPoolExecutor("test", 1, 1, 0,
+                new MeteredThreadPoolExecutor.OverflowPolicy(Thread::new));
+        executor.shutdown();
+        executor.execute(() -> { });
+    }
+
+    /**
+     * 提交一个等待release的任务占住线程，再提交一个任务占满队列
+     */
+    private void fillPool() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+        assertEquals(1, executor.getQueueDepth());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
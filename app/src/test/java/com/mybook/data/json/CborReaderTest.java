@@ -0,0 +1,252 @@
+package com.mybook.data.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gson.stream.JsonToken;
+import com.mybook.data.model.Post;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CborReader单元测试
+ * 测试数据取自RFC 8949附录A的编码示例
+ */
+public class CborReaderTest {
+
+    @Test
+    public void readsUnsignedAndNegativeIntegers() throws IOException {
+        // [0, 23, 24, 1000, 1000000, -1, -100, -1000]
+        CborReader reader = reader(0x88, 0x00, 0x17, 0x18, 0x18, 0x19, 0x03, 0xe8, 0x1a, 0x00, 0x0f, 0x42, 0x40,
+                0x20, 0x38, 0x63, 0x39, 0x03, 0xe7);
+        reader.beginArray();
+        assertEquals(0, reader.nextInt());
+        assertEquals(23, reader.nextInt());
+        assertEquals(24, reader.nextInt());
+        assertEquals(1000, reader.nextInt());
+        assertEquals(1000000L, reader.nextLong());
+        assertEquals(-1, reader.nextInt());
+        assertEquals(-100, reader.nextInt());
+        assertEquals("-1000", reader.nextString());
+        reader.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void readsNegativeIntegersBeyondLongRange() throws IOException {
+        // -18446744073709551616，即-1-(2^64-1)
+        assertEquals("-18446744073709551616",
+                reader(0x3b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff).nextString());
+        // Long.MIN_VALUE
+        assertEquals(Long.MIN_VALUE, reader(0x3b, 0x7f, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff).nextLong());
+    }
+
+    @Test
+    public void readsHalfSingleAndDoubleFloats() throws IOException {
+        assertEquals(1.5, reader(0xf9, 0x3e, 0x00).nextDouble(), 0);
+        assertEquals(-4.0, reader(0xf9, 0xc4, 0x00).nextDouble(), 0);
+        assertEquals(5.960464477539063e-8, reader(0xf9, 0x00, 0x01).nextDouble(), 0);
+        assertEquals(Double.POSITIVE_INFINITY, reader(0xf9, 0x7c, 0x00).nextDouble(), 0);
+        assertTrue(Double.isNaN(reader(0xf9, 0x7e, 0x00).nextDouble()));
+        assertEquals(100000.0, reader(0xfa, 0x47, 0xc3, 0x50, 0x00).nextDouble(), 0);
+        assertEquals(1.1, reader(0xfb, 0x3f, 0xf1, 0x99, 0x99, 0x99, 0x99, 0x99, 0x9a).nextDouble(), 0);
+        // 整数值的浮点数可以按整数读取
+        assertEquals(2, reader(0xfa, 0x40, 0x00, 0x00, 0x00).nextInt());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void fractionalFloatIsNotALong() throws IOException {
+        reader(0xf9, 0x3e, 0x00).nextLong();
+    }
+
+    @Test
+    public void readsTextAndByteStrings() throws IOException {
+        // ["IETF", "水", h'616263']
+        CborReader reader = reader(0x83, 0x64, 0x49, 0x45, 0x54, 0x46, 0x63, 0xe6, 0xb0, 0xb4,
+                0x43, 0x61, 0x62, 0x63);
+        reader.beginArray();
+        assertEquals("IETF", reader.nextString());
+        assertEquals("水", reader.nextString());
+        // 字节串按UTF-8作为字符串返回
+        assertEquals(JsonToken.STRING, reader.peek());
+        assertEquals("abc", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    public void readsStringsLongerThanTheBuffer() throws IOException {
+        byte[] text = new byte[20000];
+        Arrays.fill(text, (byte) 'x');
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x79);
+        out.write(text.length >>> 8);
+        out.write(text.length & 0xff);
+        out.write(text, 0, text.length);
+        CborReader reader = new CborReader(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(new String(text, StandardCharsets.US_ASCII), reader.nextString());
+    }
+
+    @Test
+    public void readsSimpleValues() throws IOException {
+        // [false, true, null, undefined]
+        CborReader reader = reader(0x84, 0xf4, 0xf5, 0xf6, 0xf7);
+        reader.beginArray();
+        assertFalse(reader.nextBoolean());
+        assertTrue(reader.nextBoolean());
+        reader.nextNull();
+        assertEquals(JsonToken.NULL, reader.peek());
+        reader.nextNull();
+        reader.endArray();
+    }
+
+    @Test
+    public void readsNestedMapsAndArrays() throws IOException {
+        // {"a": 1, "b": [2, 3], "c": {"d": [], "e": {}}}
+        CborReader reader = reader(0xa3, 0x61, 0x61, 0x01, 0x61, 0x62, 0x82, 0x02, 0x03,
+                0x61, 0x63, 0xa2, 0x61, 0x64, 0x80, 0x61, 0x65, 0xa0);
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        assertEquals(1, reader.nextInt());
+        assertEquals("b", reader.nextName());
+        reader.beginArray();
+        assertEquals(2, reader.nextInt());
+        assertEquals(3, reader.nextInt());
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("c", reader.nextName());
+        reader.beginObject();
+        assertEquals("d", reader.nextName());
+        reader.beginArray();
+        reader.endArray();
+        assertEquals("e", reader.nextName());
+        reader.beginObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endObject();
+        reader.endObject();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void readsIntegerMapKeysAsNames() throws IOException {
+        // {1: 2, -4: 5}
+        CborReader reader = reader(0xa2, 0x01, 0x02, 0x23, 0x05);
+        reader.beginObject();
+        assertEquals("1", reader.nextName());
+        assertEquals(2, reader.nextInt());
+        assertEquals("-4", reader.nextName());
+        assertEquals(5, reader.nextInt());
+        reader.endObject();
+    }
+
+    @Test
+    public void readsIndefiniteLengthItems() throws IOException {
+        // {_ "a": [_ 1, [2, 3]], "b": (_ "strea", "ming"), "c": (_ h'0102', h'03')}
+        CborReader reader = reader(0xbf, 0x61, 0x61, 0x9f, 0x01, 0x82, 0x02, 0x03, 0xff,
+                0x61, 0x62, 0x7f, 0x65, 0x73, 0x74, 0x72, 0x65, 0x61, 0x64, 0x6d, 0x69, 0x6e, 0x67, 0xff,
+                0x61, 0x63, 0x5f, 0x42, 0x31, 0x32, 0x41, 0x33, 0xff, 0xff);
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.beginArray();
+        assertEquals(1, reader.nextInt());
+        reader.beginArray();
+        assertEquals(2, reader.nextInt());
+        assertEquals(3, reader.nextInt());
+        reader.endArray();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("b", reader.nextName());
+        assertEquals("streaming", reader.nextString());
+        assertEquals("c", reader.nextName());
+        assertEquals("123", reader.nextString());
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void skipsTags() throws IOException {
+        // [0("2013-03-21T20:04:00Z"), 1(1363896240), 24(h'6449455446'), 55799(7)]
+        CborReader reader = reader(0x84,
+                0xc0, 0x74, 0x32, 0x30, 0x31, 0x33, 0x2d, 0x30, 0x33, 0x2d, 0x32, 0x31, 0x54, 0x32, 0x30,
+                0x3a, 0x30, 0x34, 0x3a, 0x30, 0x30, 0x5a,
+                0xc1, 0x1a, 0x51, 0x4b, 0x67, 0xb0,
+                0xd8, 0x18, 0x45, 0x64, 0x49, 0x45, 0x54, 0x46,
+                0xd9, 0xd9, 0xf7, 0x07);
+        reader.beginArray();
+        assertEquals("2013-03-21T20:04:00Z", reader.nextString());
+        assertEquals(1363896240L, reader.nextLong());
+        reader.skipValue();
+        assertEquals(7, reader.nextInt());
+        reader.endArray();
+    }
+
+    @Test
+    public void skipsNestedValues() throws IOException {
+        // [{"x": [_ 1, "two", {"y": h'00'}], "z": 2.5}, 9]
+        CborReader reader = reader(0x82, 0xa2, 0x61, 0x78, 0x9f, 0x01, 0x63, 0x74, 0x77, 0x6f,
+                0xa1, 0x61, 0x79, 0x41, 0x00, 0xff, 0x61, 0x7a, 0xf9, 0x41, 0x00, 0x09);
+        reader.beginArray();
+        reader.skipValue();
+        assertEquals(9, reader.nextInt());
+        reader.endArray();
+    }
+
+    @Test
+    public void decodesModelsThroughTheirTypeAdapters() throws IOException {
+        // {"id": "p1", "likes": 3, "isLiked": true, "images": ["a.jpg"]}
+        CborReader reader = reader(0xa4,
+                0x62, 0x69, 0x64, 0x62, 0x70, 0x31,
+                0x65, 0x6c, 0x69, 0x6b, 0x65, 0x73, 0x03,
+                0x67, 0x69, 0x73, 0x4c, 0x69, 0x6b, 0x65, 0x64, 0xf5,
+                0x66, 0x69, 0x6d, 0x61, 0x67, 0x65, 0x73, 0x81, 0x65, 0x61, 0x2e, 0x6a, 0x70, 0x67);
+        Post post = GsonProvider.get().getAdapter(Post.class).read(reader);
+        assertEquals("p1", post.getId());
+        assertEquals(3, post.getLikes());
+        assertTrue(post.isLiked());
+        assertEquals(Arrays.asList("a.jpg"), post.getImages());
+    }
+
+    @Test
+    public void truncatedInputThrowsIOException() {
+        // 截断在任意位置都应抛出IOException，而不是数组越界或空指针
+        int[] document = {0xbf, 0x61, 0x61, 0x9f, 0x01, 0x82, 0x19, 0x03, 0xe8, 0xfb, 0x3f, 0xf1, 0x99, 0x99,
+                0x99, 0x99, 0x99, 0x9a, 0xff, 0x61, 0x62, 0x7f, 0x63, 0x61, 0x62, 0x63, 0xff,
+                0x61, 0x63, 0xc1, 0x44, 0x01, 0x02, 0x03, 0x04, 0xff};
+        for (int length = 0; length < document.length; length++) {
+            try {
+                reader(Arrays.copyOf(document, length)).skipValue();
+                fail("No IOException for input truncated to " + length + " bytes");
+            } catch (IOException expected) {
+                // 预期的结果
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedLongStringThrowsIOException() throws IOException {
+        // 声明长度约2GB的字符串，实际只有3个字节
+        reader(0x7a, 0x7f, 0xff, 0xff, 0xff, 0x61, 0x62, 0x63).nextString();
+    }
+
+    @Test(expected = IOException.class)
+    public void reservedAdditionalInfoThrowsIOException() throws IOException {
+        reader(0x1c).peek();
+    }
+
+    private static CborReader reader(int... bytes) {
+        byte[] data = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            data[i] = (byte) bytes[i];
+        }
+        return new CborReader(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,163 @@
+package com.mybook.data.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.database.sqlite.SQLiteConstraintException;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.local.dao.PostDao;
+import com.mybook.data.model.Post;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * WriteBehindQueue单元测试
+ * 定时任务记录请求的延迟后立即执行，提交失败的退避间隔不需要真的等待
+ */
+public class WriteBehindQueueTest {
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private final List<Long> delays = new CopyOnWriteArrayList<>();
+    private ExecutorService diskWrite;
+    private ScheduledThreadPoolExecutor scheduler;
+    private PostDao postDao;
+    private WriteBehindQueue queue;
+
+    @Before
+    public void setUp() {
+        diskWrite = Executors.newSingleThreadExecutor();
+        scheduler = new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                delays.add(unit.toMillis(delay));
+                return super.schedule(command, 0, unit);
+            }
+        };
+        AppExecutors executors = new AppExecutors(diskWrite, Runnable::run, Runnable::run, Runnable::run,
+                Runnable::run, scheduler);
+        postDao = mock(PostDao.class);
+        queue = new WriteBehindQueue(postDao, executors);
+    }
+
+    @After
+    public void tearDown() {
+        diskWrite.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void failedCommitIsRetriedWithExponentialBackoff() throws Exception {
+        doThrow(new IllegalStateException("database is locked"))
+                .doThrow(new IllegalStateException("database is locked"))
+                .doNothing()
+                .when(postDao).applyWrites(anyBoolean(), anyList(), anyList());
+
+        queue.save(post("p1"));
+
+        awaitCondition(() -> delays.size() == 3 && queue.getPendingCount() == 0);
+        awaitWriter();
+        verify(postDao, times(3)).applyWrites(anyBoolean(), anyList(), anyList());
+        // 合并窗口，之后每次失败等待时间翻倍
+        assertEquals(Arrays.asList(100L, 200L, 400L), new ArrayList<>(delays));
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    public void persistentFailureIsDroppedAfterMaxRetries() throws Exception {
+        doThrow(new IllegalStateException("disk I/O error"))
+                .when(postDao).applyWrites(anyBoolean(), anyList(), anyList());
+
+        queue.save(post("p1"));
+
+        awaitCondition(() -> queue.getDroppedCount() == 1);
+        awaitWriter();
+        verify(postDao, times(6)).applyWrites(anyBoolean(), anyList(), anyList());
+        assertEquals(Arrays.asList(100L, 200L, 400L, 800L, 1600L, 3200L), new ArrayList<>(delays));
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void constraintViolationDropsOnlyTheFailingRow() {
+        List<String> committed = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Post> upserts = invocation.getArgument(1);
+            for (Post post : upserts) {
+                if ("bad".equals(post.getId())) {
+                    throw mock(SQLiteConstraintException.class);
+                }
+            }
+            for (Post post : upserts) {
+                committed.add(post.getId());
+            }
+            committed.addAll(invocation.<List<String>>getArgument(2));
+            return null;
+        }).when(postDao).applyWrites(anyBoolean(), anyList(), anyList());
+
+        queue.saveAll(Arrays.asList(post("p1"), post("bad"), post("p2")));
+        queue.delete("p3");
+        queue.drain();
+
+        assertEquals(Arrays.asList("p1", "p2", "p3"), committed);
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void successfulCommitResetsFailureCount() throws Exception {
+        doThrow(new IllegalStateException("database is locked"))
+                .doNothing()
+                .when(postDao).applyWrites(anyBoolean(), anyList(), anyList());
+        queue.save(post("p1"));
+        awaitCondition(() -> delays.size() == 2 && queue.getPendingCount() == 0);
+        awaitWriter();
+
+        doThrow(new IllegalStateException("database is locked"))
+                .doNothing()
+                .when(postDao).applyWrites(anyBoolean(), anyList(), anyList());
+        queue.save(post("p2"));
+        awaitCondition(() -> delays.size() == 4 && queue.getPendingCount() == 0);
+
+        // 第二次失败重新从最短的退避开始
+        assertEquals(Arrays.asList(100L, 200L, 100L, 200L), new ArrayList<>(delays));
+    }
+
+    private static Post post(String id) {
+        Post post = new Post();
+        post.setId(id);
+        return post;
+    }
+
+    private void awaitWriter() throws Exception {
+        diskWrite.submit(() -> { }).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mybook.data.local.migration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Migrations单元测试
+ * 只覆盖不依赖数据库的部分：版本3及之前images列的解析
+ */
+public class MigrationsTest {
+
+    @Test
+    public void readsImageUrlsWrittenByGson() {
+        assertEquals(Arrays.asList("a.jpg", "b \"1\".jpg", "图片.png"),
+                Migrations.readImageUrls("[\"a.jpg\",\"b \\\"1\\\".jpg\",\"\\u56fe\\u7247.png\"]"));
+    }
+
+    @Test
+    public void skipsNullElements() {
+        assertEquals(Arrays.asList("a.jpg", "b.jpg"), Migrations.readImageUrls("[\"a.jpg\",null,\"b.jpg\"]"));
+    }
+
+    @Test
+    public void emptyOrMissingColumnHasNoImages() {
+        assertTrue(Migrations.readImageUrls(null).isEmpty());
+        assertTrue(Migrations.readImageUrls("").isEmpty());
+        assertTrue(Migrations.readImageUrls("[]").isEmpty());
+        assertTrue(Migrations.readImageUrls("null").isEmpty());
+    }
+
+    @Test
+    public void corruptColumnHasNoImages() {
+        assertTrue(Migrations.readImageUrls("[\"a.jpg\",").isEmpty());
+        assertTrue(Migrations.readImageUrls("{\"url\":\"a.jpg\"}").isEmpty());
+    }
+}
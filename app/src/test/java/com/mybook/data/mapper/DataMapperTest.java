@@ -0,0 +1,80 @@
+package com.mybook.data.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.mybook.data.model.Post;
+import com.mybook.data.model.User;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DataMapper单元测试
+ */
+public class DataMapperTest {
+    @Test
+    public void prepareRemotePostsAttachesAuthorsAndHashes() {
+        Post post = new Post();
+        post.setId("p1");
+        post.setUserId("u1");
+        post.setContent("hello");
+        User user = new User("u1", "Alice", "avatar.jpg", "bio", 3, 4);
+
+        DataMapper.prepareRemotePosts(Collections.singletonList(post), Collections.singletonList(user));
+
+        assertEquals("Alice", post.getName());
+        assertEquals("avatar.jpg", post.getAvatar());
+        // 哈希在填回作者之后计算，覆盖作者字段
+        assertEquals(DataMapper.contentHash(post), post.getContentHash());
+    }
+
+    @Test
+    public void prepareRemotePostsAcceptsMissingPosts() {
+        assertNull(DataMapper.prepareRemotePosts(null, null));
+    }
+
+    @Test
+    public void preparedPostsAreNotWrittenAgain() {
+        CountingPost post = new CountingPost();
+        post.setId("p1");
+        post.setContent("hello");
+        List<Post> posts = Arrays.asList(post);
+
+        DataMapper.prepareRemotePosts(posts, null);
+        // 写库时再次更新哈希，内容未变化，共享的帖子不被修改
+        DataMapper.updateContentHash(post);
+
+        assertEquals(1, post.hashWrites);
+    }
+
+    @Test
+    public void locallyModifiedPostIsRehashed() {
+        CountingPost post = new CountingPost();
+        post.setId("p1");
+        post.setContent("hello");
+        DataMapper.updateContentHash(post);
+
+        post.setLikes(1);
+        DataMapper.updateContentHash(post);
+
+        assertEquals(2, post.hashWrites);
+        assertEquals(DataMapper.contentHash(post), post.getContentHash());
+    }
+
+    /**
+     * 记录内容哈希写入次数的帖子
+     */
+    private static class CountingPost extends Post {
+        int hashWrites;
+
+        @Override
+        public void setContentHash(long contentHash) {
+            hashWrites++;
+            super.setContentHash(contentHash);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.mybook.data.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.mybook.data.json.GsonProvider;
+import com.mybook.data.model.Post;
+import com.mybook.data.remote.api.ApiService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.OkHttpClient;
+import okhttp3.brotli.BrotliInterceptor;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * 响应压缩与格式协商测试
+ * 客户端与RetrofitClient一样使用BrotliInterceptor和CborConverterFactory，由MockWebServer返回压缩后的响应
+ */
+public class ContentEncodingTest {
+    private static final String POST_JSON = "{\"id\":\"p1\",\"content\":\"hello\",\"likes\":7}";
+
+    private MockWebServer server;
+    private ApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(BrotliInterceptor.INSTANCE)
+                .build();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(CborConverterFactory.create(GsonProvider.get()))
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void requestAdvertisesBrotliAndGzip() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(POST_JSON));
+
+        assertPost(apiService.getPostById("p1").execute());
+
+        RecordedRequest request = server.takeRequest();
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        assertTrue(acceptEncoding, acceptEncoding.contains("br"));
+        assertTrue(acceptEncoding, acceptEncoding.contains("gzip"));
+    }
+
+    @Test
+    public void decodesGzipResponse() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(gzip(POST_JSON.getBytes(StandardCharsets.UTF_8)))));
+
+        Response<Post> response = apiService.getPostById("p1").execute();
+
+        assertPost(response);
+        // 解压后去掉了压缩相关的响应头
+        assertEquals(null, response.headers().get("Content-Encoding"));
+    }
+
+    @Test
+    public void decodesBrotliResponse() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", "br")
+                .setBody(new Buffer().write(brotliStored(POST_JSON.getBytes(StandardCharsets.UTF_8)))));
+
+        assertPost(apiService.getPostById("p1").execute());
+    }
+
+    @Test
+    public void decodesGzipCompressedCbor() throws Exception {
+        // {"id": "p1", "content": "hello", "likes": 7}
+        byte[] cbor = bytes(0xa3, 0x62, 0x69, 0x64, 0x62, 0x70, 0x31,
+                0x67, 0x63, 0x6f, 0x6e, 0x74, 0x65, 0x6e, 0x74, 0x65, 0x68, 0x65, 0x6c, 0x6c, 0x6f,
+                0x65, 0x6c, 0x69, 0x6b, 0x65, 0x73, 0x07);
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/cbor")
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(new Buffer().write(gzip(cbor))));
+
+        assertPost(apiService.getPostById("p1").execute());
+    }
+
+    private static void assertPost(Response<Post> response) {
+        assertTrue(response.isSuccessful());
+        Post post = response.body();
+        assertEquals("p1", post.getId());
+        assertEquals("hello", post.getContent());
+        assertEquals(7, post.getLikes());
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 以不压缩的元数据块构造brotli流（RFC 7932第9.2节），数据不超过64KB
+     * 流头WBITS=16占1位；元数据块头ISLAST=0、MNIBBLES=4、MLEN-1占16位、ISUNCOMPRESSED=1，补齐到字节边界后是原始数据；
+     * 最后一个字节是ISLAST=1、ISLASTEMPTY=1的空结束块
+     */
+    private static byte[] brotliStored(byte[] data) {
+        int header = ((data.length - 1) << 4) | (1 << 20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(header & 0xff);
+        out.write((header >>> 8) & 0xff);
+        out.write((header >>> 16) & 0xff);
+        out.write(data, 0, data.length);
+        out.write(0x03);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] data = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            data[i] = (byte) values[i];
+        }
+        return data;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mybook.data.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.mybook.data.model.EngagementAction;
+import com.mybook.data.model.EngagementBatch;
+import com.mybook.data.model.OutboxEntry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * EngagementBatcher单元测试
+ */
+public class EngagementBatcherTest {
+    private static final long NOW = 100_000;
+
+    @Test
+    public void tapsInsideHeadWindowAreGroupedBeforeTheirOwnWindowEnds() {
+        // 三次点击相隔几毫秒，队首的窗口刚好到期，后两条的窗口还差几毫秒
+        OutboxEntry first = engagement(1, "p1", NOW - EngagementBatcher.WINDOW_MILLIS);
+        OutboxEntry second = engagement(2, "p2", NOW - EngagementBatcher.WINDOW_MILLIS + 3);
+        OutboxEntry third = engagement(3, "p3", NOW - EngagementBatcher.WINDOW_MILLIS + 8);
+
+        List<OutboxEntry> batch = EngagementBatcher.collect(Arrays.asList(first, second, third), NOW);
+
+        assertEquals(Arrays.asList(first, second, third), batch);
+    }
+
+    @Test
+    public void entriesAfterTheHeadWindowWaitForTheirOwn() {
+        OutboxEntry first = engagement(1, "p1", NOW - EngagementBatcher.WINDOW_MILLIS);
+        // 在队首的窗口结束之后才入队
+        OutboxEntry late = engagement(2, "p2", NOW);
+
+        assertEquals(Arrays.asList(first), EngagementBatcher.collect(Arrays.asList(first, late), NOW));
+    }
+
+    @Test
+    public void groupingStopsAtNonEngagementAndBackedOffEntries() {
+        OutboxEntry first = engagement(1, "p1", NOW - EngagementBatcher.WINDOW_MILLIS);
+        OutboxEntry post = new OutboxEntry("k2", OutboxEntry.TYPE_ADD_POST, "p2", "p2", null, 1, "{}",
+                NOW - EngagementBatcher.WINDOW_MILLIS + 1);
+        post.setId(2);
+        assertEquals(Arrays.asList(first), EngagementBatcher.collect(Arrays.asList(first, post), NOW));
+
+        // 已发送过、正在退避的操作不随队首提前发送
+        OutboxEntry retrying = engagement(3, "p3", NOW - EngagementBatcher.WINDOW_MILLIS + 1);
+        retrying.setAttempts(1);
+        retrying.setNextAttemptAt(NOW + 5000);
+        assertEquals(Arrays.asList(first), EngagementBatcher.collect(Arrays.asList(first, retrying), NOW));
+    }
+
+    @Test
+    public void retriedHeadTakesEntriesQueuedDuringItsBackoff() {
+        OutboxEntry retried = engagement(1, "p1", NOW - 10_000);
+        retried.setAttempts(2);
+        retried.setNextAttemptAt(NOW);
+        OutboxEntry waiting = engagement(2, "p2", NOW - 4000);
+
+        assertEquals(Arrays.asList(retried, waiting),
+                EngagementBatcher.collect(Arrays.asList(retried, waiting), NOW));
+    }
+
+    @Test
+    public void batchIsCappedAtMaxBatchSize() {
+        List<OutboxEntry> head = new ArrayList<>();
+        for (int i = 0; i < EngagementBatcher.MAX_BATCH_SIZE + 5; i++) {
+            head.add(engagement(i, "p" + i, NOW - EngagementBatcher.WINDOW_MILLIS));
+        }
+
+        assertEquals(EngagementBatcher.MAX_BATCH_SIZE, EngagementBatcher.collect(head, NOW).size());
+    }
+
+    @Test
+    public void toBatchMapsLikeTargetStateToWireType() {
+        OutboxEntry like = engagement(1, "p1", NOW);
+        like.setTargetState(true);
+        OutboxEntry unlike = engagement(2, "p2", NOW);
+        unlike.setTargetState(false);
+        OutboxEntry share = new OutboxEntry("k3", OutboxEntry.TYPE_ENGAGEMENT, "p3", null,
+                EngagementAction.TYPE_SHARE, 3, null, NOW);
+
+        EngagementBatch batch = EngagementBatcher.toBatch(Arrays.asList(like, unlike, share));
+
+        List<EngagementAction> actions = batch.getActions();
+        assertEquals(EngagementAction.TYPE_LIKE, actions.get(0).getType());
+        assertEquals(EngagementAction.TYPE_UNLIKE, actions.get(1).getType());
+        assertEquals(EngagementAction.TYPE_SHARE, actions.get(2).getType());
+        assertEquals(3, actions.get(2).getCount());
+        assertEquals("k1", actions.get(0).getIdempotencyKey());
+        assertNotEquals(batch.getBatchId(), EngagementBatcher.toBatch(Arrays.asList(like)).getBatchId());
+    }
+
+    /**
+     * 创建一条在createdAt入队、从未发送过的点赞操作
+     */
+    private static OutboxEntry engagement(long id, String postId, long createdAt) {
+        OutboxEntry entry = new OutboxEntry("k" + id, OutboxEntry.TYPE_ENGAGEMENT, postId, null,
+                EngagementAction.TYPE_LIKE, 1, null, createdAt);
+        entry.setId(id);
+        entry.setTargetState(true);
+        entry.setNextAttemptAt(createdAt + EngagementBatcher.WINDOW_MILLIS);
+        return entry;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mybook.data.remote;
+
+import static org.junit.Assert.assertEquals;
+
+import com.mybook.data.remote.interceptor.MetricsInterceptor;
+import com.mybook.data.remote.interceptor.ResponseInterceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * 限流闸门与请求指标测试
+ * 拦截器顺序与RetrofitClient一致：响应拦截器在指标拦截器外层，闸门关闭时本地返回的503不计入接口指标
+ */
+public class RateLimitMetricsTest {
+    private MockWebServer server;
+    private RateLimitGate gate;
+    private NetworkMetrics metrics;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        gate = new RateLimitGate();
+        metrics = new NetworkMetrics();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new ResponseInterceptor(gate))
+                .addInterceptor(new MetricsInterceptor(metrics))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void throttledResponsesAreNotRecordedAsEndpointResponses() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "60"));
+
+        assertEquals(429, execute());
+        List<String> recorded = metrics.describe();
+        assertEquals(1, recorded.size());
+
+        // 闸门已关闭，请求在本地返回503，不发往服务端
+        assertEquals(503, execute());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, gate.getBlockedCount());
+        assertEquals(recorded, metrics.describe());
+    }
+
+    private int execute() throws Exception {
+        Request request = new Request.Builder().url(server.url("/posts")).build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.mybook.data.repository;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
+
+import com.mybook.data.local.LocalDataSource;
+import com.mybook.data.local.paging.FeedCursor;
+import com.mybook.data.model.Comment;
+import com.mybook.data.model.Post;
+import com.mybook.data.model.PostCard;
+import com.mybook.data.model.RemoteKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 内存中的本地数据源，用于同步和待发送队列的单元测试
+ * 只实现帖子、点赞和游标的读写，LiveData和分页相关方法不支持
+ */
+class FakeLocalDataSource implements LocalDataSource {
+    final Map<String, Post> posts = Collections.synchronizedMap(new LinkedHashMap<>());
+    final Map<String, RemoteKey> remoteKeys = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * 每次savePostBatch收到的批次大小
+     */
+    final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * 第几次savePostBatch抛出异常（从1开始），0表示不失败
+     */
+    volatile int failBatchAt;
+
+    @Override
+    public LiveData<List<Post>> getAllPosts() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PagingSource<FeedCursor, PostCard> getPostPagingSource() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LiveData<Post> getPostById(String postId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void savePost(Post post) {
+        posts.put(post.getId(), post);
+    }
+
+    @Override
+    public void savePosts(List<Post> posts) {
+        for (Post post : posts) {
+            savePost(post);
+        }
+    }
+
+    @Override
+    public void savePostsIfAbsent(List<Post> posts) {
+        for (Post post : posts) {
+            this.posts.putIfAbsent(post.getId(), post);
+        }
+    }
+
+    @Override
+    public int savePostBatch(List<Post> posts) {
+        batchSizes.add(posts.size());
+        if (failBatchAt == batchSizes.size()) {
+            throw new IllegalStateException("Disk full");
+        }
+        savePosts(posts);
+        return posts.size();
+    }
+
+    @Override
+    public void applySync(List<Post> upserts, List<String> deletes, RemoteKey syncKey) {
+        savePosts(upserts);
+        for (String id : deletes) {
+            posts.remove(id);
+        }
+        remoteKeys.put(syncKey.getLabel(), syncKey);
+    }
+
+    @Override
+    public int applyFullSync(Collection<String> receivedIds, RemoteKey syncKey) {
+        Set<String> stale = new HashSet<>(posts.keySet());
+        stale.removeAll(receivedIds);
+        for (String id : stale) {
+            posts.remove(id);
+        }
+        remoteKeys.put(syncKey.getLabel(), syncKey);
+        return stale.size();
+    }
+
+    @Override
+    public RemoteKey getRemoteKey(String label) {
+        return remoteKeys.get(label);
+    }
+
+    @Override
+    public void saveFeedPage(List<Post> posts, RemoteKey remoteKey) {
+        savePosts(posts);
+        remoteKeys.put(remoteKey.getLabel(), remoteKey);
+    }
+
+    @Override
+    public PagingSource<FeedCursor, Comment> getCommentPagingSource(String postId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void saveComment(Comment comment) {
+    }
+
+    @Override
+    public void saveCommentPage(List<Comment> comments, RemoteKey remoteKey) {
+        remoteKeys.put(remoteKey.getLabel(), remoteKey);
+    }
+
+    @Override
+    public void deleteComment(String commentId) {
+    }
+
+    @Override
+    public Boolean toggleLike(String postId) {
+        Post post = posts.get(postId);
+        if (post == null) {
+            return null;
+        }
+        post.setLikes(post.getLikes() + (post.isLiked() ? -1 : 1));
+        post.setLiked(!post.isLiked());
+        return post.isLiked();
+    }
+
+    @Override
+    public boolean revertLike(String postId, boolean liked) {
+        // 与PostDao.revertLike的条件更新一致
+        Post post = posts.get(postId);
+        if (post == null || post.isLiked() != liked) {
+            return false;
+        }
+        post.setLikes(post.getLikes() + (liked ? -1 : 1));
+        post.setLiked(!liked);
+        return true;
+    }
+
+    @Override
+    public void deletePost(String postId) {
+        posts.remove(postId);
+    }
+
+    @Override
+    public void clearAllPosts() {
+        posts.clear();
+    }
+
+    @Override
+    public void flushPendingWrites() {
+    }
+}
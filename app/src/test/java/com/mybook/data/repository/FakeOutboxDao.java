@@ -0,0 +1,108 @@
+package com.mybook.data.repository;
+
+import com.mybook.data.local.dao.OutboxDao;
+import com.mybook.data.model.OutboxEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 内存中的Outbox DAO，按id保持入队顺序，用于待发送队列的单元测试
+ */
+class FakeOutboxDao implements OutboxDao {
+    private final Map<Long, OutboxEntry> entries = new TreeMap<>();
+    private long nextId = 1;
+
+    @Override
+    public synchronized long insert(OutboxEntry entry) {
+        entry.setId(nextId++);
+        entries.put(entry.getId(), entry);
+        return entry.getId();
+    }
+
+    @Override
+    public synchronized List<OutboxEntry> getHead(int limit) {
+        List<OutboxEntry> head = new ArrayList<>();
+        for (OutboxEntry entry : entries.values()) {
+            if (head.size() == limit) {
+                break;
+            }
+            head.add(copy(entry));
+        }
+        return head;
+    }
+
+    @Override
+    public synchronized OutboxEntry findUnsentEngagement(String postId, String engagementType) {
+        OutboxEntry found = null;
+        for (OutboxEntry entry : entries.values()) {
+            if (entry.isEngagement() && postId.equals(entry.getPostId())
+                    && engagementType.equals(entry.getEngagementType()) && entry.getAttempts() == 0) {
+                found = entry;
+            }
+        }
+        return found != null ? copy(found) : null;
+    }
+
+    @Override
+    public synchronized void updateCount(long id, int count) {
+        entries.get(id).setCount(count);
+    }
+
+    @Override
+    public synchronized void markAttempted(List<Long> ids) {
+        for (Long id : ids) {
+            OutboxEntry entry = entries.get(id);
+            entry.setAttempts(entry.getAttempts() + 1);
+        }
+    }
+
+    @Override
+    public synchronized void setNextAttemptAt(List<Long> ids, long nextAttemptAt) {
+        for (Long id : ids) {
+            entries.get(id).setNextAttemptAt(nextAttemptAt);
+        }
+    }
+
+    @Override
+    public synchronized void resetBackoff() {
+        for (OutboxEntry entry : entries.values()) {
+            if (entry.getAttempts() > 0) {
+                entry.setNextAttemptAt(0);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void deleteByIds(List<Long> ids) {
+        for (Long id : ids) {
+            entries.remove(id);
+        }
+    }
+
+    @Override
+    public synchronized void deleteById(long id) {
+        entries.remove(id);
+    }
+
+    @Override
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    /**
+     * 返回副本，与Room每次查询返回新对象的行为一致
+     */
+    private static OutboxEntry copy(OutboxEntry entry) {
+        OutboxEntry copy = new OutboxEntry(entry.getIdempotencyKey(), entry.getType(), entry.getPostId(),
+                entry.getTargetId(), entry.getEngagementType(), entry.getCount(), entry.getPayload(),
+                entry.getCreatedAt());
+        copy.setId(entry.getId());
+        copy.setTargetState(entry.getTargetState());
+        copy.setAttempts(entry.getAttempts());
+        copy.setNextAttemptAt(entry.getNextAttemptAt());
+        return copy;
+    }
+}
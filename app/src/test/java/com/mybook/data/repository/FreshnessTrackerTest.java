@@ -0,0 +1,87 @@
+package com.mybook.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.SharedPreferences;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FreshnessTracker单元测试
+ */
+public class FreshnessTrackerTest {
+    private final Map<String, Object> stored = new HashMap<>();
+    private SharedPreferences preferences;
+    private SharedPreferences.Editor editor;
+
+    @Before
+    public void setUp() {
+        preferences = mock(SharedPreferences.class);
+        editor = mock(SharedPreferences.Editor.class, RETURNS_SELF);
+        when(preferences.getAll()).thenAnswer(invocation -> stored);
+        when(preferences.edit()).thenReturn(editor);
+    }
+
+    @Test
+    public void expiredAndMalformedEntriesArePrunedAtLoad() {
+        long now = System.currentTimeMillis();
+        stored.put("post:fresh", now - 1000);
+        stored.put("post:old", now - FreshnessTracker.MAX_AGE_MILLIS - 1000);
+        stored.put("post:bad", "yesterday");
+
+        FreshnessTracker tracker = new FreshnessTracker(preferences);
+
+        assertEquals(1, tracker.size());
+        assertNotEquals(FreshnessTracker.NEVER_FETCHED, tracker.ageMillis("post:fresh"));
+        assertEquals(FreshnessTracker.NEVER_FETCHED, tracker.ageMillis("post:old"));
+        verify(editor).remove("post:old");
+        verify(editor).remove("post:bad");
+        verify(editor, never()).remove("post:fresh");
+        verify(editor).apply();
+    }
+
+    @Test
+    public void loadingNothingStaleDoesNotWrite() {
+        stored.put("post:fresh", System.currentTimeMillis());
+
+        new FreshnessTracker(preferences);
+
+        verify(preferences, never()).edit();
+    }
+
+    @Test
+    public void oldestEntriesAreEvictedOverTheCap() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < FreshnessTracker.MAX_ENTRIES + 2; i++) {
+            // post:0最早，编号越大越新
+            stored.put("post:" + i, now - 10000 + i);
+        }
+
+        FreshnessTracker tracker = new FreshnessTracker(preferences);
+
+        assertEquals(FreshnessTracker.MAX_ENTRIES, tracker.size());
+        verify(editor).remove("post:0");
+        verify(editor).remove("post:1");
+        assertEquals(FreshnessTracker.NEVER_FETCHED, tracker.ageMillis("post:1"));
+        assertNotEquals(FreshnessTracker.NEVER_FETCHED, tracker.ageMillis("post:2"));
+
+        tracker.markFetched("post:new");
+
+        assertEquals(FreshnessTracker.MAX_ENTRIES, tracker.size());
+        assertEquals(FreshnessTracker.NEVER_FETCHED, tracker.ageMillis("post:2"));
+        verify(editor).remove("post:2");
+        verify(editor).putLong(eq("post:new"), anyLong());
+    }
+}
@@ -0,0 +1,248 @@
+package com.mybook.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.model.EngagementAction;
+import com.mybook.data.model.EngagementBatch;
+import com.mybook.data.model.Post;
+import com.mybook.data.remote.RemoteDataSource;
+import com.mybook.data.remote.error.ErrorType;
+import com.mybook.data.remote.error.NetworkException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutboxProcessor单元测试
+ * 待发送队列和本地数据源为内存实现，批量互动请求由测试逐个应答
+ */
+public class OutboxProcessorTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private ExecutorService diskWrite;
+    private ScheduledExecutorService scheduler;
+    private FakeOutboxDao outboxDao;
+    private FakeLocalDataSource local;
+    private final BlockingQueue<SentBatch> sent = new LinkedBlockingQueue<>();
+    private OutboxProcessor processor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        diskWrite = Executors.newSingleThreadExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        AppExecutors executors = new AppExecutors(diskWrite, Runnable::run, Runnable::run, Runnable::run,
+                Runnable::run, scheduler);
+        RemoteDataSource remote = mock(RemoteDataSource.class);
+        doAnswer(invocation -> {
+            sent.add(new SentBatch(invocation.getArgument(0), invocation.getArgument(1)));
+            return null;
+        }).when(remote).sendEngagements(any(EngagementBatch.class), any(RemoteDataSource.RemoteCallback.class));
+
+        outboxDao = new FakeOutboxDao();
+        local = new FakeLocalDataSource();
+        processor = new OutboxProcessor(outboxDao, local, remote, executors);
+    }
+
+    @After
+    public void tearDown() {
+        diskWrite.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void likeAndUnlikeAreSentAsDistinctActions() throws Exception {
+        givenPost("p1", false, 3);
+        givenPost("p2", true, 5);
+        like("p1");
+        like("p2");
+
+        List<EngagementAction> actions = new ArrayList<>();
+        while (actions.size() < 2) {
+            SentBatch batch = nextBatch();
+            actions.addAll(batch.batch.getActions());
+            batch.callback.onSuccess(true);
+        }
+        assertAction(actions.get(0), "p1", EngagementAction.TYPE_LIKE);
+        assertAction(actions.get(1), "p2", EngagementAction.TYPE_UNLIKE);
+
+        awaitWriter();
+        assertEquals(0, outboxDao.count());
+        assertEquals(2, processor.getSentCount());
+    }
+
+    @Test
+    public void tapsMillisecondsApartAreSentInOneBatch() throws Exception {
+        givenPost("p1", false, 3);
+        givenPost("p2", false, 4);
+        givenPost("p3", true, 5);
+        like("p1");
+        Thread.sleep(5);
+        like("p2");
+        Thread.sleep(5);
+        like("p3");
+
+        SentBatch batch = nextBatch();
+        assertEquals(3, batch.batch.getActions().size());
+        assertAction(batch.batch.getActions().get(0), "p1", EngagementAction.TYPE_LIKE);
+        assertAction(batch.batch.getActions().get(1), "p2", EngagementAction.TYPE_LIKE);
+        assertAction(batch.batch.getActions().get(2), "p3", EngagementAction.TYPE_UNLIKE);
+        batch.callback.onSuccess(true);
+
+        awaitWriter();
+        assertEquals(0, outboxDao.count());
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void likeThenUnlikeInsideWindowSendsNothing() throws Exception {
+        givenPost("p1", false, 3);
+        like("p1");
+        like("p1");
+        awaitWriter();
+
+        assertEquals(0, outboxDao.count());
+        assertEquals(2, processor.getCancelledCount());
+        assertNull(sent.poll(1500, TimeUnit.MILLISECONDS));
+        assertFalse(local.posts.get("p1").isLiked());
+        assertEquals(3, local.posts.get("p1").getLikes());
+    }
+
+    @Test
+    public void rejectedLikeIsReverted() throws Exception {
+        givenPost("p1", false, 3);
+        like("p1");
+        SentBatch batch = nextBatch();
+
+        batch.callback.onFailure(new NetworkException(ErrorType.CLIENT_ERROR, 400, "Rejected"));
+        awaitWriter();
+
+        assertFalse(local.posts.get("p1").isLiked());
+        assertEquals(3, local.posts.get("p1").getLikes());
+        assertEquals(1, processor.getRolledBackCount());
+        assertEquals(0, outboxDao.count());
+    }
+
+    @Test
+    public void rejectedLikeKeepsNewerLocalChoice() throws Exception {
+        givenPost("p1", false, 3);
+        like("p1");
+        SentBatch first = nextBatch();
+
+        // 请求发出后用户又取消了点赞，这是一条新的操作
+        like("p1");
+        first.callback.onFailure(new NetworkException(ErrorType.CLIENT_ERROR, 400, "Rejected"));
+        awaitWriter();
+
+        // 本地已不是被拒绝的操作的结果，保持用户最新的选择，不再切换
+        assertFalse(local.posts.get("p1").isLiked());
+        assertEquals(3, local.posts.get("p1").getLikes());
+
+        // 之后的取消点赞照常发送
+        SentBatch second = nextBatch();
+        assertEquals(1, second.batch.getActions().size());
+        assertAction(second.batch.getActions().get(0), "p1", EngagementAction.TYPE_UNLIKE);
+    }
+
+    @Test
+    public void networkErrorKeepsEntryForRetry() throws Exception {
+        givenPost("p1", false, 3);
+        like("p1");
+        SentBatch batch = nextBatch();
+
+        batch.callback.onFailure(new NetworkException(ErrorType.NETWORK_ERROR, "Offline"));
+        awaitWriter();
+
+        assertEquals(1, outboxDao.count());
+        assertEquals(1, processor.getRetryCount());
+        assertTrue(local.posts.get("p1").isLiked());
+    }
+
+    @Test
+    public void networkErrorGivesUpAfterMaxAttempts() throws Exception {
+        givenPost("p1", false, 3);
+        like("p1");
+        int attempts = 0;
+        while (outboxDao.count() > 0) {
+            SentBatch batch = nextBatch();
+            attempts++;
+            batch.callback.onFailure(new NetworkException(ErrorType.NETWORK_ERROR, "Unreachable"));
+            awaitWriter();
+            // 模拟网络恢复，清除退避后立即重试
+            processor.drainNow();
+        }
+
+        assertEquals(20, attempts);
+        assertEquals(1, processor.getRolledBackCount());
+        assertFalse(local.posts.get("p1").isLiked());
+    }
+
+    private void givenPost(String id, boolean liked, int likes) {
+        Post post = new Post();
+        post.setId(id);
+        post.setLiked(liked);
+        post.setLikes(likes);
+        local.posts.put(id, post);
+    }
+
+    /**
+     * 与PostRepositoryImpl.likePost相同：在写线程中切换本地状态后带着目标状态入队
+     * 入队本身又投递到写线程，等它执行完再返回
+     */
+    private void like(String postId) throws Exception {
+        diskWrite.submit(() -> {
+            Boolean liked = local.toggleLike(postId);
+            processor.enqueueLike(postId, liked);
+        }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        diskWrite.submit(() -> { }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void awaitWriter() throws Exception {
+        // 失败处理会再投递一次到写线程，提交两次空任务确保它们都已执行
+        diskWrite.submit(() -> { }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        diskWrite.submit(() -> { }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private SentBatch nextBatch() throws InterruptedException {
+        SentBatch batch = sent.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("no engagement batch was sent", batch);
+        return batch;
+    }
+
+    private static void assertAction(EngagementAction action, String postId, String type) {
+        assertEquals(postId, action.getPostId());
+        assertEquals(type, action.getType());
+        assertNotNull(action.getIdempotencyKey());
+    }
+
+    /**
+     * 一次批量请求及其回调
+     */
+    private static final class SentBatch {
+        final EngagementBatch batch;
+        final RemoteDataSource.RemoteCallback<Boolean> callback;
+
+        SentBatch(EngagementBatch batch, RemoteDataSource.RemoteCallback<Boolean> callback) {
+            this.batch = batch;
+            this.callback = callback;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.mybook.data.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.mybook.base.concurrent.AppExecutors;
+import com.mybook.data.json.GsonProvider;
+import com.mybook.data.model.Post;
+import com.mybook.data.model.RemoteKey;
+import com.mybook.data.remote.CborConverterFactory;
+import com.mybook.data.remote.RemoteDataSource;
+import com.mybook.data.remote.RemoteDataSourceImpl;
+import com.mybook.data.remote.ResilientCaller;
+import com.mybook.data.remote.api.ApiService;
+import com.mybook.data.remote.error.CircuitBreaker;
+import com.mybook.data.remote.error.RetryPolicy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Retrofit;
+
+/**
+ * PostSynchronizer单元测试
+ * 用MockWebServer模拟服务端，本地数据源为内存实现，写库在单独的写线程执行
+ */
+public class PostSynchronizerTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private MockWebServer server;
+    private ExecutorService diskWrite;
+    private ScheduledExecutorService scheduler;
+    private FakeLocalDataSource local;
+    private PostSynchronizer synchronizer;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        diskWrite = Executors.newSingleThreadExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        Executor direct = Runnable::run;
+        AppExecutors executors = new AppExecutors(diskWrite, direct, direct, direct, direct, scheduler);
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(CborConverterFactory.create(GsonProvider.get()))
+                .callbackExecutor(direct)
+                .build();
+        // 不重试，每个请求只对应一个模拟响应
+        ResilientCaller caller = new ResilientCaller(new RetryPolicy(0, 0L, 0L, new Random(0)),
+                new CircuitBreaker(), executors);
+        RemoteDataSource remote = new RemoteDataSourceImpl(retrofit.create(ApiService.class), caller);
+
+        local = new FakeLocalDataSource();
+        synchronizer = new PostSynchronizer(local, remote, executors);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        diskWrite.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void syncChanges_appliesUpsertsDeletesAndNextToken() throws Exception {
+        givenLocalPosts("p1", "p2");
+        givenSyncToken("t1");
+        server.enqueue(json("{\"posts\":[" + postJson("p2", "edited") + "," + postJson("p3", "new") + "],"
+                + "\"deletedIds\":[\"p1\"],\"syncToken\":\"t2\"}"));
+
+        SyncResult result = new SyncResult();
+        synchronizer.sync(result);
+        result.await();
+
+        assertNull(result.error);
+        assertEquals("/posts?since=t1", server.takeRequest().getPath());
+        assertEquals(new HashSet<>(Arrays.asList("p2", "p3")), local.posts.keySet());
+        assertEquals("edited", local.posts.get("p2").getContent());
+        assertEquals("t2", synchronizer.getSyncToken());
+    }
+
+    @Test
+    public void syncChanges_keepsTokenWhenServerReturnsNone() throws Exception {
+        givenSyncToken("t1");
+        server.enqueue(json("{\"posts\":[" + postJson("p1", "hello") + "]}"));
+
+        SyncResult result = new SyncResult();
+        synchronizer.sync(result);
+        result.await();
+
+        assertNull(result.error);
+        assertTrue(local.posts.containsKey("p1"));
+        assertEquals("t1", synchronizer.getSyncToken());
+    }
+
+    @Test
+    public void syncChanges_expiredTokenFallsBackToFullSync() throws Exception {
+        givenLocalPosts("p1", "p2", "p9");
+        givenSyncToken("t1");
+        server.enqueue(new MockResponse().setResponseCode(410));
+        server.enqueue(json("[" + postJson("p1", "a") + "," + postJson("p2", "b") + "," + postJson("p3", "c") + "]")
+                .setHeader("X-Sync-Token", "t5"));
+
+        SyncResult result = new SyncResult();
+        synchronizer.sync(result);
+        result.await();
+
+        assertNull(result.error);
+        assertEquals("/posts?since=t1", server.takeRequest().getPath());
+        assertEquals("/posts", server.takeRequest().getPath());
+        // 服务端已不存在的p9在全量同步结束时被删除
+        assertEquals(new HashSet<>(Arrays.asList("p1", "p2", "p3")), local.posts.keySet());
+        assertEquals("t5", synchronizer.getSyncToken());
+    }
+
+    @Test
+    public void syncAll_failedBatchWriteKeepsOldTokenAndSkipsSweep() throws Exception {
+        givenLocalPosts("stale");
+        givenSyncToken("t1");
+        server.enqueue(new MockResponse().setResponseCode(410));
+        server.enqueue(json(postArray(PostSynchronizer.REFRESH_BATCH_SIZE * 2 + 20))
+                .setHeader("X-Sync-Token", "t5"));
+        // 第二批写入失败，在提交第三批前被发现
+        local.failBatchAt = 2;
+
+        SyncResult result = new SyncResult();
+        synchronizer.sync(result);
+        result.await();
+
+        assertNotNull(result.error);
+        assertEquals("t1", synchronizer.getSyncToken());
+        assertTrue(local.posts.containsKey("stale"));
+    }
+
+    @Test
+    public void syncAll_failedLastBatchKeepsTokenUnsaved() throws Exception {
+        givenLocalPosts("stale");
+        server.enqueue(json(postArray(PostSynchronizer.REFRESH_BATCH_SIZE + 10))
+                .setHeader("X-Sync-Token", "t5"));
+        // 最后一批写入失败，在保存令牌前被发现
+        local.failBatchAt = 2;
+
+        SyncResult result = new SyncResult();
+        synchronizer.sync(result);
+        result.await();
+
+        assertNotNull(result.error);
+        assertNull(synchronizer.getSyncToken());
+        assertTrue(local.posts.containsKey("stale"));
+
+        // 失败后可以重新发起全量同步
+        local.failBatchAt = 0;
+        server.enqueue(json(postArray(3)).setHeader("X-Sync-Token", "t6"));
+        SyncResult retry = new SyncResult();
+        synchronizer.sync(retry);
+        retry.await();
+
+        assertNull(retry.error);
+        assertEquals("t6", synchronizer.getSyncToken());
+        assertEquals(3, local.posts.size());
+    }
+
+    @Test
+    public void syncAll_streamsLargeBodyInRefreshBatches() throws Exception {
+        int batchSize = PostSynchronizer.REFRESH_BATCH_SIZE;
+        int total = batchSize * 200 + batchSize / 2;
+        // 约1MB的分块响应，解析器逐条读取，不等整个响应体下载完
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("X-Sync-Token", "t1")
+                .setChunkedBody(postArray(total), 8 * 1024));
+
+        SyncResult result = new SyncResult();
+        synchronizer.sync(result);
+        result.await();
+
+        assertNull(result.error);
+        assertEquals("/posts", server.takeRequest().getPath());
+        assertEquals(201, local.batchSizes.size());
+        for (int i = 0; i < local.batchSizes.size() - 1; i++) {
+            assertEquals(batchSize, (int) local.batchSizes.get(i));
+        }
+        assertEquals(batchSize / 2, (int) local.batchSizes.get(local.batchSizes.size() - 1));
+        assertEquals(total, local.posts.size());
+        assertEquals("t1", synchronizer.getSyncToken());
+    }
+
+    private void givenLocalPosts(String... ids) {
+        for (String id : ids) {
+            Post post = new Post();
+            post.setId(id);
+            post.setContent("local " + id);
+            local.posts.put(id, post);
+        }
+    }
+
+    private void givenSyncToken(String token) {
+        local.remoteKeys.put(PostSynchronizer.SYNC_LABEL, new RemoteKey(PostSynchronizer.SYNC_LABEL, token));
+    }
+
+    static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    static String postJson(String id, String content) {
+        return "{\"id\":\"" + id + "\",\"userId\":\"u1\",\"content\":\"" + content + "\","
+                + "\"likes\":3,\"createdAt\":\"2024-01-01T00:00:00Z\"}";
+    }
+
+    static String postArray(int count) {
+        StringBuilder body = new StringBuilder(count * 100).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(postJson("p" + i, "content " + i));
+        }
+        return body.append(']').toString();
+    }
+
+    /**
+     * 等待同步结果的回调
+     */
+    static final class SyncResult implements RemoteDataSource.RemoteCallback<Void> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error;
+
+        @Override
+        public void onSuccess(Void data) {
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("sync did not finish", done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+}